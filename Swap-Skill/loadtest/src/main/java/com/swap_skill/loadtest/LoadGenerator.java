@@ -0,0 +1,155 @@
+package com.swap_skill.loadtest;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are issued on a fixed schedule regardless of how many are still
+ * in flight, and each latency is measured from the request's intended start time. A slow server therefore
+ * shows up as queueing delay in the percentiles instead of silently lowering the offered load
+ * (no coordinated omission).
+ */
+public class LoadGenerator {
+
+    private final SkillSwapClient client;
+    private final SyntheticData data;
+    private final List<String> userIds;
+    private final List<String> publicUserIds;
+    private final Scenario[] schedule;
+    private final Queue<String> pendingSwaps = new ConcurrentLinkedQueue<>();
+    private final Queue<String> acceptedSwaps = new ConcurrentLinkedQueue<>();
+    private final Queue<String> completedSwaps = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(SkillSwapClient client, SyntheticData data, List<String> userIds, List<String> publicUserIds,
+                         Map<Scenario, Integer> mix) {
+        this.client = client;
+        this.data = data;
+        this.userIds = Collections.synchronizedList(new ArrayList<>(userIds));
+        this.publicUserIds = Collections.synchronizedList(new ArrayList<>(publicUserIds));
+        List<Scenario> weighted = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix must have at least one positive weight");
+        }
+        this.schedule = weighted.toArray(new Scenario[0]);
+    }
+
+    /**
+     * Issues requests at {@code rate} per second for {@code duration}, then waits for stragglers.
+     */
+    public void run(double rate, Duration duration, LatencyReport report) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * interval;
+            if (intendedStart >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intendedStart) {
+                LockSupport.parkNanos(intendedStart - now);
+            }
+            Scenario scenario = schedule[(int) (data.nextDouble() * schedule.length)];
+            inFlight.incrementAndGet();
+            execute(scenario, intendedStart, report).whenComplete((ignored, error) -> inFlight.decrementAndGet());
+        }
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private CompletableFuture<?> execute(Scenario scenario, long intendedStart, LatencyReport report) {
+        switch (scenario) {
+            case SIGNUP: {
+                Map<String, Object> user = data.user();
+                return timed("POST /users", intendedStart, report, client.post("/users", user))
+                        .thenAccept(response -> {
+                            if (response.ok() && response.dataId() != null) {
+                                userIds.add(response.dataId());
+                                if (Boolean.TRUE.equals(user.get("publicProfile"))) {
+                                    publicUserIds.add(response.dataId());
+                                }
+                            }
+                        });
+            }
+            case BROWSE:
+                return timed("GET /users/skills/offered", intendedStart, report,
+                        client.get("/users/skills/offered?skill=" + SkillSwapClient.encode(data.skill())));
+            case VIEW_PROFILE:
+                // Private profiles answer 403, which would count as errors
+                return timed("GET /users/{id}", intendedStart, report, client.get("/users/" + data.pick(publicUserIds)));
+            case SEARCH:
+                return timed("GET /users/search", intendedStart, report,
+                        client.get("/users/search?searchTerm=" + SkillSwapClient.encode(data.namePrefix())));
+            case INBOX:
+                return timed("GET /swaps/to/{id}", intendedStart, report, client.get("/swaps/to/" + data.pick(userIds)));
+            case ACCEPT_SWAP: {
+                String id = pendingSwaps.poll();
+                if (id == null) {
+                    return execute(Scenario.CREATE_SWAP, intendedStart, report);
+                }
+                return timed("PATCH /swaps/{id}/accept", intendedStart, report, client.patch("/swaps/" + id + "/accept"))
+                        .thenAccept(response -> {
+                            if (response.ok()) {
+                                acceptedSwaps.add(id);
+                            }
+                        });
+            }
+            case COMPLETE_SWAP: {
+                String id = acceptedSwaps.poll();
+                if (id == null) {
+                    return execute(Scenario.ACCEPT_SWAP, intendedStart, report);
+                }
+                return timed("PATCH /swaps/{id}/complete", intendedStart, report, client.patch("/swaps/" + id + "/complete"))
+                        .thenAccept(response -> {
+                            if (response.ok()) {
+                                completedSwaps.add(id);
+                            }
+                        });
+            }
+            case RATE_SWAP: {
+                String id = completedSwaps.poll();
+                if (id == null) {
+                    return execute(Scenario.COMPLETE_SWAP, intendedStart, report);
+                }
+                return timed("PATCH /swaps/{id}/rating", intendedStart, report,
+                        client.patch("/swaps/" + id + "/rating?rating=" + data.rating()));
+            }
+            case CREATE_SWAP:
+            default: {
+                String from = data.pick(userIds);
+                String to = data.pickOther(userIds, from);
+                Map<String, Object> swap = new LinkedHashMap<>();
+                swap.put("fromUserId", from);
+                swap.put("toUserId", to);
+                swap.put("skillOffered", data.skill());
+                swap.put("skillWanted", data.skill());
+                swap.put("message", "Load test swap");
+                return timed("POST /swaps", intendedStart, report, client.post("/swaps", swap))
+                        .thenAccept(response -> {
+                            if (response.ok() && response.dataId() != null) {
+                                pendingSwaps.add(response.dataId());
+                            }
+                        });
+            }
+        }
+    }
+
+    private static CompletableFuture<SkillSwapClient.Response> timed(String endpoint, long intendedStart, LatencyReport report,
+                                                                     CompletableFuture<SkillSwapClient.Response> call) {
+        return call.whenComplete((response, error) ->
+                report.record(endpoint, System.nanoTime() - intendedStart, error == null && response.ok()));
+    }
+}
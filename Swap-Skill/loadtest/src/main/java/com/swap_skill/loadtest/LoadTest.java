@@ -0,0 +1,66 @@
+package com.swap_skill.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Seeds a synthetic data set through the public API, warms the server up, then runs the measured
+ * open-model load and prints throughput and latency percentiles per endpoint.
+ * <pre>
+ * mvn -q compile exec:java -Dexec.args="--base-url=http://localhost:8080/api --rate=200 --duration=60"
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final int SEED_BATCH = 50;
+
+    public static void main(String[] args) {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        SkillSwapClient client = new SkillSwapClient(config.baseUrl(), config.timeout());
+        SyntheticData data = new SyntheticData(config.seed());
+
+        System.out.printf("Seeding %d users against %s%n", config.users(), config.baseUrl());
+        List<String> userIds = new ArrayList<>(config.users());
+        List<String> publicUserIds = new ArrayList<>(config.users());
+        seedUsers(client, data, config.users(), userIds, publicUserIds);
+        if (userIds.size() < 2 || publicUserIds.isEmpty()) {
+            throw new IllegalStateException("Seeding failed: only " + userIds.size() + " users ("
+                    + publicUserIds.size() + " public) were created");
+        }
+
+        LoadGenerator generator = new LoadGenerator(client, data, userIds, publicUserIds, config.mix());
+        if (!config.warmup().isZero()) {
+            System.out.printf("Warming up for %d s at %.0f req/s%n", config.warmup().toSeconds(), config.rate());
+            generator.run(config.rate(), config.warmup(), new LatencyReport());
+        }
+
+        System.out.printf("Running for %d s at %.0f req/s%n", config.duration().toSeconds(), config.rate());
+        LatencyReport report = new LatencyReport();
+        generator.run(config.rate(), config.duration(), report);
+        report.print(config.duration());
+    }
+
+    private static void seedUsers(SkillSwapClient client, SyntheticData data, int count,
+                                  List<String> userIds, List<String> publicUserIds) {
+        for (int created = 0; created < count; created += SEED_BATCH) {
+            List<Map<String, Object>> users = new ArrayList<>();
+            List<CompletableFuture<SkillSwapClient.Response>> batch = new ArrayList<>();
+            for (int i = created; i < Math.min(count, created + SEED_BATCH); i++) {
+                Map<String, Object> user = data.user();
+                users.add(user);
+                batch.add(client.post("/users", user));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                SkillSwapClient.Response response = batch.get(i).join();
+                if (response.ok() && response.dataId() != null) {
+                    userIds.add(response.dataId());
+                    if (Boolean.TRUE.equals(users.get(i).get("publicProfile"))) {
+                        publicUserIds.add(response.dataId());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.swap_skill.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+public record LoadTestConfig(String baseUrl,
+                             double rate,
+                             Duration duration,
+                             Duration warmup,
+                             int users,
+                             long seed,
+                             Duration timeout,
+                             Map<Scenario, Integer> mix) {
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return new LoadTestConfig(
+                options.getOrDefault("base-url", "http://localhost:8080/api"),
+                Double.parseDouble(options.getOrDefault("rate", "100")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                Integer.parseInt(options.getOrDefault("users", "500")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "10"))),
+                parseMix(options.get("mix")));
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        if (mix == null) {
+            for (Scenario scenario : Scenario.values()) {
+                weights.put(scenario, scenario.defaultWeight());
+            }
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Scenario.valueOf(parts[0].trim().toUpperCase().replace('-', '_')), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,26 @@
+package com.swap_skill.loadtest;
+
+/**
+ * User actions driven against the REST API, with their default share of the traffic mix.
+ */
+public enum Scenario {
+    SIGNUP(3),
+    BROWSE(30),
+    VIEW_PROFILE(15),
+    SEARCH(20),
+    INBOX(10),
+    CREATE_SWAP(10),
+    ACCEPT_SWAP(5),
+    COMPLETE_SWAP(4),
+    RATE_SWAP(3);
+
+    private final int defaultWeight;
+
+    Scenario(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+}
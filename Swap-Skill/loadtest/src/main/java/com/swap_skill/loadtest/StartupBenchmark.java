@@ -0,0 +1,150 @@
+package com.swap_skill.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Starts the backend jar several times per JVM setup (plain, Spring AOT, AOT with a class-data sharing archive)
+ * and reports the median time until it is live, until it is ready, and of its first request. Depends on the JDK
+ * only, so the backend build runs it straight from source:
+ * <pre>
+ * java StartupBenchmark.java --jar=target/faststart/swapskill-0.0.1-SNAPSHOT.jar --cds-archive=target/faststart/application.jsa
+ * </pre>
+ * Readiness includes Firestore in the {@code faststart} profile; without credentials it is reported as "-".
+ */
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        Path jar = Paths.get(Objects.requireNonNull(options.get("jar"), "--jar is required"));
+        Path cdsArchive = options.containsKey("cds-archive") ? Paths.get(options.get("cds-archive")) : null;
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        String profiles = options.getOrDefault("profiles", "faststart");
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "60")));
+        Duration readyTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("ready-timeout", "5")));
+
+        Map<String, List<String>> setups = new LinkedHashMap<>();
+        setups.put("jvm", List.of());
+        setups.put("aot", List.of("-Dspring.aot.enabled=true"));
+        if (cdsArchive != null && Files.isRegularFile(cdsArchive)) {
+            setups.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + cdsArchive));
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Startup of %s (profiles: %s), median of %d runs%n", jar.getFileName(), profiles, runs));
+        report.append(String.format("%-10s %12s %12s %16s%n", "setup", "live (ms)", "ready (ms)", "first req (ms)"));
+        for (Map.Entry<String, List<String>> setup : setups.entrySet()) {
+            List<Long> live = new ArrayList<>();
+            List<Long> ready = new ArrayList<>();
+            List<Long> firstRequest = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                long[] result = run(client, jar, setup.getValue(), profiles, timeout, readyTimeout);
+                live.add(result[0]);
+                if (result[1] >= 0) {
+                    ready.add(result[1]);
+                }
+                firstRequest.add(result[2]);
+            }
+            report.append(String.format("%-10s %12d %12s %16d%n", setup.getKey(), median(live),
+                    ready.size() == runs ? String.valueOf(median(ready)) : "-", median(firstRequest)));
+        }
+        System.out.print(report);
+        if (options.containsKey("report")) {
+            Files.writeString(Paths.get(options.get("report")), report);
+        }
+    }
+
+    /**
+     * One start: milliseconds until live, until ready (-1 if not within {@code readyTimeout}), and of the first
+     * request after that.
+     */
+    private static long[] run(HttpClient client, Path jar, List<String> jvmOptions, String profiles,
+                              Duration timeout, Duration readyTimeout) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.profiles.active=" + profiles,
+                "--management.endpoint.health.probes.enabled=true"));
+        String base = "http://localhost:" + port + "/api";
+        Path log = Files.createTempFile("startup-benchmark", ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long live = waitFor(client, process, base + "/actuator/health/liveness", start, timeout, log);
+            long ready = waitFor(client, process, base + "/actuator/health/readiness", start, readyTimeout, null);
+
+            long requestStart = System.nanoTime();
+            client.send(HttpRequest.newBuilder(URI.create(base + "/skills/autocomplete?prefix=ja")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            long firstRequest = (System.nanoTime() - requestStart) / 1_000_000;
+            return new long[]{live, ready, firstRequest};
+        } finally {
+            process.destroy();
+            process.waitFor();
+            Files.deleteIfExists(log);
+        }
+    }
+
+    /**
+     * Polls the URL until it answers 200 and returns the milliseconds since {@code start}; -1 on timeout when
+     * {@code log} is null, otherwise fails with the server log.
+     */
+    private static long waitFor(HttpClient client, Process process, String url, long start, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(1)).build();
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        if (log == null) {
+            return -1;
+        }
+        throw new IllegalStateException("Backend did not become live at " + url + ":\n" + Files.readString(log));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,104 @@
+package com.swap_skill.loadtest;
+
+import java.util.*;
+
+/**
+ * Deterministic synthetic profiles. Skill popularity follows a Zipf-like distribution so a few skills
+ * dominate, as they do in production.
+ */
+public class SyntheticData {
+
+    private static final String[] SKILLS = {
+            "Python", "JavaScript", "React", "Java", "Excel", "Photoshop", "Guitar", "Spanish", "SQL", "Figma",
+            "Machine Learning", "Public Speaking", "Cooking", "Photography", "French", "Piano", "TypeScript",
+            "Node.js", "Video Editing", "Yoga", "Drawing", "Marketing", "Writing", "Go", "Rust", "Kotlin",
+            "Data Analysis", "Illustrator", "German", "Chess", "Swift", "Docker", "Kubernetes", "Accounting",
+            "Negotiation", "Singing", "Japanese", "UX Research", "Blender", "Calligraphy"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Maya", "Liam", "Zoe", "Noah", "Ava", "Ishaan", "Mia", "Ethan", "Sara",
+            "Arjun", "Lena", "Omar", "Nina", "Kai", "Priya", "Leo", "Hana", "Ravi", "Elena"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Smith", "Garcia", "Chen", "Patel", "Kim", "Nguyen", "Rossi", "Khan", "Mueller"
+    };
+    private static final String[] LOCATIONS = {
+            "Delhi", "Mumbai", "Bengaluru", "London", "New York", "Berlin", "Tokyo", "Toronto"
+    };
+    private static final String[] AVAILABILITY = {"weekends", "evenings", "mornings", "weekdays"};
+
+    private final Random random;
+    private final double[] cumulativeSkillWeights = new double[SKILLS.length];
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+        double total = 0;
+        for (int i = 0; i < SKILLS.length; i++) {
+            total += 1.0 / Math.pow(i + 1, 1.1);
+            cumulativeSkillWeights[i] = total;
+        }
+        for (int i = 0; i < SKILLS.length; i++) {
+            cumulativeSkillWeights[i] /= total;
+        }
+    }
+
+    public synchronized Map<String, Object> user() {
+        Set<String> offered = skills(1 + random.nextInt(4));
+        Set<String> wanted = skills(1 + random.nextInt(3));
+        wanted.removeAll(offered);
+        if (wanted.isEmpty()) {
+            wanted.add(SKILLS[SKILLS.length - 1 - random.nextInt(10)]);
+        }
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("name", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        user.put("location", LOCATIONS[random.nextInt(LOCATIONS.length)]);
+        user.put("availability", List.of(AVAILABILITY[random.nextInt(AVAILABILITY.length)]));
+        user.put("skillsOffered", new ArrayList<>(offered));
+        user.put("skillsWanted", new ArrayList<>(wanted));
+        user.put("publicProfile", random.nextInt(10) != 0);
+        user.put("about", "Synthetic load-test profile");
+        return user;
+    }
+
+    public synchronized String skill() {
+        double r = random.nextDouble();
+        int index = Arrays.binarySearch(cumulativeSkillWeights, r);
+        return SKILLS[Math.min(SKILLS.length - 1, index >= 0 ? index : -index - 1)];
+    }
+
+    public synchronized String namePrefix() {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        return name.substring(0, 1 + random.nextInt(name.length()));
+    }
+
+    public synchronized <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * Picks a value other than {@code excluded}; {@code values} must hold at least one such value.
+     */
+    public synchronized <T> T pickOther(List<T> values, T excluded) {
+        T value;
+        do {
+            value = values.get(random.nextInt(values.size()));
+        } while (value.equals(excluded));
+        return value;
+    }
+
+    public synchronized double rating() {
+        return 1 + random.nextInt(5);
+    }
+
+    public synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private Set<String> skills(int count) {
+        Set<String> skills = new LinkedHashSet<>();
+        while (skills.size() < count) {
+            skills.add(skill());
+        }
+        return skills;
+    }
+}
@@ -0,0 +1,80 @@
+package com.swap_skill.swapskill.analytics;
+
+import com.swap_skill.swapskill.util.Hashing;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch of per-key counts in {@code depth * width} counters. An estimate never undercounts as long as
+ * no true count goes negative, and overcounts by at most {@code e / width} of the total count with probability
+ * {@code 1 - e^-depth}. Negative updates are allowed (strict turnstile), e.g. when a user stops offering a skill.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final long[][] counts;
+
+    /**
+     * @param width counters per row, a power of two
+     */
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Count-Min width must be a power of two");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counts = new long[depth][width];
+    }
+
+    void add(String key, long delta) {
+        long hash = Hashing.hash64(key);
+        for (int row = 0; row < depth; row++) {
+            counts[row][index(hash, row)] += delta;
+        }
+    }
+
+    long estimate(String key) {
+        long hash = Hashing.hash64(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row][index(hash, row)]);
+        }
+        return Math.max(estimate, 0);
+    }
+
+    void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /**
+     * Row indexes derived from two halves of one hash (Kirsch-Mitzenmacher), which is as good as independent
+     * hash functions per row.
+     */
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return (h1 + row * h2) & mask;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        for (long[] row : counts) {
+            for (long count : row) {
+                out.writeLong(count);
+            }
+        }
+    }
+
+    void readFrom(DataInputStream in) throws IOException {
+        for (long[] row : counts) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = in.readLong();
+            }
+        }
+    }
+} 
\ No newline at end of file
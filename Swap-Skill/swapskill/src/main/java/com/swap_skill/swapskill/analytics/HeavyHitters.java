@@ -0,0 +1,111 @@
+package com.swap_skill.swapskill.analytics;
+
+import com.swap_skill.swapskill.util.Hashing;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Space-Saving top-k: monitors at most {@code capacity} keys. A key that is not monitored replaces the one with
+ * the smallest count and inherits that count as its error, so {@code count - error <= true count <= count}, and
+ * every key occurring more than {@code total / capacity} times is monitored.
+ * <p>
+ * Each monitored key also tracks its distinct requesters in a {@link HyperLogLog}; those are counted from when
+ * the key was last admitted, so for keys that were evicted at some point they are a lower bound.
+ */
+final class HeavyHitters {
+
+    private static final Comparator<Counter> ORDER = Comparator.comparingLong((Counter counter) -> counter.count)
+            .thenComparing(counter -> counter.key);
+
+    private final int capacity;
+    private final int precision;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(ORDER);
+
+    HeavyHitters(int capacity, int precision) {
+        this.capacity = capacity;
+        this.precision = precision;
+    }
+
+    void add(String key, String requester) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count++;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(key, 1, 0, new HyperLogLog(precision));
+            counters.put(key, counter);
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            evicted.requesters.clear();
+            counter = new Counter(key, evicted.count + 1, evicted.count, evicted.requesters);
+            counters.put(key, counter);
+        }
+        counter.requesters.add(Hashing.hash64(requester));
+        byCount.add(counter);
+    }
+
+    /**
+     * Monitored keys, highest count first.
+     */
+    List<Counter> top(int limit) {
+        List<Counter> top = new ArrayList<>(Math.min(limit, byCount.size()));
+        for (Counter counter : byCount.descendingSet()) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(counter);
+        }
+        return top;
+    }
+
+    Optional<Counter> get(String key) {
+        return Optional.ofNullable(counters.get(key));
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(counters.size());
+        for (Counter counter : counters.values()) {
+            out.writeUTF(counter.key);
+            out.writeLong(counter.count);
+            out.writeLong(counter.error);
+            counter.requesters.writeTo(out);
+        }
+    }
+
+    void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+
+    void readFrom(DataInputStream in) throws IOException {
+        clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            Counter counter = new Counter(in.readUTF(), in.readLong(), in.readLong(), new HyperLogLog(precision));
+            counter.requesters.readFrom(in);
+            if (counters.size() < capacity) {
+                counters.put(counter.key, counter);
+                byCount.add(counter);
+            }
+        }
+    }
+
+    static final class Counter {
+        final String key;
+        long count;
+        final long error;
+        final HyperLogLog requesters;
+
+        Counter(String key, long count, long error, HyperLogLog requesters) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+            this.requesters = requesters;
+        }
+    }
+} 
\ No newline at end of file
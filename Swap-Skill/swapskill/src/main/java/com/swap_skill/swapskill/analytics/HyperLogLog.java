@@ -0,0 +1,61 @@
+package com.swap_skill.swapskill.analytics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog estimate of the number of distinct values added, in {@code 2^precision} one-byte registers.
+ * The standard error is about {@code 1.04 / sqrt(2^precision)}, e.g. 3.3% at precision 10 (1 KB).
+ */
+final class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    HyperLogLog(int precision) {
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        long rest = hash << precision;
+        int rank = rest == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Small cardinalities: linear counting over the empty registers is more accurate
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.write(registers);
+    }
+
+    void readFrom(DataInputStream in) throws IOException {
+        in.readFully(registers);
+    }
+} 
\ No newline at end of file
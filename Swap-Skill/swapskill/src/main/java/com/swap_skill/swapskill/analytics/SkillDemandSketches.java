@@ -0,0 +1,294 @@
+package com.swap_skill.swapskill.analytics;
+
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.dto.SkillDemandDto;
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.index.SkillDictionary;
+import com.swap_skill.swapskill.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Skill supply and demand kept in fixed-size sketches as users and swap requests are written, so reports never
+ * scan Firestore and use the same memory however many users there are.
+ * <ul>
+ *     <li>Count-Min sketches of how many users currently offer and want each skill, and of swap requests per
+ *     wanted skill, overall and per week for the last {@code analytics.weeks} weeks.</li>
+ *     <li>Space-Saving top-k of the most asked-for skills (a skill added to a wanted list or requested in a swap),
+ *     each with a HyperLogLog of the distinct users asking.</li>
+ * </ul>
+ * Offered and wanted counts describe current users and are rebuilt from the startup replay. The cumulative
+ * sketches are persisted to {@code analytics.path} periodically and on shutdown; once loaded, replays no longer
+ * feed them. The first start without a file seeds them from the replay (all users and open swap requests).
+ * Each instance counts the writes it handles.
+ */
+@Component
+@Slf4j
+public class SkillDemandSketches {
+
+    private static final int MAGIC = 0x534B414E;
+    private static final short VERSION = 1;
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 2048;
+    private static final int PRECISION = 10;
+
+    private final SkillDictionary skillDictionary;
+    private final Path path;
+    private final boolean persist;
+    private final int topK;
+    private final CountMinSketch offered = new CountMinSketch(DEPTH, WIDTH);
+    private final CountMinSketch wanted = new CountMinSketch(DEPTH, WIDTH);
+    private final CountMinSketch requests = new CountMinSketch(DEPTH, WIDTH);
+    private final CountMinSketch[] weeklyRequests;
+    private final long[] weekOfSlot;
+    private final HeavyHitters demand;
+    private boolean loaded;
+    private volatile boolean dirty;
+
+    public SkillDemandSketches(SkillDictionary skillDictionary,
+                               @Value("${analytics.path:data/analytics.sketches}") String path,
+                               @Value("${analytics.persist:true}") boolean persist,
+                               @Value("${analytics.top-k:200}") int topK,
+                               @Value("${analytics.weeks:12}") int weeks) {
+        this.skillDictionary = skillDictionary;
+        this.path = Paths.get(path);
+        this.persist = persist;
+        this.topK = topK;
+        this.weeklyRequests = new CountMinSketch[weeks];
+        this.weekOfSlot = new long[weeks];
+        for (int i = 0; i < weeks; i++) {
+            weeklyRequests[i] = new CountMinSketch(DEPTH, WIDTH);
+            weekOfSlot[i] = Long.MIN_VALUE;
+        }
+        this.demand = new HeavyHitters(topK, PRECISION);
+    }
+
+    @EventListener
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        User previous = event.getPrevious();
+        User current = event.getCurrent();
+        apply(offered, skills(previous == null ? null : previous.getSkillsOffered()),
+                skills(current == null ? null : current.getSkillsOffered()));
+        Set<String> wantedBefore = skills(previous == null ? null : previous.getSkillsWanted());
+        Set<String> wantedAfter = skills(current == null ? null : current.getSkillsWanted());
+        apply(wanted, wantedBefore, wantedAfter);
+        if (event.isReplay() && loaded) {
+            return;
+        }
+        for (String skill : wantedAfter) {
+            if (!wantedBefore.contains(skill)) {
+                demand.add(skill, event.getUserId());
+                dirty = true;
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onSwapRequestChanged(SwapRequestChangedEvent event) {
+        if (event.isDeleted() || event.getPreviousStatus() != null || (event.isReplay() && loaded)) {
+            return;
+        }
+        String skill = resolveSkill(event.getSwapRequest().getSkillWanted());
+        if (skill == null) {
+            return;
+        }
+        Timestamp createdAt = event.getSwapRequest().getCreatedAt();
+        requests.add(skill, 1);
+        CountMinSketch week = week(weekOf(createdAt != null ? createdAt : Timestamp.now()));
+        if (week != null) {
+            week.add(skill, 1);
+        }
+        demand.add(skill, event.getSwapRequest().getFromUserId());
+        dirty = true;
+    }
+
+    /**
+     * The most asked-for skills, ordered by how many more users want them than offer them.
+     */
+    public synchronized List<SkillDemandDto> gaps(int limit) {
+        List<SkillDemandDto> gaps = new ArrayList<>();
+        for (HeavyHitters.Counter counter : demand.top(topK)) {
+            gaps.add(report(counter.key, counter));
+        }
+        gaps.sort(Comparator.comparingLong(SkillDemandDto::getGap).reversed()
+                .thenComparing(Comparator.comparingLong(SkillDemandDto::getWanted).reversed())
+                .thenComparing(SkillDemandDto::getSkill));
+        return gaps.size() > limit ? new ArrayList<>(gaps.subList(0, limit)) : gaps;
+    }
+
+    /**
+     * Supply and demand of one skill, with its swap requests per week (keyed by the week's Monday), oldest first.
+     */
+    public synchronized SkillDemandDto skill(String name) {
+        String skill = resolveSkill(name);
+        SkillDemandDto report = report(skill, demand.get(skill).orElse(null));
+        Map<String, Long> weekly = new LinkedHashMap<>();
+        long currentWeek = weekOf(Timestamp.now());
+        for (long week = currentWeek - weeklyRequests.length + 1; week <= currentWeek; week++) {
+            int slot = (int) Math.floorMod(week, (long) weeklyRequests.length);
+            long count = weekOfSlot[slot] == week ? weeklyRequests[slot].estimate(skill) : 0;
+            weekly.put(LocalDate.ofEpochDay(week * 7 - 3).toString(), count);
+        }
+        report.setWeeklyRequests(weekly);
+        return report;
+    }
+
+    private SkillDemandDto report(String skill, HeavyHitters.Counter counter) {
+        long wantedCount = wanted.estimate(skill);
+        long offeredCount = offered.estimate(skill);
+        return SkillDemandDto.builder()
+                .skill(skill)
+                .wanted(wantedCount)
+                .offered(offeredCount)
+                .gap(wantedCount - offeredCount)
+                .requests(requests.estimate(skill))
+                .distinctRequesters(counter != null ? counter.requesters.estimate() : null)
+                .build();
+    }
+
+    /**
+     * The sketch of the given week, reusing the slot of the week that fell out of the window; null for weeks
+     * older than the window.
+     */
+    private CountMinSketch week(long week) {
+        int slot = (int) Math.floorMod(week, (long) weeklyRequests.length);
+        if (weekOfSlot[slot] == week) {
+            return weeklyRequests[slot];
+        }
+        if (weekOfSlot[slot] > week) {
+            return null;
+        }
+        weeklyRequests[slot].clear();
+        weekOfSlot[slot] = week;
+        return weeklyRequests[slot];
+    }
+
+    /**
+     * Weeks since the epoch, starting on Mondays (1970-01-01 was a Thursday).
+     */
+    private static long weekOf(Timestamp timestamp) {
+        return Math.floorDiv(Math.floorDiv(timestamp.getSeconds(), 86_400L) + 3, 7);
+    }
+
+    private static void apply(CountMinSketch sketch, Set<String> before, Set<String> after) {
+        for (String skill : before) {
+            if (!after.contains(skill)) {
+                sketch.add(skill, -1);
+            }
+        }
+        for (String skill : after) {
+            if (!before.contains(skill)) {
+                sketch.add(skill, 1);
+            }
+        }
+    }
+
+    private Set<String> skills(List<String> skills) {
+        if (skills == null) {
+            return Set.of();
+        }
+        Set<String> resolved = new HashSet<>();
+        for (String skill : skills) {
+            String name = resolveSkill(skill);
+            if (name != null) {
+                resolved.add(name);
+            }
+        }
+        return resolved;
+    }
+
+    private String resolveSkill(String skill) {
+        return skill == null || skill.isBlank() ? null : skillDictionary.resolve(skill);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        if (!persist || !Files.isRegularFile(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                log.warn("Ignoring analytics sketches {}: not a sketch file of this version", path);
+                return;
+            }
+            if (in.readInt() != DEPTH || in.readInt() != WIDTH || in.readInt() != topK
+                    || in.readInt() != weeklyRequests.length) {
+                log.warn("Ignoring analytics sketches {}: written with different sizes", path);
+                return;
+            }
+            requests.readFrom(in);
+            for (int i = 0; i < weeklyRequests.length; i++) {
+                weekOfSlot[i] = in.readLong();
+                weeklyRequests[i].readFrom(in);
+            }
+            demand.readFrom(in);
+            loaded = true;
+            log.info("Loaded analytics sketches from {}", path);
+        } catch (IOException e) {
+            requests.clear();
+            for (int i = 0; i < weeklyRequests.length; i++) {
+                weeklyRequests[i].clear();
+                weekOfSlot[i] = Long.MIN_VALUE;
+            }
+            demand.clear();
+            log.warn("Ignoring unreadable analytics sketches {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${analytics.interval-ms:300000}", fixedDelayString = "${analytics.interval-ms:300000}")
+    public void scheduledWrite() {
+        if (dirty) {
+            write();
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (dirty) {
+            write();
+        }
+    }
+
+    public synchronized void write() {
+        if (!persist) {
+            return;
+        }
+        dirty = false;
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(DEPTH);
+                out.writeInt(WIDTH);
+                out.writeInt(topK);
+                out.writeInt(weeklyRequests.length);
+                requests.writeTo(out);
+                for (int i = 0; i < weeklyRequests.length; i++) {
+                    out.writeLong(weekOfSlot[i]);
+                    weeklyRequests[i].writeTo(out);
+                }
+                demand.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote analytics sketches to {}", path);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Failed to write analytics sketches {}: {}", path, e.getMessage());
+        }
+    }
+} 
\ No newline at end of file
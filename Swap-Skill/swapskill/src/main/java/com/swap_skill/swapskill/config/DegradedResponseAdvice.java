@@ -0,0 +1,52 @@
+package com.swap_skill.swapskill.config;
+
+import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.repository.DegradedReads;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Flags responses built while Firestore was degraded: stale data gets a {@code Warning} header and its age in
+ * {@code X-Data-Staleness} (seconds), and errors caused by an unavailable Firestore become 503 with {@code Retry-After}.
+ */
+@RestControllerAdvice
+public class DegradedResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STALENESS_HEADER = "X-Data-Staleness";
+
+    private final FirestoreProperties firestoreProperties;
+
+    public DegradedResponseAdvice(FirestoreProperties firestoreProperties) {
+        this.firestoreProperties = firestoreProperties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        DegradedReads.State state = DegradedReads.current();
+        if (state == null) {
+            return body;
+        }
+        if (body instanceof ApiResponse<?> apiResponse && !apiResponse.isSuccess() && state.unavailable()) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set("Retry-After",
+                    String.valueOf(firestoreProperties.getCircuitBreaker().getOpenDuration().toSeconds()));
+        } else if (state.staleAgeMillis() >= 0) {
+            response.getHeaders().add("Warning", "110 - \"Response is Stale\"");
+            response.getHeaders().set(STALENESS_HEADER, String.valueOf(state.staleAgeMillis() / 1000));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,31 @@
+package com.swap_skill.swapskill.config;
+
+import com.swap_skill.swapskill.tracing.Tracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Runs the independent reads of aggregate endpoints in parallel. When saturated, the request thread
+     * runs the read itself rather than failing. Reads join the trace of the request that submitted them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor readExecutor(@Value("${read-executor.pool-size:16}") int poolSize,
+                                               @Value("${read-executor.queue-capacity:256}") int queueCapacity,
+                                               Tracer tracer) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("read-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(tracer::wrap);
+        return executor;
+    }
+}
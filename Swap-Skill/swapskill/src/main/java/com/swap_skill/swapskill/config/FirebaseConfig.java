@@ -9,12 +9,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 
+/**
+ * Creates the Firestore client. With {@code firebase.init-in-background=true} (the {@code faststart} profile) the
+ * service account is read and the client built on a background thread while the rest of the context starts.
+ */
 @Configuration
+@Profile("!inmemory")
 @Slf4j
 public class FirebaseConfig {
 
@@ -24,8 +31,33 @@ public class FirebaseConfig {
     @Value("${firebase.service-account-key-path}")
     private String serviceAccountKeyPath;
 
+    @Value("${firebase.init-in-background:false}")
+    private boolean initInBackground;
+
+    @Value("${firebase.init-wait-ms:30000}")
+    private long initWaitMs;
+
     @Bean
-    public FirebaseApp firebaseApp() throws IOException {
+    public FirestoreStartup firestoreStartup() throws IOException {
+        if (initInBackground) {
+            return FirestoreStartup.inBackground(this::createFirestore, Duration.ofMillis(initWaitMs));
+        }
+        return FirestoreStartup.completed(createFirestore());
+    }
+
+    @Bean
+    public Firestore firestore(FirestoreStartup firestoreStartup) {
+        return firestoreStartup.client();
+    }
+
+    private Firestore createFirestore() throws IOException {
+        log.info("Creating Firestore client - this should only happen once during application startup");
+        Firestore firestore = FirestoreClient.getFirestore(firebaseApp());
+        log.info("Firestore client created successfully");
+        return firestore;
+    }
+
+    private FirebaseApp firebaseApp() throws IOException {
         if (FirebaseApp.getApps().isEmpty()) {
             try {
                 InputStream serviceAccount = new ClassPathResource(serviceAccountKeyPath.replace("classpath:", "")).getInputStream();
@@ -45,12 +77,4 @@ public class FirebaseConfig {
         }
         return FirebaseApp.getInstance();
     }
-
-    @Bean
-    public Firestore firestore() throws IOException {
-        log.info("Creating Firestore bean - this should only happen once during application startup");
-        Firestore firestore = FirestoreClient.getFirestore(firebaseApp());
-        log.info("Firestore bean created successfully");
-        return firestore;
-    }
 } 
\ No newline at end of file
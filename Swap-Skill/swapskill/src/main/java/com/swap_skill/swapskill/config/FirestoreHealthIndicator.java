@@ -0,0 +1,33 @@
+package com.swap_skill.swapskill.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code firestore} health: out of service while the client is still starting in the background, down if it
+ * failed to start. Included in the readiness group by the {@code faststart} profile.
+ */
+@Component
+@Profile("!inmemory")
+public class FirestoreHealthIndicator implements HealthIndicator {
+
+    private final FirestoreStartup firestoreStartup;
+
+    public FirestoreHealthIndicator(FirestoreStartup firestoreStartup) {
+        this.firestoreStartup = firestoreStartup;
+    }
+
+    @Override
+    public Health health() {
+        if (firestoreStartup.isReady()) {
+            return Health.up().build();
+        }
+        Throwable failure = firestoreStartup.failure();
+        if (failure != null) {
+            return Health.down().withDetail("error", String.valueOf(failure.getMessage())).build();
+        }
+        return Health.outOfService().withDetail("status", "starting").build();
+    }
+} 
\ No newline at end of file
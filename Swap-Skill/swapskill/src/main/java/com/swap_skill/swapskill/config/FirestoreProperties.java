@@ -0,0 +1,85 @@
+package com.swap_skill.swapskill.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deadlines, hedging, circuit breaking and bulkheads for Firestore calls. Deadlines and hedging can be
+ * overridden per operation, keyed by operation name (for example {@code firestore.operations[users.findById].hedge=true}).
+ */
+@Component
+@ConfigurationProperties(prefix = "firestore")
+@Data
+public class FirestoreProperties {
+
+    /**
+     * Deadline for operations without an override.
+     */
+    private Duration deadline = Duration.ofSeconds(5);
+
+    /**
+     * Whether idempotent reads without an override are hedged.
+     */
+    private boolean hedge = false;
+
+    /**
+     * Hedges are never sent earlier than this, however low the observed p95 is.
+     */
+    private Duration minHedgeDelay = Duration.ofMillis(10);
+
+    /**
+     * Last-known-good read results kept for serving while Firestore is degraded.
+     */
+    private int staleCacheSize = 2000;
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Map<String, Operation> operations = new HashMap<>();
+
+    public Duration deadlineFor(String operation) {
+        Operation settings = operations.get(operation);
+        return settings != null && settings.getDeadline() != null ? settings.getDeadline() : deadline;
+    }
+
+    public boolean hedgeFor(String operation) {
+        Operation settings = operations.get(operation);
+        return settings != null && settings.getHedge() != null ? settings.getHedge() : hedge;
+    }
+
+    /**
+     * One breaker per repository; it opens when either the failure or the slow-call rate over the last
+     * {@code windowSize} calls reaches its threshold.
+     */
+    @Data
+    public static class CircuitBreaker {
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 5;
+    }
+
+    /**
+     * Concurrent Firestore calls allowed per repository, and how long a call waits for a free slot.
+     */
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 64;
+        private Duration maxWait = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Operation {
+        private Duration deadline;
+        private Boolean hedge;
+    }
+}
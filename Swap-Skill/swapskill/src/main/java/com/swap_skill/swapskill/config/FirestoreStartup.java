@@ -0,0 +1,122 @@
+package com.swap_skill.swapskill.config;
+
+import com.google.cloud.firestore.Firestore;
+import com.swap_skill.swapskill.repository.FirestoreUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * The Firestore client, created either during context refresh or on a background thread so that the rest of the
+ * context starts meanwhile. Until a background start has finished, {@link #client()} is a stand-in that waits
+ * for the real client on first use, for at most {@code maxWait}. The {@code firestore} health indicator reports
+ * the start's progress, so readiness can wait for it.
+ */
+@Slf4j
+public class FirestoreStartup {
+
+    private final CompletableFuture<Firestore> client;
+    private final Duration maxWait;
+
+    private FirestoreStartup(CompletableFuture<Firestore> client, Duration maxWait) {
+        this.client = client;
+        this.maxWait = maxWait;
+    }
+
+    public static FirestoreStartup completed(Firestore firestore) {
+        return new FirestoreStartup(CompletableFuture.completedFuture(firestore), Duration.ZERO);
+    }
+
+    public static FirestoreStartup inBackground(Callable<Firestore> initializer, Duration maxWait) {
+        CompletableFuture<Firestore> client = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                client.complete(initializer.call());
+                log.info("Firestore client started in the background in {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Throwable t) {
+                log.error("Failed to start the Firestore client: {}", t.getMessage());
+                client.completeExceptionally(t);
+            }
+        }, "firestore-init");
+        thread.setDaemon(true);
+        thread.start();
+        return new FirestoreStartup(client, maxWait);
+    }
+
+    public boolean isReady() {
+        return client.isDone() && !client.isCompletedExceptionally();
+    }
+
+    /**
+     * Why the client could not be started, or null if it started or is still starting.
+     */
+    public Throwable failure() {
+        if (!client.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            client.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+
+    /**
+     * Runs {@code action} with the real client once it has started: right away if it has, otherwise on the
+     * thread that started it. Not run if the start fails.
+     */
+    public void whenReady(Consumer<Firestore> action) {
+        client.thenAccept(action);
+    }
+
+    public Firestore client() {
+        return isReady() ? client.join() : deferred();
+    }
+
+    private Firestore await() {
+        try {
+            return client.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new FirestoreUnavailableException("Firestore is still starting, try again later");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Firestore failed to start", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FirestoreUnavailableException("Interrupted while waiting for Firestore to start");
+        }
+    }
+
+    private Firestore deferred() {
+        return (Firestore) Proxy.newProxyInstance(Firestore.class.getClassLoader(), new Class<?>[]{Firestore.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "Firestore (" + (isReady() ? "started" : "starting") + ")";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "close":
+                            // Nothing to close if the client never started
+                            if (client.isCompletedExceptionally()) {
+                                return null;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(await(), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.swap_skill.swapskill.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that only reads although it is not a GET, e.g. a lookup taking its IDs in the body, so its
+ * requests may be served stale data in degraded mode like GET requests.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyRequest {
+} 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.swap_skill.swapskill.config;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.swap_skill.swapskill.repository.ShardedFirestore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@Profile("!inmemory")
+@Slf4j
+public class ShardingConfig {
+
+    private static final String DEFAULT_SHARD = "default";
+
+    @Value("${firebase.project-id}")
+    private String projectId;
+
+    @Value("${firebase.service-account-key-path}")
+    private String serviceAccountKeyPath;
+
+    @Bean
+    public ShardedFirestore shardedFirestore(Firestore firestore, ShardingProperties properties) throws IOException {
+        Map<String, Firestore> shards = new LinkedHashMap<>();
+        if (properties.getShards().isEmpty()) {
+            shards.put(DEFAULT_SHARD, firestore);
+        }
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            if (shard.getName() == null || shards.containsKey(shard.getName())) {
+                throw new IllegalStateException("Every Firestore shard needs a unique name");
+            }
+            shards.put(shard.getName(), shard.isDefault() ? firestore : connect(shard));
+        }
+        log.info("Sharding users and swap requests over {} Firestore database(s): {}", shards.size(), shards.keySet());
+        return new ShardedFirestore(shards, properties.getVirtualNodes(), properties.isRebalancing());
+    }
+
+    private Firestore connect(ShardingProperties.Shard shard) throws IOException {
+        FirestoreOptions.Builder options = FirestoreOptions.newBuilder()
+                .setProjectId(shard.getProjectId() != null ? shard.getProjectId() : projectId);
+        if (shard.getDatabaseId() != null) {
+            options.setDatabaseId(shard.getDatabaseId());
+        }
+        if (shard.getEmulatorHost() != null) {
+            options.setEmulatorHost(shard.getEmulatorHost());
+        } else {
+            try (InputStream serviceAccount = new ClassPathResource(serviceAccountKeyPath.replace("classpath:", "")).getInputStream()) {
+                options.setCredentials(GoogleCredentials.fromStream(serviceAccount));
+            }
+        }
+        return options.build().getService();
+    }
+} 
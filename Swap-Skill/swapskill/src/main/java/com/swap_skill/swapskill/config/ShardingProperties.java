@@ -0,0 +1,67 @@
+package com.swap_skill.swapskill.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Firestore databases that users and swap requests are sharded over, for example
+ * {@code sharding.shards[1].name=eu-2} with {@code sharding.shards[1].database-id=swapskill-2}. Without shards
+ * everything lives in the default database.
+ */
+@Component
+@ConfigurationProperties(prefix = "sharding")
+@Data
+public class ShardingProperties {
+
+    /**
+     * Points per shard on the hash ring; more points spread users more evenly.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Sends routed reads to every shard while documents are being moved between shards.
+     */
+    private boolean rebalancing = false;
+
+    /**
+     * How often each instance reads the shared rebalancing flag set by a rebalance run.
+     */
+    private long flagRefreshMs = 5000;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        /**
+         * Stable name hashed onto the ring. Renaming a shard moves its users.
+         */
+        private String name;
+
+        /**
+         * Project of the shard's database; defaults to {@code firebase.project-id}.
+         */
+        private String projectId;
+
+        /**
+         * Database within the project; defaults to the project's default database.
+         */
+        private String databaseId;
+
+        /**
+         * {@code host:port} of a Firestore emulator to use instead, for local testing.
+         */
+        private String emulatorHost;
+
+        /**
+         * Whether this shard is the application's default Firestore database.
+         */
+        boolean isDefault() {
+            return projectId == null && databaseId == null && emulatorHost == null;
+        }
+    }
+} 
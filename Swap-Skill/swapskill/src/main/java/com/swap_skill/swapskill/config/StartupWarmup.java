@@ -0,0 +1,95 @@
+package com.swap_skill.swapskill.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.dto.SwapRequestDto;
+import com.swap_skill.swapskill.dto.UserDto;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds the Firestore and Jackson mappers of the models and request/response types during startup, so that the
+ * reflection they do on first use is not paid by the first requests. Runs before the web server starts, which
+ * also puts the classes involved into a class-data sharing archive recorded by a training run.
+ * <p>
+ * The Firestore mapper is reached through the public API: the models are added to a write batch that is never
+ * committed, once the client has started (in the background with {@code firebase.init-in-background}).
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements SmartInitializingSingleton {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<FirestoreStartup> firestoreStartup;
+    private final boolean enabled;
+
+    public StartupWarmup(ObjectMapper objectMapper, ObjectProvider<FirestoreStartup> firestoreStartup,
+                         @Value("${startup.warm-mappers:false}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.firestoreStartup = firestoreStartup;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Timestamp now = Timestamp.now();
+        User user = User.builder()
+                .id("warmup")
+                .name("Warm Up")
+                .availability(List.of("weekends"))
+                .skillsOffered(List.of("Java"))
+                .skillsWanted(List.of("Python"))
+                .rating(5.0)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        SwapRequest swapRequest = SwapRequest.builder()
+                .id("warmup")
+                .fromUserId("warmup")
+                .toUserId("warmup")
+                .skillOffered("Java")
+                .skillWanted("Python")
+                .status(SwapRequest.SwapStatus.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        firestoreStartup.ifAvailable(startup ->
+                startup.whenReady(firestore -> warmFirestoreMapper(firestore, user, swapRequest)));
+        try {
+            objectMapper.writeValueAsBytes(ApiResponse.success(user));
+            objectMapper.writeValueAsBytes(ApiResponse.success(List.of(swapRequest)));
+            objectMapper.readValue(objectMapper.writeValueAsBytes(new UserDto()), UserDto.class);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(new SwapRequestDto()), SwapRequestDto.class);
+        } catch (Exception e) {
+            log.warn("Failed to warm up JSON mappers: {}", e.getMessage());
+        }
+        log.info("Warmed up JSON mappers in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private static void warmFirestoreMapper(Firestore firestore, User user, SwapRequest swapRequest) {
+        long start = System.currentTimeMillis();
+        try {
+            // Serializes both models as a write would; the batch is never committed
+            WriteBatch batch = firestore.batch();
+            batch.set(firestore.collection("users").document(), user);
+            batch.set(firestore.collection("swaps").document(), swapRequest);
+            log.info("Warmed up Firestore mappers in {} ms", System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm up Firestore mappers: {}", e.getMessage());
+        }
+    }
+} 
\ No newline at end of file
@@ -1,19 +1,57 @@
 package com.swap_skill.swapskill.config;
 
+import com.swap_skill.swapskill.repository.DegradedReads;
+import com.swap_skill.swapskill.tracing.HandlerTracingInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final HandlerTracingInterceptor handlerTracingInterceptor;
+
+    public WebConfig(HandlerTracingInterceptor handlerTracingInterceptor) {
+        this.handlerTracingInterceptor = handlerTracingInterceptor;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOriginPatterns("http://localhost:3000", "http://localhost:5173", "http://localhost:8081")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("Warning", DegradedResponseAdvice.STALENESS_HEADER, "Retry-After")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Request threads are pooled; make sure degraded-read flags never leak into the next request.
+        // Only read-only requests may be served stale data; writes must act on current data.
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                DegradedReads.clear();
+                DegradedReads.setReadOnly(HttpMethod.GET.matches(request.getMethod())
+                        || HttpMethod.HEAD.matches(request.getMethod())
+                        || (handler instanceof HandlerMethod method && method.hasMethodAnnotation(ReadOnlyRequest.class)));
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                DegradedReads.clear();
+            }
+        });
+        registry.addInterceptor(handlerTracingInterceptor);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.swap_skill.swapskill.controller;
+
+import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.dto.SkillDemandDto;
+import com.swap_skill.swapskill.service.AnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:8081"})
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/skills/gaps")
+    public ResponseEntity<ApiResponse<List<SkillDemandDto>>> getSkillGaps(
+            @RequestParam(defaultValue = "20") int limit) {
+        List<SkillDemandDto> gaps = analyticsService.getSkillGaps(limit);
+        return ResponseEntity.ok(ApiResponse.success(gaps));
+    }
+
+    @GetMapping("/skills/{skill}")
+    public ResponseEntity<ApiResponse<SkillDemandDto>> getSkillDemand(@PathVariable String skill) {
+        SkillDemandDto demand = analyticsService.getSkillDemand(skill);
+        return ResponseEntity.ok(ApiResponse.success(demand));
+    }
+}
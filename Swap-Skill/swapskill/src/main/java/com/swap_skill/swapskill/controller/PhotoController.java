@@ -0,0 +1,71 @@
+package com.swap_skill.swapskill.controller;
+
+import com.swap_skill.swapskill.storage.PhotoStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves stored photos. Photo keys are content hashes, so responses are cacheable forever; on Tomcat the file is
+ * handed to the connector's sendfile support and copied to the socket by the kernel.
+ */
+@RestController
+@RequestMapping("/photos")
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:8081"})
+public class PhotoController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+            .getHeaderValue();
+
+    private final PhotoStore photoStore;
+
+    public PhotoController(PhotoStore photoStore) {
+        this.photoStore = photoStore;
+    }
+
+    @GetMapping("/{key}")
+    public void getPhoto(@PathVariable String key, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<Path> photo = photoStore.find(key);
+        if (photo.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String etag = "\"" + key + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        Path path = photo.get();
+        long length = Files.size(path);
+        response.setContentType(key.endsWith(".png") ? "image/png" : key.endsWith(".gif") ? "image/gif" : "image/jpeg");
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (OutputStream out = response.getOutputStream()) {
+            Files.copy(path, out);
+        }
+    }
+} 
\ No newline at end of file
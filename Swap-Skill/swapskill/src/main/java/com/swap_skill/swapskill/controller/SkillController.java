@@ -0,0 +1,49 @@
+package com.swap_skill.swapskill.controller;
+
+import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.dto.LeaderboardEntryDto;
+import com.swap_skill.swapskill.dto.SkillSuggestionDto;
+import com.swap_skill.swapskill.service.SkillService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/skills")
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:8081"})
+public class SkillController {
+
+    private final SkillService skillService;
+
+    public SkillController(SkillService skillService) {
+        this.skillService = skillService;
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<SkillSuggestionDto>>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SkillSuggestionDto> suggestions = skillService.autocomplete(prefix, limit);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
+    @GetMapping("/{skill}/top")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntryDto>>> getTopTeachers(
+            @PathVariable String skill,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<LeaderboardEntryDto> leaderboard = skillService.getTopTeachers(skill, offset, limit);
+        return ResponseEntity.ok(ApiResponse.success(leaderboard));
+    }
+
+    @GetMapping("/{skill}/rank/{userId}")
+    public ResponseEntity<ApiResponse<LeaderboardEntryDto>> getTeacherRank(
+            @PathVariable String skill,
+            @PathVariable String userId) {
+        LeaderboardEntryDto entry = skillService.getTeacherRank(skill, userId);
+        return ResponseEntity.ok(ApiResponse.success(entry));
+    }
+}
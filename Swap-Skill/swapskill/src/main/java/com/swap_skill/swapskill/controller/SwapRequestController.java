@@ -1,8 +1,15 @@
 package com.swap_skill.swapskill.controller;
 
 import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.dto.SwapBatchActionDto;
+import com.swap_skill.swapskill.dto.SwapBatchResultDto;
+import com.swap_skill.swapskill.dto.SwapEventDto;
 import com.swap_skill.swapskill.dto.SwapRequestDto;
+import com.swap_skill.swapskill.dto.SwapRequestWithUsersDto;
+import com.swap_skill.swapskill.dto.SwapStatsDto;
+import com.swap_skill.swapskill.exception.BadRequestException;
 import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.service.IdempotencyService;
 import com.swap_skill.swapskill.service.SwapRequestService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -19,108 +26,89 @@ import java.util.List;
 public class SwapRequestController {
 
     private final SwapRequestService swapRequestService;
+    private final IdempotencyService idempotencyService;
 
-    public SwapRequestController(SwapRequestService swapRequestService) {
+    public SwapRequestController(SwapRequestService swapRequestService, IdempotencyService idempotencyService) {
         this.swapRequestService = swapRequestService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<ApiResponse<SwapRequest>> createSwapRequest(@Valid @RequestBody SwapRequestDto swapRequestDto) {
-        try {
-            SwapRequest createdSwapRequest = swapRequestService.createSwapRequest(swapRequestDto);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponse.success(createdSwapRequest, "Swap request created successfully"));
-        } catch (Exception e) {
-            log.error("Error creating swap request: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<SwapRequest>> createSwapRequest(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody SwapRequestDto swapRequestDto) {
+        SwapRequest createdSwapRequest = idempotencyService.execute("swaps", idempotencyKey, swapRequestDto,
+                SwapRequest.class, () -> swapRequestService.createSwapRequest(swapRequestDto));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(createdSwapRequest, "Swap request created successfully"));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<SwapRequest>> getSwapRequestById(@PathVariable String id) {
-        try {
-            SwapRequest swapRequest = swapRequestService.getSwapRequestById(id);
-            return ResponseEntity.ok(ApiResponse.success(swapRequest));
-        } catch (Exception e) {
-            log.error("Error getting swap request: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        SwapRequest swapRequest = swapRequestService.getSwapRequestById(id);
+        return ResponseEntity.ok(ApiResponse.success(swapRequest));
     }
 
     @GetMapping("/from/{fromUserId}")
-    public ResponseEntity<ApiResponse<List<SwapRequest>>> getSwapRequestsByFromUser(@PathVariable String fromUserId) {
-        try {
-            List<SwapRequest> swapRequests = swapRequestService.getSwapRequestsByFromUser(fromUserId);
-            return ResponseEntity.ok(ApiResponse.success(swapRequests));
-        } catch (Exception e) {
-            log.error("Error getting swap requests by from user: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<List<SwapRequestWithUsersDto>>> getSwapRequestsByFromUser(
+            @PathVariable String fromUserId,
+            @RequestParam(required = false) String expand) {
+        List<SwapRequest> swapRequests = swapRequestService.getSwapRequestsByFromUser(fromUserId);
+        return ResponseEntity.ok(ApiResponse.success(withExpansions(swapRequests, expand)));
     }
 
     @GetMapping("/to/{toUserId}")
-    public ResponseEntity<ApiResponse<List<SwapRequest>>> getSwapRequestsByToUser(@PathVariable String toUserId) {
-        try {
-            List<SwapRequest> swapRequests = swapRequestService.getSwapRequestsByToUser(toUserId);
-            return ResponseEntity.ok(ApiResponse.success(swapRequests));
-        } catch (Exception e) {
-            log.error("Error getting swap requests by to user: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<List<SwapRequestWithUsersDto>>> getSwapRequestsByToUser(
+            @PathVariable String toUserId,
+            @RequestParam(required = false) String expand) {
+        List<SwapRequest> swapRequests = swapRequestService.getSwapRequestsByToUser(toUserId);
+        return ResponseEntity.ok(ApiResponse.success(withExpansions(swapRequests, expand)));
     }
 
     @GetMapping("/user/{userId}/status/{status}")
-    public ResponseEntity<ApiResponse<List<SwapRequest>>> getSwapRequestsByStatus(
+    public ResponseEntity<ApiResponse<List<SwapRequestWithUsersDto>>> getSwapRequestsByStatus(
             @PathVariable String userId,
-            @PathVariable SwapRequest.SwapStatus status) {
-        try {
-            List<SwapRequest> swapRequests = swapRequestService.getSwapRequestsByStatus(userId, status);
-            return ResponseEntity.ok(ApiResponse.success(swapRequests));
-        } catch (Exception e) {
-            log.error("Error getting swap requests by status: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+            @PathVariable SwapRequest.SwapStatus status,
+            @RequestParam(required = false) String expand) {
+        List<SwapRequest> swapRequests = swapRequestService.getSwapRequestsByStatus(userId, status);
+        return ResponseEntity.ok(ApiResponse.success(withExpansions(swapRequests, expand)));
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiResponse<List<SwapEventDto>>> getSwapHistory(@PathVariable String id) {
+        List<SwapEventDto> history = swapRequestService.getSwapHistory(id);
+        return ResponseEntity.ok(ApiResponse.success(history));
+    }
+
+    @GetMapping("/user/{userId}/stats")
+    public ResponseEntity<ApiResponse<SwapStatsDto>> getSwapStats(@PathVariable String userId) {
+        SwapStatsDto stats = swapRequestService.getSwapStats(userId);
+        return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
     @PatchMapping("/{id}/accept")
     public ResponseEntity<ApiResponse<SwapRequest>> acceptSwapRequest(@PathVariable String id) {
-        try {
-            SwapRequest swapRequest = swapRequestService.acceptSwapRequest(id);
-            return ResponseEntity.ok(ApiResponse.success(swapRequest, "Swap request accepted successfully"));
-        } catch (Exception e) {
-            log.error("Error accepting swap request: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        SwapRequest swapRequest = swapRequestService.acceptSwapRequest(id);
+        return ResponseEntity.ok(ApiResponse.success(swapRequest, "Swap request accepted successfully"));
     }
 
     @PatchMapping("/{id}/reject")
     public ResponseEntity<ApiResponse<SwapRequest>> rejectSwapRequest(@PathVariable String id) {
-        try {
-            SwapRequest swapRequest = swapRequestService.rejectSwapRequest(id);
-            return ResponseEntity.ok(ApiResponse.success(swapRequest, "Swap request rejected successfully"));
-        } catch (Exception e) {
-            log.error("Error rejecting swap request: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        SwapRequest swapRequest = swapRequestService.rejectSwapRequest(id);
+        return ResponseEntity.ok(ApiResponse.success(swapRequest, "Swap request rejected successfully"));
     }
 
     @PatchMapping("/{id}/complete")
     public ResponseEntity<ApiResponse<SwapRequest>> completeSwapRequest(@PathVariable String id) {
-        try {
-            SwapRequest swapRequest = swapRequestService.completeSwapRequest(id);
-            return ResponseEntity.ok(ApiResponse.success(swapRequest, "Swap request completed successfully"));
-        } catch (Exception e) {
-            log.error("Error completing swap request: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        SwapRequest swapRequest = swapRequestService.completeSwapRequest(id);
+        return ResponseEntity.ok(ApiResponse.success(swapRequest, "Swap request completed successfully"));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<SwapBatchResultDto>> applyBatchActions(
+            @Valid @RequestBody SwapBatchActionDto batchActionDto) {
+        SwapBatchResultDto result = swapRequestService.applyBatchActions(batchActionDto.getActions());
+        return ResponseEntity.ok(ApiResponse.success(result, "Batch processed successfully"));
     }
 
     @PatchMapping("/{id}/rating")
@@ -128,25 +116,29 @@ public class SwapRequestController {
             @PathVariable String id,
             @RequestParam Double rating,
             @RequestParam(required = false) String feedback) {
-        try {
-            SwapRequest swapRequest = swapRequestService.addRatingAndFeedback(id, rating, feedback);
-            return ResponseEntity.ok(ApiResponse.success(swapRequest, "Rating and feedback added successfully"));
-        } catch (Exception e) {
-            log.error("Error adding rating and feedback: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        SwapRequest swapRequest = swapRequestService.addRatingAndFeedback(id, rating, feedback);
+        return ResponseEntity.ok(ApiResponse.success(swapRequest, "Rating and feedback added successfully"));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteSwapRequest(@PathVariable String id) {
-        try {
-            swapRequestService.deleteSwapRequest(id);
-            return ResponseEntity.ok(ApiResponse.success(null, "Swap request deleted successfully"));
-        } catch (Exception e) {
-            log.error("Error deleting swap request: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
+        swapRequestService.deleteSwapRequest(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "Swap request deleted successfully"));
+    }
+
+    /**
+     * Applies the {@code expand} query parameter to a swap list. Without expansions the users are left out,
+     * which serializes exactly like the bare swap requests.
+     */
+    private List<SwapRequestWithUsersDto> withExpansions(List<SwapRequest> swapRequests, String expand) {
+        if (expand == null || expand.isBlank()) {
+            return swapRequests.stream()
+                    .map(swapRequest -> SwapRequestWithUsersDto.builder().swapRequest(swapRequest).build())
+                    .toList();
+        }
+        if (!"users".equals(expand.trim())) {
+            throw new BadRequestException("Unsupported expand value: " + expand);
         }
+        return swapRequestService.expandUsers(swapRequests);
     }
 } 
\ No newline at end of file
@@ -1,16 +1,32 @@
 package com.swap_skill.swapskill.controller;
 
+import com.swap_skill.swapskill.config.ReadOnlyRequest;
 import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.dto.DashboardDto;
+import com.swap_skill.swapskill.dto.RecommendationDto;
+import com.swap_skill.swapskill.dto.SimilarUserDto;
+import com.swap_skill.swapskill.dto.SwapCycleDto;
+import com.swap_skill.swapskill.dto.SwapTimelineDto;
+import com.swap_skill.swapskill.dto.UserBatchGetDto;
 import com.swap_skill.swapskill.dto.UserDto;
 import com.swap_skill.swapskill.dto.UserSearchDto;
+import com.swap_skill.swapskill.exception.BadRequestException;
 import com.swap_skill.swapskill.model.User;
+import com.swap_skill.swapskill.service.DashboardService;
+import com.swap_skill.swapskill.service.IdempotencyService;
+import com.swap_skill.swapskill.service.RecommendationService;
+import com.swap_skill.swapskill.service.SwapCycleService;
+import com.swap_skill.swapskill.service.SwapRequestService;
 import com.swap_skill.swapskill.service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -20,131 +36,147 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
-
-    public UserController(UserService userService) {
+    private final RecommendationService recommendationService;
+    private final SwapCycleService swapCycleService;
+    private final DashboardService dashboardService;
+    private final IdempotencyService idempotencyService;
+    private final SwapRequestService swapRequestService;
+
+    public UserController(UserService userService, RecommendationService recommendationService,
+                          SwapCycleService swapCycleService, DashboardService dashboardService,
+                          IdempotencyService idempotencyService, SwapRequestService swapRequestService) {
         this.userService = userService;
+        this.recommendationService = recommendationService;
+        this.swapCycleService = swapCycleService;
+        this.dashboardService = dashboardService;
+        this.idempotencyService = idempotencyService;
+        this.swapRequestService = swapRequestService;
     }
 
     @PostMapping
-    public ResponseEntity<ApiResponse<User>> createUser(@Valid @RequestBody UserDto userDto) {
-        try {
-            User createdUser = userService.createUser(userDto);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponse.success(createdUser, "User created successfully"));
-        } catch (Exception e) {
-            log.error("Error creating user: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<User>> createUser(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody UserDto userDto) {
+        User createdUser = idempotencyService.execute("users", idempotencyKey, userDto, User.class,
+                () -> userService.createUser(userDto));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(createdUser, "User created successfully"));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<User>> updateUser(@PathVariable String id, 
                                                        @Valid @RequestBody UserDto userDto) {
-        try {
-            User updatedUser = userService.updateUser(id, userDto);
-            return ResponseEntity.ok(ApiResponse.success(updatedUser, "User updated successfully"));
-        } catch (Exception e) {
-            log.error("Error updating user: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        User updatedUser = userService.updateUser(id, userDto);
+        return ResponseEntity.ok(ApiResponse.success(updatedUser, "User updated successfully"));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable String id) {
-        try {
-            User user = userService.getUserById(id);
-            return ResponseEntity.ok(ApiResponse.success(user, "User retrieved successfully"));
-        } catch (Exception e) {
-            log.error("Error getting user by ID: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        User user = userService.getUserById(id);
+        return ResponseEntity.ok(ApiResponse.success(user, "User retrieved successfully"));
+    }
+
+    @PostMapping("/batch-get")
+    @ReadOnlyRequest
+    public ResponseEntity<ApiResponse<List<User>>> getUsersByIds(@Valid @RequestBody UserBatchGetDto batchGetDto) {
+        List<User> users = userService.getUsersByIds(batchGetDto.getIds());
+        return ResponseEntity.ok(ApiResponse.success(users));
     }
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<User>>> getAllUsers() {
-        try {
-            List<User> users = userService.getAllUsers();
-            return ResponseEntity.ok(ApiResponse.success(users));
-        } catch (Exception e) {
-            log.error("Error getting all users: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        List<User> users = userService.getAllUsers();
+        return ResponseEntity.ok(ApiResponse.success(users));
     }
 
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<User>>> searchUsers(@RequestParam String searchTerm) {
-        try {
-            List<User> users = userService.searchUsers(searchTerm);
-            return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
-        } catch (Exception e) {
-            log.error("Error searching users: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        List<User> users = userService.searchUsers(searchTerm);
+        return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
     }
 
     @GetMapping("/skills/offered")
     public ResponseEntity<ApiResponse<List<User>>> getUsersBySkillsOffered(@RequestParam String skill) {
-        try {
-            List<User> users = userService.getUsersBySkillsOffered(skill);
-            return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
-        } catch (Exception e) {
-            log.error("Error getting users by skills offered: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        List<User> users = userService.getUsersBySkillsOffered(skill);
+        return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
     }
 
     @GetMapping("/skills/wanted")
     public ResponseEntity<ApiResponse<List<User>>> getUsersBySkillsWanted(@RequestParam String skill) {
-        try {
-            List<User> users = userService.getUsersBySkillsWanted(skill);
-            return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
-        } catch (Exception e) {
-            log.error("Error getting users by skills wanted: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        List<User> users = userService.getUsersBySkillsWanted(skill);
+        return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
     }
 
     @GetMapping("/availability")
     public ResponseEntity<ApiResponse<List<User>>> getUsersByAvailability(@RequestParam String availability) {
-        try {
-            List<User> users = userService.getUsersByAvailability(availability);
-            return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
-        } catch (Exception e) {
-            log.error("Error getting users by availability: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        List<User> users = userService.getUsersByAvailability(availability);
+        return ResponseEntity.ok(ApiResponse.success(users, "Users found successfully"));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteUser(@PathVariable String id) {
-        try {
-            userService.deleteUser(id);
-            return ResponseEntity.ok(ApiResponse.success(null, "User deleted successfully"));
-        } catch (Exception e) {
-            log.error("Error deleting user: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
+        userService.deleteUser(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "User deleted successfully"));
+    }
+
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<ApiResponse<DashboardDto>> getDashboard(@PathVariable String id,
+                                                                  @RequestParam(required = false) String expand) {
+        if (expand != null && !expand.isBlank() && !"users".equals(expand.trim())) {
+            throw new BadRequestException("Unsupported expand value: " + expand);
         }
+        DashboardDto dashboard = dashboardService.getDashboard(id, expand != null && !expand.isBlank());
+        return ResponseEntity.ok(ApiResponse.success(dashboard));
+    }
+
+    @GetMapping("/{id}/swaps/timeline")
+    public ResponseEntity<ApiResponse<SwapTimelineDto>> getSwapTimeline(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String expand) {
+        if (expand != null && !expand.isBlank() && !"users".equals(expand.trim())) {
+            throw new BadRequestException("Unsupported expand value: " + expand);
+        }
+        SwapTimelineDto timeline = swapRequestService.getSwapTimeline(id, cursor, limit, expand != null && !expand.isBlank());
+        return ResponseEntity.ok(ApiResponse.success(timeline));
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<ApiResponse<RecommendationDto>> getRecommendations(@PathVariable String id) {
+        RecommendationDto recommendations = recommendationService.getRecommendations(id);
+        return ResponseEntity.ok(ApiResponse.success(recommendations));
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<ApiResponse<List<SimilarUserDto>>> getSimilarUsers(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SimilarUserDto> similar = recommendationService.getSimilarUsers(id, limit);
+        return ResponseEntity.ok(ApiResponse.success(similar));
+    }
+
+    @GetMapping("/{id}/swap-cycles")
+    public ResponseEntity<ApiResponse<List<SwapCycleDto>>> getSwapCycles(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "4") int maxLength,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<SwapCycleDto> cycles = swapCycleService.findSwapCycles(id, maxLength, limit);
+        return ResponseEntity.ok(ApiResponse.success(cycles));
+    }
+
+    @PostMapping(value = "/{id}/photo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<User>> uploadProfilePhoto(@PathVariable String id,
+                                                                @RequestParam("photo") MultipartFile photo)
+            throws IOException {
+        User user = userService.updateProfilePhoto(id, photo.getBytes());
+        return ResponseEntity.ok(ApiResponse.success(user, "Profile photo updated successfully"));
     }
 
     @PatchMapping("/{id}/visibility")
     public ResponseEntity<ApiResponse<Void>> toggleProfileVisibility(@PathVariable String id) {
-        try {
-            userService.toggleProfileVisibility(id);
-            return ResponseEntity.ok(ApiResponse.success(null, "Profile visibility toggled successfully"));
-        } catch (Exception e) {
-            log.error("Error toggling profile visibility: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        userService.toggleProfileVisibility(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "Profile visibility toggled successfully"));
     }
 
 
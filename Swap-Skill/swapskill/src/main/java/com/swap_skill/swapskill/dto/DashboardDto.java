@@ -0,0 +1,23 @@
+package com.swap_skill.swapskill.dto;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDto {
+    private User profile;
+    private List<SwapRequestWithUsersDto> incoming;
+    private List<SwapRequestWithUsersDto> outgoing;
+    private Map<SwapRequest.SwapStatus, Integer> incomingCounts;
+    private Map<SwapRequest.SwapStatus, Integer> outgoingCounts;
+}
@@ -0,0 +1,17 @@
+package com.swap_skill.swapskill.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+    private int rank;
+    private String userId;
+    private String name;
+    private Double rating;
+}
@@ -0,0 +1,37 @@
+package com.swap_skill.swapskill.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationDto {
+    private String userId;
+    private List<SkillRecommendation> skills;
+    private List<TeacherRecommendation> teachers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SkillRecommendation {
+        private String skill;
+        private int score;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TeacherRecommendation {
+        private String userId;
+        private String skill;
+        private int completedSwaps;
+        private Double averageRating;
+        private double score;
+    }
+}
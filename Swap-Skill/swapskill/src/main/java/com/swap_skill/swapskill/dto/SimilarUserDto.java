@@ -0,0 +1,19 @@
+package com.swap_skill.swapskill.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarUserDto {
+    private UserSummary user;
+    private double similarity;
+    private List<String> sharedSkills;
+    private List<String> sharedAvailability;
+}
@@ -0,0 +1,22 @@
+package com.swap_skill.swapskill.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillDemandDto {
+    private String skill;
+    private long wanted;
+    private long offered;
+    private long gap;
+    private long requests;
+    private Long distinctRequesters;
+    private Map<String, Long> weeklyRequests;
+}
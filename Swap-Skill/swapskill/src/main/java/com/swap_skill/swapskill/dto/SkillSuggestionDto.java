@@ -0,0 +1,15 @@
+package com.swap_skill.swapskill.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillSuggestionDto {
+    private String skill;
+    private int popularity;
+}
@@ -0,0 +1,41 @@
+package com.swap_skill.swapskill.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapBatchActionDto {
+    @NotEmpty(message = "Actions are required")
+    @Size(max = 500, message = "At most 500 actions can be applied at once")
+    private List<@Valid Item> actions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @NotBlank(message = "Swap request ID is required")
+        private String id;
+
+        @NotNull(message = "Action is required")
+        private Action action;
+    }
+
+    public enum Action {
+        ACCEPT,
+        REJECT,
+        COMPLETE
+    }
+}
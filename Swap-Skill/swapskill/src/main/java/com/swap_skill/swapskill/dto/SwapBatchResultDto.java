@@ -0,0 +1,31 @@
+package com.swap_skill.swapskill.dto;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapBatchResultDto {
+    private int succeeded;
+    private int failed;
+    private List<Outcome> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private String id;
+        private SwapBatchActionDto.Action action;
+        private boolean success;
+        private SwapRequest.SwapStatus status;
+        private String error;
+    }
+}
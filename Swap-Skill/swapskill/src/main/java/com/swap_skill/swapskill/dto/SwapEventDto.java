@@ -0,0 +1,21 @@
+package com.swap_skill.swapskill.dto;
+
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.eventlog.SwapEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapEventDto {
+    private long sequence;
+    private SwapEvent.Type type;
+    private SwapRequest.SwapStatus status;
+    private Double rating;
+    private Timestamp at;
+}
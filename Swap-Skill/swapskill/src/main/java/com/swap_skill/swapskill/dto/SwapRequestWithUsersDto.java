@@ -0,0 +1,23 @@
+package com.swap_skill.swapskill.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.swap_skill.swapskill.model.SwapRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A swap request with summaries of both users embedded; serializes as the swap request's own fields
+ * plus {@code fromUser} and {@code toUser}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapRequestWithUsersDto {
+    @JsonUnwrapped
+    private SwapRequest swapRequest;
+    private UserSummary fromUser;
+    private UserSummary toUser;
+}
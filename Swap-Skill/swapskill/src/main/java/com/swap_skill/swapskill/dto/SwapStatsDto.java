@@ -0,0 +1,21 @@
+package com.swap_skill.swapskill.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapStatsDto {
+    private String userId;
+    private long sent;
+    private long received;
+    private long open;
+    private long accepted;
+    private long rejected;
+    private long completed;
+    private long withdrawn;
+}
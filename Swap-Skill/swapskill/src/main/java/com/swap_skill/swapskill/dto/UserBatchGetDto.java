@@ -0,0 +1,20 @@
+package com.swap_skill.swapskill.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchGetDto {
+    @NotEmpty(message = "User IDs are required")
+    @Size(max = 500, message = "At most 500 user IDs can be requested at once")
+    private List<String> ids;
+}
@@ -0,0 +1,27 @@
+package com.swap_skill.swapskill.dto;
+
+import com.swap_skill.swapskill.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private String id;
+    private String name;
+    private String profilePhoto;
+    private Double rating;
+
+    public static UserSummary from(User user) {
+        return UserSummary.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .profilePhoto(user.getProfilePhoto())
+                .rating(user.getRating())
+                .build();
+    }
+}
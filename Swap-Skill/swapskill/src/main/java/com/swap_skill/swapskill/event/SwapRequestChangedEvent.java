@@ -0,0 +1,38 @@
+package com.swap_skill.swapskill.event;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+import lombok.Value;
+
+/**
+ * Published after a swap request has been written. {@code previousStatus} is null for new requests,
+ * {@code replay} marks events re-published while rebuilding in-memory state from Firestore.
+ */
+@Value
+public class SwapRequestChangedEvent {
+    SwapRequest.SwapStatus previousStatus;
+    SwapRequest swapRequest;
+    boolean deleted;
+    boolean replay;
+
+    public static SwapRequestChangedEvent created(SwapRequest swapRequest) {
+        return new SwapRequestChangedEvent(null, swapRequest, false, false);
+    }
+
+    public static SwapRequestChangedEvent updated(SwapRequest.SwapStatus previousStatus, SwapRequest swapRequest) {
+        return new SwapRequestChangedEvent(previousStatus, swapRequest, false, false);
+    }
+
+    public static SwapRequestChangedEvent deleted(SwapRequest swapRequest) {
+        return new SwapRequestChangedEvent(swapRequest.getStatus(), swapRequest, true, false);
+    }
+
+    public static SwapRequestChangedEvent replayed(SwapRequest swapRequest) {
+        return new SwapRequestChangedEvent(null, swapRequest, false, true);
+    }
+
+    public boolean isCompletion() {
+        return !deleted
+                && swapRequest.getStatus() == SwapRequest.SwapStatus.COMPLETED
+                && previousStatus != SwapRequest.SwapStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,43 @@
+package com.swap_skill.swapskill.event;
+
+import com.swap_skill.swapskill.model.User;
+import lombok.Value;
+
+/**
+ * Published after a user has been written. {@code previous} is null for new users and initial replays,
+ * {@code current} is null once the user has been deleted.
+ */
+@Value
+public class UserChangedEvent {
+    User previous;
+    User current;
+    boolean replay;
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(null, user, false);
+    }
+
+    public static UserChangedEvent updated(User previous, User current) {
+        return new UserChangedEvent(previous, current, false);
+    }
+
+    public static UserChangedEvent deleted(User previous) {
+        return new UserChangedEvent(previous, null, false);
+    }
+
+    public static UserChangedEvent replayed(User user) {
+        return new UserChangedEvent(null, user, true);
+    }
+
+    public static UserChangedEvent replayed(User previous, User current) {
+        return new UserChangedEvent(previous, current, true);
+    }
+
+    public boolean isDeleted() {
+        return current == null;
+    }
+
+    public String getUserId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+}
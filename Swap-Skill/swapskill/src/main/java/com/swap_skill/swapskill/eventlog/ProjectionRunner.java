@@ -0,0 +1,304 @@
+package com.swap_skill.swapskill.eventlog;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Feeds the swap event log to every {@link SwapProjection} on a background thread, in batches of
+ * {@code eventlog.batch-size} events, and keeps a checkpoint per projection: the sequence of the last event it
+ * has applied. Projections that are behind, e.g. after a rebuild, are fed batch after batch without waiting;
+ * once all have caught up the thread waits for new appends.
+ * <p>
+ * Every {@code eventlog.snapshot-interval-ms} and on shutdown, each projection that moved is written to
+ * {@code <eventlog.snapshot-path>/<name>.snapshot} together with its checkpoint. On startup it is restored from
+ * there and fed from the checkpoint on; without a usable snapshot it is rebuilt from the start of the log.
+ * A projection that throws while applying events stops at its checkpoint until it is rebuilt.
+ */
+@Component
+@Slf4j
+public class ProjectionRunner {
+
+    private static final int MAGIC = 0x53575052;
+    private static final short VERSION = 2;
+    private static final long IDLE_WAIT_MILLIS = 1000;
+
+    private final SwapEventLog eventLog;
+    private final List<Tracked> projections = new ArrayList<>();
+    private final Path snapshotDirectory;
+    private final int batchSize;
+    private final long snapshotIntervalMillis;
+    private volatile boolean running;
+    private Thread thread;
+
+    public ProjectionRunner(SwapEventLog eventLog, List<SwapProjection> projections,
+                            @Value("${eventlog.snapshot-path:data/projections}") String snapshotDirectory,
+                            @Value("${eventlog.batch-size:10000}") int batchSize,
+                            @Value("${eventlog.snapshot-interval-ms:60000}") long snapshotIntervalMillis) {
+        this.eventLog = eventLog;
+        for (SwapProjection projection : projections) {
+            this.projections.add(new Tracked(projection));
+        }
+        this.snapshotDirectory = Paths.get(snapshotDirectory);
+        this.batchSize = batchSize;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!eventLog.isEnabled() || running) {
+            return;
+        }
+        for (Tracked tracked : projections) {
+            if (!restore(tracked) && eventLog.lastSequence() > 0) {
+                tracked.rebuildStartedAt = System.currentTimeMillis();
+            }
+        }
+        running = true;
+        thread = new Thread(this::run, "swap-projections");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.join(IDLE_WAIT_MILLIS * 5);
+        if (!thread.isAlive()) {
+            for (Tracked tracked : projections) {
+                closeCursor(tracked);
+                writeSnapshot(tracked);
+            }
+        }
+    }
+
+    public List<Status> statuses() {
+        long last = eventLog.lastSequence();
+        return projections.stream().map(tracked -> tracked.status(last)).toList();
+    }
+
+    /**
+     * Schedules a projection to be reset and rebuilt from the start of the log.
+     * Until the rebuild has caught up, the projection's views are incomplete.
+     */
+    public Optional<Status> rebuild(String name) {
+        for (Tracked tracked : projections) {
+            if (tracked.projection.name().equals(name)) {
+                tracked.rebuildRequested = true;
+                return Optional.of(tracked.status(eventLog.lastSequence()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public record Status(String name, long checkpoint, long lag, boolean rebuilding, String failure) {
+    }
+
+    private void run() {
+        long lastSnapshot = System.currentTimeMillis();
+        while (running) {
+            boolean caughtUp = true;
+            for (Tracked tracked : projections) {
+                caughtUp &= advance(tracked);
+            }
+            if (System.currentTimeMillis() - lastSnapshot >= snapshotIntervalMillis) {
+                for (Tracked tracked : projections) {
+                    writeSnapshot(tracked);
+                }
+                lastSnapshot = System.currentTimeMillis();
+            }
+            if (caughtUp) {
+                try {
+                    eventLog.awaitAppend(minimumCheckpoint(), IDLE_WAIT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Feeds one batch to a projection.
+     *
+     * @return whether the projection has nothing left to apply for now
+     */
+    private boolean advance(Tracked tracked) {
+        if (tracked.rebuildRequested) {
+            tracked.rebuildRequested = false;
+            closeCursor(tracked);
+            tracked.projection.reset();
+            tracked.checkpoint = 0;
+            tracked.failure = null;
+            tracked.rebuildStartedAt = System.currentTimeMillis();
+            log.info("Rebuilding projection {} from {} events", tracked.projection.name(), eventLog.lastSequence());
+        }
+        if (tracked.failure != null) {
+            return true;
+        }
+        if (caughtUp(tracked)) {
+            return true;
+        }
+        
+        List<SwapEvent> batch;
+        try {
+            if (tracked.cursor == null) {
+                tracked.cursor = eventLog.cursor(tracked.checkpoint + 1);
+            }
+            batch = tracked.cursor.read(batchSize);
+        } catch (IOException e) {
+            log.warn("Failed to read the swap event log for projection {} at sequence {}: {}",
+                    tracked.projection.name(), tracked.checkpoint + 1, e.getMessage());
+            closeCursor(tracked);
+            return true;
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            tracked.projection.apply(batch);
+        } catch (RuntimeException e) {
+            tracked.failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Projection {} failed on events {} to {} and stops until rebuilt: {}", tracked.projection.name(),
+                    batch.get(0).sequence(), batch.get(batch.size() - 1).sequence(), tracked.failure);
+            return true;
+        }
+        tracked.checkpoint = batch.get(batch.size() - 1).sequence();
+        return caughtUp(tracked);
+    }
+
+    private boolean caughtUp(Tracked tracked) {
+        if (tracked.checkpoint < eventLog.lastSequence()) {
+            return false;
+        }
+        if (tracked.rebuildStartedAt > 0) {
+            log.info("Rebuilt projection {} from {} events in {} ms", tracked.projection.name(), tracked.checkpoint,
+                    System.currentTimeMillis() - tracked.rebuildStartedAt);
+            tracked.rebuildStartedAt = 0;
+        }
+        return true;
+    }
+
+    private long minimumCheckpoint() {
+        long minimum = Long.MAX_VALUE;
+        for (Tracked tracked : projections) {
+            if (tracked.failure == null) {
+                minimum = Math.min(minimum, tracked.checkpoint);
+            }
+        }
+        return minimum == Long.MAX_VALUE ? eventLog.lastSequence() : minimum;
+    }
+
+    /**
+     * Restores a projection from its snapshot.
+     *
+     * @return false if there was no usable snapshot and the projection starts empty
+     */
+    private boolean restore(Tracked tracked) {
+        SwapProjection projection = tracked.projection;
+        projection.reset();
+        Path path = snapshotPath(projection);
+        if (!Files.isRegularFile(path)) {
+            log.info("No snapshot of projection {}; building it from the swap event log", projection.name());
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION || in.readInt() != projection.version()) {
+                log.warn("Ignoring snapshot {} of another format; rebuilding projection {}", path, projection.name());
+                return false;
+            }
+            long checkpoint = in.readLong();
+            if (checkpoint > eventLog.lastSequence()) {
+                log.warn("Ignoring snapshot {} ahead of the swap event log; rebuilding projection {}", path,
+                        projection.name());
+                return false;
+            }
+            projection.readFrom(in);
+            tracked.checkpoint = checkpoint;
+            tracked.snapshotCheckpoint = checkpoint;
+            log.info("Restored projection {} at sequence {}", projection.name(), checkpoint);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot {}; rebuilding projection {}: {}", path, projection.name(),
+                    e.getMessage());
+            projection.reset();
+            tracked.checkpoint = 0;
+            return false;
+        }
+    }
+
+    private void writeSnapshot(Tracked tracked) {
+        if (tracked.checkpoint == tracked.snapshotCheckpoint || tracked.failure != null) {
+            return;
+        }
+        SwapProjection projection = tracked.projection;
+        Path path = snapshotPath(projection);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(snapshotDirectory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(projection.version());
+                out.writeLong(tracked.checkpoint);
+                projection.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tracked.snapshotCheckpoint = tracked.checkpoint;
+        } catch (IOException e) {
+            log.error("Failed to write snapshot {} of projection {}: {}", path, projection.name(), e.getMessage());
+        }
+    }
+
+    private Path snapshotPath(SwapProjection projection) {
+        return snapshotDirectory.resolve(projection.name() + ".snapshot");
+    }
+
+    private static void closeCursor(Tracked tracked) {
+        if (tracked.cursor == null) {
+            return;
+        }
+        try {
+            tracked.cursor.close();
+        } catch (IOException e) {
+            log.warn("Failed to close swap event log cursor of projection {}: {}", tracked.projection.name(),
+                    e.getMessage());
+        }
+        tracked.cursor = null;
+    }
+
+    /**
+     * Feeding state of one projection; written only by the projection thread, except the rebuild request.
+     */
+    private static final class Tracked {
+
+        private final SwapProjection projection;
+        private volatile long checkpoint;
+        private volatile String failure;
+        private volatile boolean rebuildRequested;
+        private volatile long rebuildStartedAt;
+        private long snapshotCheckpoint;
+        private SwapEventLog.Cursor cursor;
+
+        private Tracked(SwapProjection projection) {
+            this.projection = projection;
+        }
+
+        private Status status(long lastSequence) {
+            return new Status(projection.name(), checkpoint, Math.max(0, lastSequence - checkpoint),
+                    rebuildRequested || rebuildStartedAt > 0, failure);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.swap_skill.swapskill.eventlog;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/projections}: the swap event log's position and each projection's checkpoint and lag; on POST to
+ * {@code /actuator/projections/{name}}, rebuilds that projection from the start of the log.
+ * Not exposed by default; expose it on an internal management port only.
+ */
+@Component
+@Endpoint(id = "projections")
+public class ProjectionsEndpoint {
+
+    private final SwapEventLog eventLog;
+    private final ProjectionRunner projectionRunner;
+
+    public ProjectionsEndpoint(SwapEventLog eventLog, ProjectionRunner projectionRunner) {
+        this.eventLog = eventLog;
+        this.projectionRunner = projectionRunner;
+    }
+
+    @ReadOperation
+    public Map<String, Object> projections() {
+        Map<String, Object> projections = new LinkedHashMap<>();
+        projections.put("enabled", eventLog.isEnabled());
+        projections.put("lastSequence", eventLog.lastSequence());
+        projections.put("projections", projectionRunner.statuses());
+        return projections;
+    }
+
+    @WriteOperation
+    public ProjectionRunner.Status rebuild(@Selector String name) {
+        return projectionRunner.rebuild(name).orElse(null);
+    }
+} 
\ No newline at end of file
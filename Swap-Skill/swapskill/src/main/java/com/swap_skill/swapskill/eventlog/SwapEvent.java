@@ -0,0 +1,75 @@
+package com.swap_skill.swapskill.eventlog;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+
+/**
+ * One immutable swap event: a state change of a swap request as it was after the change.
+ * {@code sequence} is the entry's position in the local log, starting at 1 (0 before it is appended);
+ * {@code timestamp} is the Firestore commit time in epoch microseconds. {@code source} names the shard whose
+ * {@code swap_events} collection recorded the event and {@code eventId} is its document ID there.
+ */
+public record SwapEvent(long sequence, Type type, long timestamp, String swapRequestId, String fromUserId,
+                        String toUserId, String skillOffered, String skillWanted, SwapRequest.SwapStatus status,
+                        Double rating, String source, String eventId) {
+
+    /**
+     * A change of {@code swapRequest}, which holds the state after the change, not yet appended to the log.
+     */
+    public static SwapEvent of(Type type, SwapRequest swapRequest, long timestamp, String source, String eventId) {
+        return new SwapEvent(0, type, timestamp, swapRequest.getId(), swapRequest.getFromUserId(),
+                swapRequest.getToUserId(), swapRequest.getSkillOffered(), swapRequest.getSkillWanted(),
+                swapRequest.getStatus(), swapRequest.getRating(), source, eventId);
+    }
+
+    /**
+     * This event at position {@code sequence} of the log.
+     */
+    public SwapEvent withSequence(long sequence) {
+        return new SwapEvent(sequence, type, timestamp, swapRequestId, fromUserId, toUserId, skillOffered,
+                skillWanted, status, rating, source, eventId);
+    }
+
+    /**
+     * Event types with their stable codes in the log; codes must never be reused.
+     */
+    public enum Type {
+        CREATED(1),
+        ACCEPTED(2),
+        REJECTED(3),
+        COMPLETED(4),
+        RATED(5),
+        DELETED(6);
+
+        private final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        public int code() {
+            return code;
+        }
+
+        public static Type ofCode(int code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown swap event type " + code);
+        }
+
+        /**
+         * The type of a status change into {@code status}.
+         */
+        public static Type forStatus(SwapRequest.SwapStatus status) {
+            return switch (status) {
+                case PENDING -> CREATED;
+                case ACCEPTED -> ACCEPTED;
+                case REJECTED -> REJECTED;
+                case COMPLETED -> COMPLETED;
+                case CANCELLED -> DELETED;
+            };
+        }
+    }
+} 
\ No newline at end of file
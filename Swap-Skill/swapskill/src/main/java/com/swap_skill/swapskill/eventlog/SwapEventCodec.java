@@ -0,0 +1,72 @@
+package com.swap_skill.swapskill.eventlog;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary form of a {@link SwapEvent}, shared by log records and projection snapshots.
+ */
+final class SwapEventCodec {
+
+    private SwapEventCodec() {
+    }
+
+    static void write(DataOutput out, SwapEvent event) throws IOException {
+        out.writeLong(event.sequence());
+        out.writeByte(event.type().code());
+        out.writeLong(event.timestamp());
+        writeString(out, event.swapRequestId());
+        writeString(out, event.fromUserId());
+        writeString(out, event.toUserId());
+        writeString(out, event.skillOffered());
+        writeString(out, event.skillWanted());
+        writeString(out, event.status() != null ? event.status().name() : null);
+        out.writeBoolean(event.rating() != null);
+        if (event.rating() != null) {
+            out.writeDouble(event.rating());
+        }
+        writeString(out, event.source());
+        writeString(out, event.eventId());
+    }
+
+    static SwapEvent read(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        SwapEvent.Type type = SwapEvent.Type.ofCode(in.readByte());
+        long timestamp = in.readLong();
+        String swapRequestId = readString(in);
+        String fromUserId = readString(in);
+        String toUserId = readString(in);
+        String skillOffered = readString(in);
+        String skillWanted = readString(in);
+        String status = readString(in);
+        Double rating = in.readBoolean() ? in.readDouble() : null;
+        String source = readString(in);
+        String eventId = readString(in);
+        return new SwapEvent(sequence, type, timestamp, swapRequestId, fromUserId, toUserId, skillOffered, skillWanted,
+                status != null ? SwapRequest.SwapStatus.valueOf(status) : null, rating, source, eventId);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+} 
\ No newline at end of file
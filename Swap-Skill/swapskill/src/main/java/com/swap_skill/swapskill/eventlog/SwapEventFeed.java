@@ -0,0 +1,202 @@
+package com.swap_skill.swapskill.eventlog;
+
+import com.swap_skill.swapskill.repository.SwapRequestRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Copies the swap events recorded in Firestore into the local {@link SwapEventLog} on a background thread, so the
+ * projections of every instance are fed the changes made by all instances.
+ * <p>
+ * Each event source (one per shard) is read in order from a position: the (timestamp, eventId) of the last event
+ * copied from it. Every {@code eventlog.poll-interval-ms}, or right away while a source returned a full batch, up to
+ * {@code eventlog.batch-size} events are read from each source, merged by timestamp and appended. Events of one
+ * source keep their order; events of different sources are ordered by commit time only within a round.
+ * <p>
+ * After each round the positions are written to {@code <eventlog.path>/feed.positions} together with the sequence
+ * of the last event appended. On startup the events appended after that sequence are read back from the log to
+ * bring the positions up to date, so an event is appended exactly once even after a crash between the two writes.
+ */
+@Component
+@Slf4j
+public class SwapEventFeed {
+
+    private static final int MAGIC = 0x53574650;
+    private static final short VERSION = 1;
+    private static final Comparator<SwapEvent> COMMIT_ORDER = Comparator.comparingLong(SwapEvent::timestamp)
+            .thenComparing(SwapEvent::source)
+            .thenComparing(SwapEvent::eventId);
+
+    private final SwapRequestRepository swapRequestRepository;
+    private final SwapEventLog eventLog;
+    private final Path positionsPath;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Map<String, Position> positions = new HashMap<>();
+    private volatile boolean running;
+    private Thread thread;
+
+    public SwapEventFeed(SwapRequestRepository swapRequestRepository, SwapEventLog eventLog,
+                         @Value("${eventlog.path:data/eventlog}") String directory,
+                         @Value("${eventlog.batch-size:10000}") int batchSize,
+                         @Value("${eventlog.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.swapRequestRepository = swapRequestRepository;
+        this.eventLog = eventLog;
+        this.positionsPath = Paths.get(directory).resolve("feed.positions");
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!eventLog.isEnabled() || running) {
+            return;
+        }
+        try {
+            restorePositions();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to restore the swap event feed positions; swap events will not be copied: {}",
+                    e.getMessage());
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "swap-event-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        thread.join(pollIntervalMillis * 5);
+    }
+
+    private void run() {
+        while (running) {
+            boolean caughtUp;
+            try {
+                caughtUp = poll();
+            } catch (RuntimeException e) {
+                log.warn("Failed to read swap events; retrying in {} ms: {}", pollIntervalMillis, e.getMessage());
+                caughtUp = true;
+            }
+            if (caughtUp) {
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads one batch from every source and appends it.
+     *
+     * @return true if every source has been read to its end
+     */
+    private boolean poll() {
+        List<SwapEvent> events = new ArrayList<>();
+        boolean caughtUp = true;
+        for (String source : swapRequestRepository.eventSources()) {
+            Position position = positions.get(source);
+            List<SwapEvent> page = position != null
+                    ? swapRequestRepository.findEventsAfter(source, position.timestamp(), position.eventId(), batchSize)
+                    : swapRequestRepository.findEventsAfter(source, 0, null, batchSize);
+            events.addAll(page);
+            caughtUp &= page.size() < batchSize;
+        }
+        if (events.isEmpty()) {
+            return caughtUp;
+        }
+        events.sort(COMMIT_ORDER);
+        long lastSequence = 0;
+        for (SwapEvent event : events) {
+            SwapEvent appended = eventLog.append(event);
+            if (appended == null) {
+                // Later events are read again from the positions of the last ones appended
+                caughtUp = true;
+                break;
+            }
+            positions.put(event.source(), new Position(event.timestamp(), event.eventId()));
+            lastSequence = appended.sequence();
+        }
+        if (lastSequence > 0) {
+            writePositions(lastSequence);
+        }
+        return caughtUp;
+    }
+
+    /**
+     * Reads the positions file, then the events appended after it was written.
+     */
+    private void restorePositions() throws IOException {
+        long sequence = 0;
+        if (Files.isRegularFile(positionsPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(positionsPath)))) {
+                if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                    throw new IOException("Unknown format of " + positionsPath);
+                }
+                sequence = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    String source = SwapEventCodec.readString(in);
+                    positions.put(source, new Position(in.readLong(), SwapEventCodec.readString(in)));
+                }
+            }
+            if (sequence > eventLog.lastSequence()) {
+                log.warn("Ignoring swap event feed positions ahead of the swap event log; reading the whole log");
+                positions.clear();
+                sequence = 0;
+            }
+        }
+        long caughtUpFrom = sequence;
+        try (SwapEventLog.Cursor cursor = eventLog.cursor(sequence + 1)) {
+            for (List<SwapEvent> events = cursor.read(batchSize); !events.isEmpty(); events = cursor.read(batchSize)) {
+                for (SwapEvent event : events) {
+                    positions.put(event.source(), new Position(event.timestamp(), event.eventId()));
+                    sequence = event.sequence();
+                }
+            }
+        }
+        log.info("Restored swap event feed at sequence {} ({} events read from the log) for {} sources",
+                sequence, sequence - caughtUpFrom, positions.size());
+    }
+
+    private void writePositions(long sequence) {
+        Path temp = positionsPath.resolveSibling(positionsPath.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(sequence);
+                out.writeInt(positions.size());
+                for (Map.Entry<String, Position> entry : positions.entrySet()) {
+                    SwapEventCodec.writeString(out, entry.getKey());
+                    out.writeLong(entry.getValue().timestamp());
+                    SwapEventCodec.writeString(out, entry.getValue().eventId());
+                }
+            }
+            Files.move(temp, positionsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The positions are recovered from the log on the next start
+            log.warn("Failed to write swap event feed positions {}: {}", positionsPath, e.getMessage());
+        }
+    }
+
+    private record Position(long timestamp, String eventId) {
+    }
+} 
\ No newline at end of file
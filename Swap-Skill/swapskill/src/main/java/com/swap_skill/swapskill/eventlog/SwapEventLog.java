@@ -0,0 +1,333 @@
+package com.swap_skill.swapskill.eventlog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local replica of the swap events recorded in Firestore. Every swap change writes its event to the
+ * {@code swap_events} collection of its shard in the same atomic write as the change; {@link SwapEventFeed} copies
+ * those events here in order, and projections ({@link ProjectionRunner}) derive their views from this copy. Every
+ * instance therefore sees the changes made by all instances, and a lost local log can be rebuilt from Firestore.
+ * <p>
+ * The log is split into segment files named after the sequence of their first event,
+ * {@code <sequence, 20 digits>.log}; a new segment is started once the current one reaches
+ * {@code eventlog.segment-bytes}. Each record is its payload length, the payload's CRC-32 and the payload.
+ * On startup a torn record at the end of the last segment, left by a crash mid-append, is cut off.
+ */
+@Component
+@Slf4j
+public class SwapEventLog {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}\\.log");
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final CRC32 crc = new CRC32();
+    private FileChannel segment;
+    private long nextSequence = 1;
+    private volatile long lastSequence;
+
+    public SwapEventLog(@Value("${eventlog.path:data/eventlog}") String directory,
+                        @Value("${eventlog.enabled:true}") boolean enabled,
+                        @Value("${eventlog.segment-bytes:67108864}") long segmentBytes,
+                        @Value("${eventlog.fsync:false}") boolean fsync) {
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            openLastSegment();
+        } catch (IOException e) {
+            log.error("Failed to open swap event log {}; swap changes will not be recorded: {}", directory, e.getMessage());
+        }
+    }
+
+    private void openLastSegment() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> bases = segmentBases();
+        long base = bases.isEmpty() ? 1 : bases.get(bases.size() - 1);
+        Path path = segmentPath(base);
+        long validBytes = 0;
+        long last = base - 1;
+        if (Files.exists(path)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), READ_BUFFER_BYTES)) {
+                CRC32 checksum = new CRC32();
+                for (Record record = readRecord(in, checksum); record != null; record = readRecord(in, checksum)) {
+                    validBytes += record.bytes();
+                    last = record.event().sequence();
+                }
+            } catch (IOException e) {
+                log.warn("Cutting off a torn record at byte {} of event log segment {}: {}", validBytes, path, e.getMessage());
+            }
+        }
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (segment.size() > validBytes) {
+            segment.truncate(validBytes);
+        }
+        segment.position(validBytes);
+        nextSequence = last + 1;
+        lastSequence = last;
+        log.info("Opened swap event log {} at sequence {} ({} segments)", directory, last, Math.max(bases.size(), 1));
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sequence of the newest event in the log, 0 while it is empty.
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Appends {@code event} at the next sequence.
+     *
+     * @return the appended event, or null if the log is disabled or the append failed
+     */
+    public synchronized SwapEvent append(SwapEvent event) {
+        if (!enabled || segment == null) {
+            return null;
+        }
+        event = event.withSequence(nextSequence);
+        long start = -1;
+        try {
+            ByteBuffer record = encode(event);
+            if (segment.position() > 0 && segment.position() + record.remaining() > segmentBytes) {
+                roll();
+            }
+            start = segment.position();
+            while (record.hasRemaining()) {
+                segment.write(record);
+            }
+            if (fsync) {
+                segment.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to append {} event for swap request {}: {}", event.type(), event.swapRequestId(),
+                    e.getMessage());
+            discardPartialRecord(start);
+            return null;
+        }
+        nextSequence++;
+        lastSequence = event.sequence();
+        notifyAll();
+        return event;
+    }
+
+    /**
+     * Waits until an event after {@code sequence} has been appended or the timeout has passed.
+     */
+    public synchronized void awaitAppend(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (lastSequence <= sequence && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Opens a cursor that reads the log in order, starting with the event at {@code fromSequence}.
+     */
+    public Cursor cursor(long fromSequence) {
+        return new Cursor(Math.max(fromSequence, 1));
+    }
+
+    /**
+     * Sequential reader over the segments. Reads only events that were completely appended when
+     * {@link #read(int)} was called; a later call continues where the previous one stopped.
+     */
+    public final class Cursor implements Closeable {
+
+        private final CRC32 checksum = new CRC32();
+        private long next;
+        private InputStream in;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        public long next() {
+            return next;
+        }
+
+        public List<SwapEvent> read(int maxEvents) throws IOException {
+            long limit = lastSequence;
+            List<SwapEvent> events = new ArrayList<>((int) Math.max(0, Math.min(maxEvents, limit - next + 1)));
+            boolean atSegmentStart = false;
+            while (events.size() < maxEvents && next <= limit) {
+                if (in == null) {
+                    in = openSegmentFor(next, atSegmentStart);
+                }
+                Record record = readRecord(in, checksum);
+                if (record == null) {
+                    // End of a full segment: the next event starts the following one
+                    closeSegment();
+                    atSegmentStart = true;
+                    continue;
+                }
+                atSegmentStart = false;
+                long sequence = record.event().sequence();
+                if (sequence < next) {
+                    continue;
+                }
+                if (sequence != next) {
+                    throw new IOException("Swap event log skips from sequence " + next + " to " + sequence);
+                }
+                events.add(record.event());
+                next++;
+            }
+            return events;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeSegment();
+        }
+
+        private InputStream openSegmentFor(long sequence, boolean exact) throws IOException {
+            long base = -1;
+            if (exact) {
+                base = sequence;
+            } else {
+                for (long candidate : segmentBases()) {
+                    if (candidate <= sequence) {
+                        base = candidate;
+                    }
+                }
+            }
+            Path path = segmentPath(base);
+            if (base < 0 || !Files.isRegularFile(path)) {
+                throw new FileNotFoundException("No swap event log segment holds sequence " + sequence);
+            }
+            return new BufferedInputStream(Files.newInputStream(path), READ_BUFFER_BYTES);
+        }
+
+        private void closeSegment() throws IOException {
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        if (fsync) {
+            segment.force(false);
+        }
+        segment.close();
+        segment = FileChannel.open(segmentPath(nextSequence), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        log.info("Started swap event log segment at sequence {}", nextSequence);
+    }
+
+    private void discardPartialRecord(long start) {
+        if (start < 0) {
+            return;
+        }
+        try {
+            segment.truncate(start);
+            segment.position(start);
+        } catch (IOException e) {
+            log.error("Failed to cut off a partial record in the swap event log: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> SEGMENT_NAME.matcher(name).matches())
+                    .map(name -> Long.parseLong(name.substring(0, 20)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d.log", base));
+    }
+
+    private ByteBuffer encode(SwapEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        SwapEventCodec.write(out, event);
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        
+        crc.reset();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return record.flip();
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the stream.
+     *
+     * @throws IOException if the stream ends inside a record or the record fails its checksum
+     */
+    private static Record readRecord(InputStream in, CRC32 checksum) throws IOException {
+        byte[] header = in.readNBytes(HEADER_BYTES);
+        if (header.length == 0) {
+            return null;
+        }
+        if (header.length < HEADER_BYTES) {
+            throw new EOFException("Truncated record header");
+        }
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+        int length = headerBuffer.getInt();
+        int expectedChecksum = headerBuffer.getInt();
+        if (length <= 0 || length > MAX_PAYLOAD_BYTES) {
+            throw new IOException("Invalid record length " + length);
+        }
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException("Truncated record");
+        }
+        checksum.reset();
+        checksum.update(payload);
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("Record checksum mismatch");
+        }
+        SwapEvent event = SwapEventCodec.read(new DataInputStream(new ByteArrayInputStream(payload)));
+        return new Record(event, HEADER_BYTES + length);
+    }
+
+    private record Record(SwapEvent event, int bytes) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.swap_skill.swapskill.eventlog;
+
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transition history of every swap request in the log, including deleted ones, oldest first.
+ */
+@Component
+public class SwapHistoryProjection implements SwapProjection {
+
+    private final Map<String, List<SwapEvent>> histories = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "swap-history";
+    }
+
+    @Override
+    public void apply(List<SwapEvent> events) {
+        for (SwapEvent event : events) {
+            // Histories are replaced, never changed in place, so readers never see a list being appended to
+            histories.merge(event.swapRequestId(), List.of(event), (history, added) -> {
+                List<SwapEvent> merged = new ArrayList<>(history.size() + 1);
+                merged.addAll(history);
+                merged.addAll(added);
+                return List.copyOf(merged);
+            });
+        }
+    }
+
+    public List<SwapEvent> history(String swapRequestId) {
+        return histories.getOrDefault(swapRequestId, List.of());
+    }
+
+    @Override
+    public void reset() {
+        histories.clear();
+    }
+
+    @Override
+    public void writeTo(DataOutputStream out) throws IOException {
+        List<Map.Entry<String, List<SwapEvent>>> entries = new ArrayList<>(histories.entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<String, List<SwapEvent>> entry : entries) {
+            out.writeInt(entry.getValue().size());
+            for (SwapEvent event : entry.getValue()) {
+                SwapEventCodec.write(out, event);
+            }
+        }
+    }
+
+    @Override
+    public void readFrom(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int size = in.readInt();
+            List<SwapEvent> history = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                history.add(SwapEventCodec.read(in));
+            }
+            if (!history.isEmpty()) {
+                histories.put(history.get(0).swapRequestId(), List.copyOf(history));
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.swap_skill.swapskill.eventlog;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A view derived from the swap event log. Projections are fed by {@link ProjectionRunner} on its own thread, in
+ * log order and in batches; their read methods may be called concurrently with {@link #apply(List)}.
+ * Their state is snapshotted together with the sequence it reflects, so a restart resumes from there instead of
+ * replaying the whole log.
+ */
+public interface SwapProjection {
+
+    /**
+     * Stable name, used for the snapshot file and in {@code /actuator/projections}.
+     */
+    String name();
+
+    /**
+     * Version of the snapshot format; snapshots of another version are discarded and the projection is rebuilt.
+     */
+    default int version() {
+        return 1;
+    }
+
+    void apply(List<SwapEvent> events);
+
+    /**
+     * Drops all state, before a rebuild or when no usable snapshot exists.
+     */
+    void reset();
+
+    void writeTo(DataOutputStream out) throws IOException;
+
+    void readFrom(DataInputStream in) throws IOException;
+} 
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.swap_skill.swapskill.eventlog;
+
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user swap counters: requests sent and received, how many are still open, and how many of the user's swaps
+ * were accepted, rejected, completed or withdrawn. Counts cover the changes recorded in the log; swaps created
+ * before the log was started are only counted from their next change.
+ */
+@Component
+public class UserSwapStatsProjection implements SwapProjection {
+
+    public enum Counter {
+        SENT,
+        RECEIVED,
+        OPEN,
+        ACCEPTED,
+        REJECTED,
+        COMPLETED,
+        WITHDRAWN
+    }
+
+    private static final int COUNTERS = Counter.values().length;
+
+    private final Map<String, AtomicLongArray> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "user-swap-stats";
+    }
+
+    @Override
+    public void apply(List<SwapEvent> events) {
+        for (SwapEvent event : events) {
+            switch (event.type()) {
+                case CREATED -> {
+                    add(event.fromUserId(), Counter.SENT, 1);
+                    add(event.toUserId(), Counter.RECEIVED, 1);
+                    both(event, Counter.OPEN, 1);
+                }
+                case ACCEPTED -> close(event, Counter.ACCEPTED);
+                case REJECTED -> close(event, Counter.REJECTED);
+                case DELETED -> close(event, Counter.WITHDRAWN);
+                case COMPLETED -> both(event, Counter.COMPLETED, 1);
+                case RATED -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Counter values of a user, indexed by {@link Counter} ordinal; empty if the user has no swaps in the log.
+     */
+    public Optional<long[]> counts(String userId) {
+        AtomicLongArray values = counters.get(userId);
+        if (values == null) {
+            return Optional.empty();
+        }
+        long[] counts = new long[COUNTERS];
+        for (int i = 0; i < COUNTERS; i++) {
+            counts[i] = values.get(i);
+        }
+        return Optional.of(counts);
+    }
+
+    @Override
+    public void reset() {
+        counters.clear();
+    }
+
+    @Override
+    public void writeTo(DataOutputStream out) throws IOException {
+        List<Map.Entry<String, AtomicLongArray>> entries = new ArrayList<>(counters.entrySet());
+        out.writeInt(COUNTERS);
+        out.writeInt(entries.size());
+        for (Map.Entry<String, AtomicLongArray> entry : entries) {
+            SwapEventCodec.writeString(out, entry.getKey());
+            for (int i = 0; i < COUNTERS; i++) {
+                out.writeLong(entry.getValue().get(i));
+            }
+        }
+    }
+
+    @Override
+    public void readFrom(DataInputStream in) throws IOException {
+        int stored = in.readInt();
+        if (stored != COUNTERS) {
+            throw new IOException("Snapshot has " + stored + " counters per user, expected " + COUNTERS);
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String userId = SwapEventCodec.readString(in);
+            AtomicLongArray values = new AtomicLongArray(COUNTERS);
+            for (int j = 0; j < COUNTERS; j++) {
+                values.set(j, in.readLong());
+            }
+            counters.put(userId, values);
+        }
+    }
+
+    private void close(SwapEvent event, Counter outcome) {
+        both(event, Counter.OPEN, -1);
+        both(event, outcome, 1);
+    }
+
+    private void both(SwapEvent event, Counter counter, long delta) {
+        add(event.fromUserId(), counter, delta);
+        add(event.toUserId(), counter, delta);
+    }
+
+    private void add(String userId, Counter counter, long delta) {
+        if (userId != null) {
+            counters.computeIfAbsent(userId, id -> new AtomicLongArray(COUNTERS)).addAndGet(counter.ordinal(), delta);
+        }
+    }
+} 
\ No newline at end of file
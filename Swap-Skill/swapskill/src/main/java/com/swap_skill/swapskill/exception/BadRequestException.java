@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.exception;
+
+/**
+ * The request itself is invalid, e.g. a limit out of range or a malformed cursor. Mapped to 400.
+ */
+public class BadRequestException extends DomainException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
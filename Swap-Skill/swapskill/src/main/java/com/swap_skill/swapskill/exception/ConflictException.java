@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.exception;
+
+/**
+ * The request conflicts with existing data, e.g. a duplicate swap request. Mapped to 409.
+ */
+public class ConflictException extends DomainException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
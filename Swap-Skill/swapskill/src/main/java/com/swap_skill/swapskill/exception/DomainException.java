@@ -0,0 +1,12 @@
+package com.swap_skill.swapskill.exception;
+
+/**
+ * Base class for expected business errors. These are thrown on hot paths (e.g. bots probing unknown IDs) and are
+ * always handled by {@link GlobalExceptionHandler}, so they skip stack trace capture and suppression.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+} 
\ No newline at end of file
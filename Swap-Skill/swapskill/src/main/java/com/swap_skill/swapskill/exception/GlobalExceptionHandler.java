@@ -1,6 +1,7 @@
 package com.swap_skill.swapskill.exception;
 
 import com.swap_skill.swapskill.dto.ApiResponse;
+import com.swap_skill.swapskill.repository.FirestoreUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +32,33 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Validation failed: " + errors));
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadRequest(BadRequestException ex) {
+        return domainError(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleNotFound(NotFoundException ex) {
+        return domainError(HttpStatus.NOT_FOUND, ex);
+    }
+
+    @ExceptionHandler({ConflictException.class, InvalidTransitionException.class})
+    public ResponseEntity<ApiResponse<Void>> handleConflict(DomainException ex) {
+        return domainError(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(PrivateProfileException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePrivateProfile(PrivateProfileException ex) {
+        return domainError(HttpStatus.FORBIDDEN, ex);
+    }
+
+    @ExceptionHandler(FirestoreUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleFirestoreUnavailable(FirestoreUnavailableException ex) {
+        log.warn("Firestore unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<Void>> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception: {}", ex.getMessage());
@@ -44,4 +72,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("An unexpected error occurred"));
     }
+
+    /**
+     * Expected business errors are part of normal traffic, so they are logged at debug level only.
+     */
+    private static ResponseEntity<ApiResponse<Void>> domainError(HttpStatus status, DomainException ex) {
+        log.debug("{}: {}", ex.getClass().getSimpleName(), ex.getMessage());
+        return ResponseEntity.status(status)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
 } 
\ No newline at end of file
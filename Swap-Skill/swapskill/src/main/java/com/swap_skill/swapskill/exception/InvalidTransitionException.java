@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.exception;
+
+/**
+ * A swap request is not in a status that allows the requested action. Mapped to 409.
+ */
+public class InvalidTransitionException extends DomainException {
+
+    public InvalidTransitionException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
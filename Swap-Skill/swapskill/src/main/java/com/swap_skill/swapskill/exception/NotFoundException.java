@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.exception;
+
+/**
+ * A requested entity does not exist. Mapped to 404.
+ */
+public class NotFoundException extends DomainException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.exception;
+
+/**
+ * A private profile was requested by someone who may not see it. Mapped to 403.
+ */
+public class PrivateProfileException extends DomainException {
+
+    public PrivateProfileException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.swap_skill.swapskill.export;
+
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.model.User;
+import com.swap_skill.swapskill.repository.SwapRequestRepository;
+import com.swap_skill.swapskill.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Incremental change-data-capture export of users and swap requests to local columnar files, so analytics can
+ * run offline instead of scanning Firestore.
+ * <p>
+ * Each table is read in (updatedAt, id) order from a checkpointed position, one page at a time. Every page becomes
+ * an immutable part file {@code <table>/date=<yyyy-MM-dd>/part-<n>.col.gz}, partitioned by the rows' updatedAt
+ * date (UTC), and the checkpoint is advanced only after the part is on disk. A run interrupted between the two
+ * rewrites the same part number on the next run, so no change is exported twice or skipped.
+ * <p>
+ * Rows updated within the last {@code cdc.lag-ms} are left for the next run: updatedAt is set by the writing
+ * instance's clock, and the lag gives slightly late writes time to land before the watermark passes them.
+ * Hard deletes are not visible to a watermark scan and are not exported.
+ */
+@Component
+@Slf4j
+public class ChangeExporter {
+
+    private static final List<ColumnarFile.Column<User>> USER_COLUMNS = List.of(
+            new ColumnarFile.Column<>("id", ColumnarFile.Type.STRING, User::getId),
+            new ColumnarFile.Column<>("name", ColumnarFile.Type.STRING, User::getName),
+            new ColumnarFile.Column<>("profilePhoto", ColumnarFile.Type.STRING, User::getProfilePhoto),
+            new ColumnarFile.Column<>("location", ColumnarFile.Type.STRING, User::getLocation),
+            new ColumnarFile.Column<>("availability", ColumnarFile.Type.STRING_LIST, User::getAvailability),
+            new ColumnarFile.Column<>("skillsOffered", ColumnarFile.Type.STRING_LIST, User::getSkillsOffered),
+            new ColumnarFile.Column<>("skillsWanted", ColumnarFile.Type.STRING_LIST, User::getSkillsWanted),
+            new ColumnarFile.Column<>("publicProfile", ColumnarFile.Type.BOOLEAN, User::isPublicProfile),
+            new ColumnarFile.Column<>("rating", ColumnarFile.Type.DOUBLE, User::getRating),
+            new ColumnarFile.Column<>("about", ColumnarFile.Type.STRING, User::getAbout),
+            new ColumnarFile.Column<>("createdAt", ColumnarFile.Type.TIMESTAMP, User::getCreatedAt),
+            new ColumnarFile.Column<>("updatedAt", ColumnarFile.Type.TIMESTAMP, User::getUpdatedAt));
+
+    private static final List<ColumnarFile.Column<SwapRequest>> SWAP_COLUMNS = List.of(
+            new ColumnarFile.Column<>("id", ColumnarFile.Type.STRING, SwapRequest::getId),
+            new ColumnarFile.Column<>("fromUserId", ColumnarFile.Type.STRING, SwapRequest::getFromUserId),
+            new ColumnarFile.Column<>("toUserId", ColumnarFile.Type.STRING, SwapRequest::getToUserId),
+            new ColumnarFile.Column<>("skillOffered", ColumnarFile.Type.STRING, SwapRequest::getSkillOffered),
+            new ColumnarFile.Column<>("skillWanted", ColumnarFile.Type.STRING, SwapRequest::getSkillWanted),
+            new ColumnarFile.Column<>("message", ColumnarFile.Type.STRING, SwapRequest::getMessage),
+            new ColumnarFile.Column<>("status", ColumnarFile.Type.STRING, SwapRequest::getStatus),
+            new ColumnarFile.Column<>("rating", ColumnarFile.Type.DOUBLE, SwapRequest::getRating),
+            new ColumnarFile.Column<>("feedback", ColumnarFile.Type.STRING, SwapRequest::getFeedback),
+            new ColumnarFile.Column<>("createdAt", ColumnarFile.Type.TIMESTAMP, SwapRequest::getCreatedAt),
+            new ColumnarFile.Column<>("updatedAt", ColumnarFile.Type.TIMESTAMP, SwapRequest::getUpdatedAt));
+
+    private static final String CHECKPOINT_FILE = "_checkpoint";
+
+    private final Path root;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lagMillis;
+    private final List<Table<?>> tables;
+
+    public ChangeExporter(UserRepository userRepository, SwapRequestRepository swapRequestRepository,
+                          @Value("${cdc.path:data/cdc}") String root,
+                          @Value("${cdc.enabled:false}") boolean enabled,
+                          @Value("${cdc.batch-size:1000}") int batchSize,
+                          @Value("${cdc.lag-ms:30000}") long lagMillis) {
+        this.root = Paths.get(root);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lagMillis = lagMillis;
+        this.tables = List.of(
+                new Table<>("users", userRepository::findChangedAfter, User::getId, User::getUpdatedAt, USER_COLUMNS),
+                new Table<>("swaps", swapRequestRepository::findChangedAfter, SwapRequest::getId,
+                        SwapRequest::getUpdatedAt, SWAP_COLUMNS));
+    }
+
+    @Scheduled(initialDelayString = "${cdc.interval-ms:60000}", fixedDelayString = "${cdc.interval-ms:60000}")
+    public void scheduledExport() {
+        if (enabled) {
+            exportAll();
+        }
+    }
+
+    public synchronized void exportAll() {
+        for (Table<?> table : tables) {
+            long start = System.currentTimeMillis();
+            try {
+                int exported = export(table);
+                if (exported > 0) {
+                    log.info("Exported {} changed {} in {} ms", exported, table.name(), System.currentTimeMillis() - start);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to export changes of {}: {}", table.name(), e.getMessage());
+            }
+        }
+    }
+
+    private <T> int export(Table<T> table) throws IOException {
+        Path tableDirectory = root.resolve(table.name());
+        Checkpoint checkpoint = readCheckpoint(tableDirectory);
+        Timestamp cutoff = Timestamp.ofTimeMicroseconds((System.currentTimeMillis() - lagMillis) * 1000);
+        int exported = 0;
+        while (true) {
+            List<T> page = table.changes().find(checkpoint.updatedAt(), checkpoint.id(), batchSize);
+            List<T> rows = page.stream()
+                    .takeWhile(row -> table.updatedAt().apply(row).compareTo(cutoff) < 0)
+                    .toList();
+            if (rows.isEmpty()) {
+                return exported;
+            }
+            writePart(table, tableDirectory, checkpoint.part(), rows);
+            T last = rows.get(rows.size() - 1);
+            checkpoint = new Checkpoint(table.updatedAt().apply(last), table.id().apply(last), checkpoint.part() + 1);
+            writeCheckpoint(tableDirectory, checkpoint);
+            exported += rows.size();
+            if (rows.size() < batchSize) {
+                return exported;
+            }
+        }
+    }
+
+    private <T> void writePart(Table<T> table, Path tableDirectory, long part, List<T> rows) throws IOException {
+        String fileName = String.format("part-%010d.col.gz", part);
+        deletePreviousAttempt(tableDirectory, fileName);
+        
+        Map<LocalDate, List<T>> byDate = new TreeMap<>();
+        for (T row : rows) {
+            Timestamp updatedAt = table.updatedAt().apply(row);
+            LocalDate date = Instant.ofEpochSecond(updatedAt.getSeconds()).atZone(ZoneOffset.UTC).toLocalDate();
+            byDate.computeIfAbsent(date, d -> new ArrayList<>()).add(row);
+        }
+        for (Map.Entry<LocalDate, List<T>> partition : byDate.entrySet()) {
+            Path directory = tableDirectory.resolve("date=" + partition.getKey());
+            Files.createDirectories(directory);
+            Path temp = directory.resolve(fileName + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                ColumnarFile.write(out, table.columns(), partition.getValue());
+            }
+            Files.move(temp, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Removes files of a part whose checkpoint was never written; the retry may cover different dates.
+     */
+    private static void deletePreviousAttempt(Path tableDirectory, String fileName) throws IOException {
+        if (!Files.isDirectory(tableDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> partitions = Files.newDirectoryStream(tableDirectory, "date=*")) {
+            for (Path partition : partitions) {
+                Files.deleteIfExists(partition.resolve(fileName));
+            }
+        }
+    }
+
+    private static Checkpoint readCheckpoint(Path tableDirectory) throws IOException {
+        Path path = tableDirectory.resolve(CHECKPOINT_FILE);
+        if (!Files.isRegularFile(path)) {
+            return new Checkpoint(null, null, 0);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return new Checkpoint(
+                Timestamp.ofTimeSecondsAndNanos(Long.parseLong(properties.getProperty("updatedAt.seconds")),
+                        Integer.parseInt(properties.getProperty("updatedAt.nanos"))),
+                properties.getProperty("id"),
+                Long.parseLong(properties.getProperty("part")));
+    }
+
+    private static void writeCheckpoint(Path tableDirectory, Checkpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("updatedAt.seconds", String.valueOf(checkpoint.updatedAt().getSeconds()));
+        properties.setProperty("updatedAt.nanos", String.valueOf(checkpoint.updatedAt().getNanos()));
+        properties.setProperty("id", checkpoint.id());
+        properties.setProperty("part", String.valueOf(checkpoint.part()));
+        Path temp = tableDirectory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            properties.store(writer, "Next export position: last exported (updatedAt, id) and next part number");
+        }
+        Files.move(temp, tableDirectory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    private interface ChangeQuery<T> {
+        List<T> find(Timestamp updatedAt, String id, int limit);
+    }
+
+    private record Table<T>(String name, ChangeQuery<T> changes, Function<T, String> id,
+                            Function<T, Timestamp> updatedAt, List<ColumnarFile.Column<T>> columns) {
+    }
+
+    private record Checkpoint(Timestamp updatedAt, String id, long part) {
+    }
+} 
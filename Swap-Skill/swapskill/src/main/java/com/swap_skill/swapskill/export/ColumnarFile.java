@@ -0,0 +1,153 @@
+package com.swap_skill.swapskill.export;
+
+import com.google.cloud.Timestamp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed columnar file written by the {@link ChangeExporter}. All values of a column are stored together,
+ * which keeps similar values adjacent and compresses far better than row-oriented JSON.
+ * <p>
+ * Layout (inside the gzip stream): magic, version, row count, column count, then per column its name, type,
+ * a null bitmap and the non-null values. Timestamps are microseconds since the epoch.
+ */
+public final class ColumnarFile {
+
+    public enum Type {
+        STRING,
+        STRING_LIST,
+        BOOLEAN,
+        DOUBLE,
+        TIMESTAMP
+    }
+
+    record Column<T>(String name, Type type, Function<T, Object> getter) {
+    }
+
+    private static final int MAGIC = 0x53534346;
+    private static final short VERSION = 1;
+
+    private ColumnarFile() {
+    }
+
+    static <T> void write(OutputStream target, List<Column<T>> columns, List<T> rows) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(rows.size());
+            out.writeShort(columns.size());
+            for (Column<T> column : columns) {
+                out.writeUTF(column.name());
+                out.writeByte(column.type().ordinal());
+                List<Object> values = new ArrayList<>(rows.size());
+                for (T row : rows) {
+                    values.add(column.getter().apply(row));
+                }
+                writeNulls(out, values);
+                for (Object value : values) {
+                    if (value != null) {
+                        writeValue(out, column.type(), value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a file back as columns by name, each holding one value (or {@code null}) per row.
+     * Timestamps are returned as {@link Timestamp}s and string lists as {@code List<String>}.
+     */
+    public static Map<String, List<Object>> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a columnar export file: " + path);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported columnar export version " + version + ": " + path);
+            }
+            int rowCount = in.readInt();
+            int columnCount = in.readShort();
+            Map<String, List<Object>> columns = new LinkedHashMap<>();
+            for (int c = 0; c < columnCount; c++) {
+                String name = in.readUTF();
+                Type type = Type.values()[in.readByte()];
+                byte[] nulls = new byte[(rowCount + 7) / 8];
+                in.readFully(nulls);
+                List<Object> values = new ArrayList<>(rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    boolean isNull = (nulls[row >> 3] & (1 << (row & 7))) != 0;
+                    values.add(isNull ? null : readValue(in, type));
+                }
+                columns.put(name, values);
+            }
+            return columns;
+        }
+    }
+
+    private static void writeNulls(DataOutputStream out, List<Object> values) throws IOException {
+        byte[] nulls = new byte[(values.size() + 7) / 8];
+        for (int row = 0; row < values.size(); row++) {
+            if (values.get(row) == null) {
+                nulls[row >> 3] |= (byte) (1 << (row & 7));
+            }
+        }
+        out.write(nulls);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(DataOutputStream out, Type type, Object value) throws IOException {
+        switch (type) {
+            case STRING -> writeString(out, value.toString());
+            case STRING_LIST -> {
+                List<String> list = (List<String>) value;
+                out.writeInt(list.size());
+                for (String item : list) {
+                    writeString(out, item);
+                }
+            }
+            case BOOLEAN -> out.writeBoolean((Boolean) value);
+            case DOUBLE -> out.writeDouble(((Number) value).doubleValue());
+            case TIMESTAMP -> {
+                Timestamp timestamp = (Timestamp) value;
+                out.writeLong(timestamp.getSeconds() * 1_000_000L + timestamp.getNanos() / 1_000);
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in, Type type) throws IOException {
+        return switch (type) {
+            case STRING -> readString(in);
+            case STRING_LIST -> {
+                int size = in.readInt();
+                List<String> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readString(in));
+                }
+                yield list;
+            }
+            case BOOLEAN -> in.readBoolean();
+            case DOUBLE -> in.readDouble();
+            case TIMESTAMP -> Timestamp.ofTimeMicroseconds(in.readLong());
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+} 
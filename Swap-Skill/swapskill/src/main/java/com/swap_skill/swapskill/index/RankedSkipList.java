@@ -0,0 +1,157 @@
+package com.swap_skill.swapskill.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list whose links record how many elements they span, so insert, remove and rank lookups
+ * run in O(log n) and a page of k elements from any rank in O(log n + k).
+ * The comparator must totally order the elements (no two distinct elements compare equal).
+ */
+public final class RankedSkipList<T> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Comparator<? super T> comparator;
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    public RankedSkipList(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public synchronized void insert(T value) {
+        Node<T>[] update = newLinks(MAX_LEVEL);
+        int[] rank = new int[MAX_LEVEL];
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node<T> node = new Node<>(value, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    public synchronized boolean remove(T value) {
+        Node<T>[] update = newLinks(MAX_LEVEL);
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || comparator.compare(x.value, value) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Zero-based rank of the value, or -1 if it is not present.
+     */
+    public synchronized int rank(T value) {
+        int rank = 0;
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && comparator.compare(x.value, value) == 0) {
+                return rank - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Up to {@code limit} values starting at the zero-based rank {@code offset}.
+     */
+    public synchronized List<T> range(int offset, int limit) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        if (offset < 0 || offset >= size || limit <= 0) {
+            return result;
+        }
+        int traversed = 0;
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= offset + 1) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        while (x != null && result.size() < limit) {
+            result.add(x.value);
+            x = x.next[0];
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        while (level < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newLinks(int level) {
+        return (Node<T>[]) new Node<?>[level];
+    }
+
+    private static final class Node<T> {
+        final T value;
+        final Node<T>[] next;
+        final int[] span;
+
+        Node(T value, int level) {
+            this.value = value;
+            this.next = newLinks(level);
+            this.span = new int[level];
+        }
+    }
+}
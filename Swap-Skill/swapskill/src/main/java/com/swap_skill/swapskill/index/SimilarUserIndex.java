@@ -0,0 +1,330 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.SimilarUserDto;
+import com.swap_skill.swapskill.dto.UserSummary;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds users with similar profiles, by Jaccard similarity of their features (skills offered or wanted, and
+ * availability), without comparing against every user.
+ * <p>
+ * Each user gets a MinHash signature of {@code bands * rows} values; two users agree on a value with probability
+ * equal to their Jaccard similarity. Signatures are split into bands, and users whose signatures agree on a whole
+ * band share a bucket (locality-sensitive hashing). Candidates are the users sharing at least one bucket with the
+ * query, re-ranked by their exact similarity. With the defaults (32 bands of 2 rows) a user with similarity 0.2
+ * is found with probability 0.74, and one with 0.4 with probability 0.99.
+ * <p>
+ * Kept up to date from {@link UserChangedEvent}s. Private profiles are never returned.
+ */
+@Component
+@Slf4j
+public class SimilarUserIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final SkillDictionary skillDictionary;
+    private final int bands;
+    private final int rows;
+    private final int maxCandidates;
+    private final long[] seeds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Profile> profiles = new HashMap<>();
+    private final List<Map<Long, Set<String>>> buckets;
+    private final Map<String, Integer> availabilityIds = new HashMap<>();
+    private final List<String> availabilityNames = new ArrayList<>();
+
+    public SimilarUserIndex(SkillDictionary skillDictionary,
+                            @Value("${similar-users.bands:32}") int bands,
+                            @Value("${similar-users.rows:2}") int rows,
+                            @Value("${similar-users.max-candidates:2000}") int maxCandidates) {
+        this.skillDictionary = skillDictionary;
+        this.bands = bands;
+        this.rows = rows;
+        this.maxCandidates = maxCandidates;
+        SplittableRandom random = new SplittableRandom(0x5EED5EEDL);
+        this.seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Profile previous = profiles.remove(event.getUserId());
+            if (previous != null) {
+                updateBuckets(previous, false);
+            }
+            if (event.isDeleted()) {
+                return;
+            }
+            User user = event.getCurrent();
+            int[] features = features(user);
+            Profile profile = new Profile(user.getId(), UserSummary.from(user), user.isPublicProfile(),
+                    features, signature(features));
+            profiles.put(user.getId(), profile);
+            updateBuckets(profile, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The public users most similar to the given user, most similar first. Users with nothing in common are
+     * never returned.
+     */
+    public List<SimilarUserDto> findSimilar(User user, int limit) {
+        lock.readLock().lock();
+        try {
+            // An indexed user's features are reused; anyone else is looked up without registering new values
+            Profile indexed = profiles.get(user.getId());
+            int[] features;
+            int unseen = 0;
+            if (indexed != null) {
+                features = indexed.features();
+            } else {
+                List<Integer> known = new ArrayList<>();
+                unseen = lookupFeatures(user, known);
+                features = known.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+            }
+            if (features.length == 0) {
+                return List.of();
+            }
+            int[] signature = indexed != null ? indexed.signature() : signature(features);
+
+            Set<String> candidates = new HashSet<>();
+            collect:
+            for (int band = 0; band < bands; band++) {
+                Set<String> bucket = buckets.get(band).get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                for (String candidate : bucket) {
+                    if (candidates.size() >= maxCandidates) {
+                        break collect;
+                    }
+                    candidates.add(candidate);
+                }
+            }
+            candidates.remove(user.getId());
+
+            PriorityQueue<Match> top = new PriorityQueue<>(Comparator.comparingDouble(Match::similarity)
+                    .thenComparing(match -> match.profile().userId(), Comparator.reverseOrder()));
+            for (String candidate : candidates) {
+                Profile profile = profiles.get(candidate);
+                if (profile == null || !profile.listed()) {
+                    continue;
+                }
+                double similarity = jaccard(features, unseen, profile.features());
+                if (similarity > 0) {
+                    top.offer(new Match(profile, similarity));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<SimilarUserDto> similar = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                similar.add(toDto(top.poll(), features));
+            }
+            Collections.reverse(similar);
+            return similar;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SimilarUserDto toDto(Match match, int[] features) {
+        List<String> sharedSkills = new ArrayList<>();
+        List<String> sharedAvailability = new ArrayList<>();
+        for (int feature : intersection(features, match.profile().features())) {
+            if (feature % 2 == 0) {
+                sharedSkills.add(skillDictionary.nameOf(feature / 2));
+            } else {
+                sharedAvailability.add(availabilityNames.get(feature / 2));
+            }
+        }
+        return SimilarUserDto.builder()
+                .user(match.profile().summary())
+                .similarity(Math.round(match.similarity() * 1000) / 1000.0)
+                .sharedSkills(sharedSkills)
+                .sharedAvailability(sharedAvailability)
+                .build();
+    }
+
+    private void updateBuckets(Profile profile, boolean add) {
+        if (profile.signature().length == 0) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            Map<Long, Set<String>> bandBuckets = buckets.get(band);
+            long key = bandKey(profile.signature(), band);
+            if (add) {
+                bandBuckets.computeIfAbsent(key, k -> new HashSet<>()).add(profile.userId());
+            } else {
+                Set<String> bucket = bandBuckets.get(key);
+                if (bucket != null && bucket.remove(profile.userId()) && bucket.isEmpty()) {
+                    bandBuckets.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted feature IDs: even numbers are skills (offered or wanted), odd numbers are availability values.
+     * Callers hold the write lock.
+     */
+    private int[] features(User user) {
+        Set<Integer> features = new HashSet<>();
+        addSkills(features, user.getSkillsOffered());
+        addSkills(features, user.getSkillsWanted());
+        if (user.getAvailability() != null) {
+            for (String availability : user.getAvailability()) {
+                if (availability != null && !availability.isBlank()) {
+                    features.add(availabilityId(availability) * 2 + 1);
+                }
+            }
+        }
+        return features.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Adds the IDs of the user's features that are already known to {@code known} and returns how many distinct
+     * features are not, without registering them. Callers hold the read lock.
+     */
+    private int lookupFeatures(User user, List<Integer> known) {
+        Set<String> unseen = new HashSet<>();
+        for (List<String> skills : Arrays.asList(user.getSkillsOffered(), user.getSkillsWanted())) {
+            if (skills != null) {
+                for (String skill : skills) {
+                    if (skill != null && !skill.isBlank()) {
+                        int id = skillDictionary.find(skill);
+                        if (id != SkillDictionary.UNKNOWN) {
+                            known.add(id * 2);
+                        } else {
+                            unseen.add("s:" + skill.trim().toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+        }
+        if (user.getAvailability() != null) {
+            for (String availability : user.getAvailability()) {
+                if (availability != null && !availability.isBlank()) {
+                    String key = availability.trim().toLowerCase(Locale.ROOT);
+                    Integer id = availabilityIds.get(key);
+                    if (id != null) {
+                        known.add(id * 2 + 1);
+                    } else {
+                        unseen.add("a:" + key);
+                    }
+                }
+            }
+        }
+        return unseen.size();
+    }
+
+    private void addSkills(Set<Integer> features, List<String> skills) {
+        if (skills != null) {
+            for (String skill : skills) {
+                if (skill != null && !skill.isBlank()) {
+                    features.add(skillDictionary.idOf(skill) * 2);
+                }
+            }
+        }
+    }
+
+    private int availabilityId(String availability) {
+        String key = availability.trim().toLowerCase(Locale.ROOT);
+        Integer id = availabilityIds.get(key);
+        if (id == null) {
+            id = availabilityNames.size();
+            availabilityIds.put(key, id);
+            availabilityNames.add(availability.trim());
+        }
+        return id;
+    }
+
+    /**
+     * For each hash function, the smallest hash of any feature.
+     */
+    private int[] signature(int[] features) {
+        if (features.length == 0) {
+            return NONE;
+        }
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int feature : features) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) (mix(feature ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = 0xcbf29ce484222325L;
+        for (int row = band * rows; row < (band + 1) * rows; row++) {
+            key = (key ^ signature[row]) * 0x100000001b3L;
+        }
+        return key;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Jaccard similarity of two feature sets, where {@code a} also has {@code unseenA} features no one else has.
+     */
+    private static double jaccard(int[] a, int unseenA, int[] b) {
+        int shared = intersection(a, b).length;
+        return (double) shared / (a.length + unseenA + b.length - shared);
+    }
+
+    private static int[] intersection(int[] a, int[] b) {
+        int[] shared = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared[count++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(shared, count);
+    }
+
+    private record Profile(String userId, UserSummary summary, boolean listed, int[] features, int[] signature) {
+    }
+
+    private record Match(Profile profile, double similarity) {
+    }
+} 
\ No newline at end of file
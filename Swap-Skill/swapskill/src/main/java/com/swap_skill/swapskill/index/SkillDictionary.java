@@ -0,0 +1,278 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.SkillSuggestionDto;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical skill names with compact int IDs.
+ * Skills are matched case- and whitespace-insensitively, synonyms resolve to their target,
+ * and the first spelling registered for a skill becomes its display name. Other spellings are remembered only
+ * when read back from Firestore (replayed users and the user snapshot), up to {@link #MAX_SPELLINGS} per skill,
+ * so request input can never grow or crowd out the set.
+ * A prefix trie with per-skill popularity (number of users listing the skill) serves autocomplete.
+ */
+@Component
+@Slf4j
+public class SkillDictionary {
+
+    public static final int UNKNOWN = -1;
+
+    /** Firestore accepts at most 30 values in an {@code array-contains-any} filter. */
+    public static final int MAX_SPELLINGS = 30;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, String> synonyms = new HashMap<>();
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<String>> spellings = new ConcurrentHashMap<>();
+    private final ReadWriteLock trieLock = new ReentrantReadWriteLock();
+    private final TrieNode root = new TrieNode();
+
+    private volatile String[] names = new String[256];
+    private int[] popularity = new int[256];
+    private int size;
+
+    public SkillDictionary(@Value("#{${skills.synonyms:{:}}}") Map<String, String> synonyms) {
+        synonyms.forEach((alias, target) -> this.synonyms.put(key(clean(alias)), clean(target)));
+    }
+
+    /**
+     * Resolves a skill without registering it: known skills map to their display name, unknown skills are only
+     * cleaned up.
+     */
+    public String resolve(String skill) {
+        if (skill == null || skill.isBlank()) {
+            return skill;
+        }
+        String cleaned = clean(skill);
+        String display = synonyms.getOrDefault(key(cleaned), cleaned);
+        Integer id = ids.get(key(display));
+        return id != null ? names[id] : display;
+    }
+
+    /**
+     * Resolves each skill like {@link #resolve(String)}, dropping blanks and duplicates.
+     */
+    public List<String> resolve(List<String> skills) {
+        if (skills == null) {
+            return null;
+        }
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String skill : skills) {
+            if (skill != null && !skill.isBlank()) {
+                resolved.add(resolve(skill));
+            }
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * Returns the spellings a skill may be stored under: its canonical name, the given spelling,
+     * and every other spelling registered for it (e.g. from users saved before skills were normalized).
+     */
+    public List<String> spellingsOf(String skill) {
+        if (skill == null || skill.isBlank()) {
+            return List.of();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        result.add(resolve(skill));
+        result.add(skill);
+        int id = find(skill);
+        Set<String> known = id != UNKNOWN ? spellings.get(id) : null;
+        if (known != null) {
+            synchronized (known) {
+                for (String spelling : known) {
+                    if (result.size() == MAX_SPELLINGS) {
+                        break;
+                    }
+                    result.add(spelling);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Registers a skill as stored in Firestore and remembers its spelling if it differs from the display name.
+     * Only for data read back from Firestore.
+     */
+    public int idOfStored(String skill) {
+        int id = idOf(skill);
+        if (!skill.equals(names[id])) {
+            Set<String> known = spellings.computeIfAbsent(id, k -> new LinkedHashSet<>());
+            synchronized (known) {
+                if (known.size() < MAX_SPELLINGS) {
+                    known.add(skill);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID of a skill, registering it if it has not been seen before.
+     */
+    public int idOf(String skill) {
+        String cleaned = clean(skill);
+        String display = synonyms.getOrDefault(key(cleaned), cleaned);
+        String key = key(display);
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        trieLock.writeLock().lock();
+        try {
+            id = ids.get(key);
+            if (id == null) {
+                id = register(key, display);
+            }
+            return id;
+        } finally {
+            trieLock.writeLock().unlock();
+        }
+    }
+
+    public int find(String skill) {
+        if (skill == null || skill.isBlank()) {
+            return UNKNOWN;
+        }
+        String cleaned = clean(skill);
+        Integer id = ids.get(key(synonyms.getOrDefault(key(cleaned), cleaned)));
+        return id != null ? id : UNKNOWN;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public int popularityOf(int id) {
+        trieLock.readLock().lock();
+        try {
+            return id < size ? popularity[id] : 0;
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    public List<SkillSuggestionDto> autocomplete(String prefix, int limit) {
+        String key = prefix == null ? "" : key(clean(prefix));
+        PriorityQueue<Integer> top = new PriorityQueue<>(Comparator
+                .comparingInt((Integer id) -> popularity[id])
+                .thenComparing((Integer id) -> names[id], Comparator.reverseOrder()));
+        trieLock.readLock().lock();
+        try {
+            TrieNode node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            Deque<TrieNode> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty()) {
+                TrieNode current = stack.pop();
+                if (current.skillId != UNKNOWN && popularity[current.skillId] > 0) {
+                    top.offer(current.skillId);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+                current.children.values().forEach(stack::push);
+            }
+            List<SkillSuggestionDto> suggestions = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int id = top.poll();
+                suggestions.add(new SkillSuggestionDto(names[id], popularity[id]));
+            }
+            Collections.reverse(suggestions);
+            return suggestions;
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Set<Integer> before = skillIds(event.getPrevious(), false);
+        Set<Integer> after = skillIds(event.getCurrent(), event.isReplay());
+        trieLock.writeLock().lock();
+        try {
+            for (int id : before) {
+                if (!after.contains(id)) {
+                    popularity[id]--;
+                }
+            }
+            for (int id : after) {
+                if (!before.contains(id)) {
+                    popularity[id]++;
+                }
+            }
+        } finally {
+            trieLock.writeLock().unlock();
+        }
+    }
+
+    private Set<Integer> skillIds(User user, boolean stored) {
+        if (user == null) {
+            return Set.of();
+        }
+        Set<Integer> skillIds = new HashSet<>();
+        for (List<String> skills : Arrays.asList(user.getSkillsOffered(), user.getSkillsWanted())) {
+            if (skills != null) {
+                for (String skill : skills) {
+                    if (skill != null && !skill.isBlank()) {
+                        skillIds.add(stored ? idOfStored(skill) : idOf(skill));
+                    }
+                }
+            }
+        }
+        return skillIds;
+    }
+
+    private int register(String key, String display) {
+        int id = size;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+            popularity = Arrays.copyOf(popularity, id * 2);
+        }
+        names[id] = display;
+        size++;
+
+        TrieNode node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new TrieNode());
+        }
+        node.skillId = id;
+        ids.put(key, id);
+        return id;
+    }
+
+    private static String clean(String skill) {
+        return WHITESPACE.matcher(skill.trim()).replaceAll(" ");
+    }
+
+    private static String key(String cleaned) {
+        return cleaned.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        int skillId = UNKNOWN;
+    }
+}
@@ -0,0 +1,105 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.LeaderboardEntryDto;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-skill ranking of public users offering the skill, ordered by rating (highest first) then user ID.
+ * Kept up to date from {@link UserChangedEvent}s.
+ */
+@Component
+public class SkillLeaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::rating).reversed()
+            .thenComparing(Entry::userId);
+
+    private final SkillDictionary skillDictionary;
+    private final Map<Integer, RankedSkipList<Entry>> boards = new ConcurrentHashMap<>();
+    private final Map<String, Listing> listings = new HashMap<>();
+
+    public SkillLeaderboard(SkillDictionary skillDictionary) {
+        this.skillDictionary = skillDictionary;
+    }
+
+    @EventListener
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        String userId = event.getUserId();
+        User user = event.getCurrent();
+        Listing next = user == null || !user.isPublicProfile() ? null : new Listing(
+                new Entry(user.getRating() == null ? 0.0 : user.getRating(), userId, user.getName()),
+                skillIds(user.getSkillsOffered()));
+        Listing previous = next == null ? listings.remove(userId) : listings.put(userId, next);
+        if (previous != null) {
+            for (int skill : previous.skills()) {
+                board(skill).remove(previous.entry());
+            }
+        }
+        if (next != null) {
+            for (int skill : next.skills()) {
+                board(skill).insert(next.entry());
+            }
+        }
+    }
+
+    public List<LeaderboardEntryDto> top(String skill, int offset, int limit) {
+        int skillId = skillDictionary.find(skill);
+        RankedSkipList<Entry> board = skillId == SkillDictionary.UNKNOWN ? null : boards.get(skillId);
+        if (board == null) {
+            return List.of();
+        }
+        List<Entry> entries = board.range(offset, limit);
+        List<LeaderboardEntryDto> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(entries.get(i).toDto(offset + i + 1));
+        }
+        return result;
+    }
+
+    /**
+     * The user's one-based position on the skill's leaderboard, or empty if they are not listed.
+     */
+    public Optional<LeaderboardEntryDto> rankOf(String skill, String userId) {
+        int skillId = skillDictionary.find(skill);
+        RankedSkipList<Entry> board = skillId == SkillDictionary.UNKNOWN ? null : boards.get(skillId);
+        Listing listing;
+        synchronized (this) {
+            listing = listings.get(userId);
+        }
+        if (board == null || listing == null) {
+            return Optional.empty();
+        }
+        int rank = board.rank(listing.entry());
+        return rank < 0 ? Optional.empty() : Optional.of(listing.entry().toDto(rank + 1));
+    }
+
+    private RankedSkipList<Entry> board(int skill) {
+        return boards.computeIfAbsent(skill, id -> new RankedSkipList<>(ORDER));
+    }
+
+    private int[] skillIds(List<String> skills) {
+        if (skills == null) {
+            return new int[0];
+        }
+        return skills.stream()
+                .filter(skill -> skill != null && !skill.isBlank())
+                .mapToInt(skillDictionary::idOf)
+                .distinct()
+                .toArray();
+    }
+
+    private record Entry(double rating, String userId, String name) {
+        LeaderboardEntryDto toDto(int rank) {
+            return new LeaderboardEntryDto(rank, userId, name, rating);
+        }
+    }
+
+    private record Listing(Entry entry, int[] skills) {
+    }
+}
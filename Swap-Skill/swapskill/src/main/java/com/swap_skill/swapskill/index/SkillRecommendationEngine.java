@@ -0,0 +1,433 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.RecommendationDto;
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.repository.SwapRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains a sparse skill-to-skill co-occurrence matrix ("people who learned X also learned Y")
+ * and per-skill teacher statistics from COMPLETED swaps.
+ * Updated incrementally as swaps complete and rebuilt periodically on the fork/join pool.
+ * User IDs are interned to ints so the model is held in primitive-keyed structures;
+ * precomputed results are kept in an LRU cache of at most {@code recommendations.cache-size} users.
+ * Private and deleted users are never suggested as teachers.
+ */
+@Component
+@Slf4j
+public class SkillRecommendationEngine {
+
+    private static final int[] NO_SKILLS = new int[0];
+    private static final double PRIOR_RATING = 3.0;
+    private static final double PRIOR_WEIGHT = 2.0;
+    private static final int PAIR_TASK_THRESHOLD = 512;
+
+    private final SwapRequestRepository swapRequestRepository;
+    private final SkillDictionary skillDictionary;
+    private final int topK;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, CachedRecommendations> cache;
+    private final List<SwapRequest> appliedDuringRecompute = new ArrayList<>();
+    private final Set<String> hiddenUsers = ConcurrentHashMap.newKeySet();
+
+    private State state;
+    private boolean recomputing;
+
+    public SkillRecommendationEngine(SwapRequestRepository swapRequestRepository, SkillDictionary skillDictionary,
+                                     @Value("${recommendations.top-k:10}") int topK,
+                                     @Value("${recommendations.cache-size:10000}") int cacheSize) {
+        this.swapRequestRepository = swapRequestRepository;
+        this.skillDictionary = skillDictionary;
+        this.topK = topK;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRecommendations> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.state = new State(skillDictionary);
+    }
+
+    @EventListener
+    public void onSwapRequestChanged(SwapRequestChangedEvent event) {
+        SwapRequest swapRequest = event.getSwapRequest();
+        if (event.isDeleted() || swapRequest.getStatus() != SwapRequest.SwapStatus.COMPLETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state.apply(swapRequest, true);
+            if (recomputing) {
+                appliedDuringRecompute.add(swapRequest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        refresh(swapRequest.getFromUserId());
+        refresh(swapRequest.getToUserId());
+    }
+
+    /**
+     * Returns the precomputed recommendations for the user, computing them on first access.
+     */
+    public RecommendationDto recommend(String userId, List<String> skillsWanted) {
+        List<String> wanted = skillsWanted == null ? List.of() : List.copyOf(skillsWanted);
+        CachedRecommendations cached = cache.get(userId);
+        if (cached != null && cached.skillsWanted.equals(wanted)) {
+            return cached.recommendations;
+        }
+        RecommendationDto recommendations = compute(userId, wanted);
+        cache.put(userId, new CachedRecommendations(wanted, recommendations));
+        return recommendations;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            cache.remove(event.getUserId());
+        }
+        if (event.isDeleted() || !event.getCurrent().isPublicProfile()) {
+            if (hiddenUsers.add(event.getUserId()) && !event.isReplay()) {
+                // Cached recommendations may still suggest the user as a teacher
+                cache.clear();
+            }
+        } else {
+            hiddenUsers.remove(event.getUserId());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.initial-delay-ms:10000}",
+            fixedDelayString = "${recommendations.recompute-interval-ms:3600000}")
+    public void recompute() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            recomputing = true;
+            appliedDuringRecompute.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<SwapRequest> completed = swapRequestRepository.findByStatus(SwapRequest.SwapStatus.COMPLETED);
+            State fresh = new State(skillDictionary);
+            for (SwapRequest swapRequest : completed) {
+                fresh.apply(swapRequest, false);
+            }
+            fresh.cooccurrence = ForkJoinPool.commonPool()
+                    .invoke(new PairCountTask(fresh.learned, 0, fresh.learned.size(), skillDictionary.size()));
+
+            lock.writeLock().lock();
+            try {
+                for (SwapRequest swapRequest : appliedDuringRecompute) {
+                    fresh.apply(swapRequest, true);
+                }
+                state = fresh;
+            } finally {
+                recomputing = false;
+                appliedDuringRecompute.clear();
+                lock.writeLock().unlock();
+            }
+
+            List<String> cachedUsers;
+            synchronized (cache) {
+                cachedUsers = new ArrayList<>(cache.keySet());
+            }
+            ForkJoinPool.commonPool().submit(() -> cachedUsers.parallelStream().forEach(this::refresh)).join();
+            log.info("Recommendation model rebuilt from {} completed swaps in {} ms",
+                    completed.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                recomputing = false;
+                appliedDuringRecompute.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to rebuild recommendation model: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(String userId) {
+        CachedRecommendations cached = cache.get(userId);
+        if (cached != null) {
+            // replace, not put, so users evicted while computing are not re-added
+            cache.replace(userId, cached,
+                    new CachedRecommendations(cached.skillsWanted, compute(userId, cached.skillsWanted)));
+        }
+    }
+
+    private RecommendationDto compute(String userId, List<String> skillsWanted) {
+        lock.readLock().lock();
+        try {
+            State st = state;
+            int user = st.userIds.getOrDefault(userId, -1);
+            int[] learned = st.learnedBy(user);
+            BitSet exclude = new BitSet();
+            IntIntHashMap scores = new IntIntHashMap();
+            for (int skill : learned) {
+                exclude.set(skill);
+                st.addRow(skill, scores);
+            }
+            int[] wantedIds = new int[skillsWanted.size()];
+            int wantedCount = 0;
+            for (String skill : skillsWanted) {
+                int id = skillDictionary.find(skill);
+                if (id != SkillDictionary.UNKNOWN && !exclude.get(id)) {
+                    exclude.set(id);
+                    wantedIds[wantedCount++] = id;
+                    st.addRow(id, scores);
+                }
+            }
+
+            PriorityQueue<RecommendationDto.SkillRecommendation> topSkills =
+                    new PriorityQueue<>(Comparator.comparingInt(RecommendationDto.SkillRecommendation::getScore));
+            scores.forEach((skill, score) -> {
+                if (!exclude.get(skill)) {
+                    offer(topSkills, new RecommendationDto.SkillRecommendation(skillDictionary.nameOf(skill), score));
+                }
+            });
+
+            PriorityQueue<RecommendationDto.TeacherRecommendation> topTeachers =
+                    new PriorityQueue<>(Comparator.comparingDouble(RecommendationDto.TeacherRecommendation::getScore));
+            for (int i = 0; i < wantedCount; i++) {
+                int skill = wantedIds[i];
+                IntIntHashMap teachers = skill < st.teachers.size() ? st.teachers.get(skill) : null;
+                if (teachers == null) {
+                    continue;
+                }
+                teachers.forEach((teacher, slot) -> {
+                    if (teacher != user && !hiddenUsers.contains(st.userNames.get(teacher))) {
+                        offer(topTeachers, st.teacherStats.get(slot - 1)
+                                .toRecommendation(st.userNames.get(teacher), skillDictionary.nameOf(skill)));
+                    }
+                });
+            }
+
+            return RecommendationDto.builder()
+                    .userId(userId)
+                    .skills(drainDescending(topSkills))
+                    .teachers(drainDescending(topTeachers))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> void offer(PriorityQueue<T> heap, T candidate) {
+        heap.offer(candidate);
+        if (heap.size() > topK) {
+            heap.poll();
+        }
+    }
+
+    private static <T> List<T> drainDescending(PriorityQueue<T> heap) {
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static final class State {
+        final SkillDictionary skillDictionary;
+        final Map<String, Integer> userIds = new HashMap<>();
+        final List<String> userNames = new ArrayList<>();
+        final List<int[]> learned = new ArrayList<>();
+        /** Per skill: teacher user int ID to 1-based slot in {@link #teacherStats}. */
+        final List<IntIntHashMap> teachers = new ArrayList<>();
+        final List<TeacherStats> teacherStats = new ArrayList<>();
+        final Set<String> appliedSwaps = new HashSet<>();
+        final Map<String, Double> ratings = new HashMap<>();
+        List<IntIntHashMap> cooccurrence = new ArrayList<>();
+
+        State(SkillDictionary skillDictionary) {
+            this.skillDictionary = skillDictionary;
+        }
+
+        /**
+         * Applies a completed swap. Idempotent per swap ID, so replays after a rebuild are harmless.
+         */
+        void apply(SwapRequest swapRequest, boolean countPairs) {
+            int offered = skillDictionary.idOf(swapRequest.getSkillOffered());
+            int wanted = skillDictionary.idOf(swapRequest.getSkillWanted());
+            int from = intern(swapRequest.getFromUserId());
+            int to = intern(swapRequest.getToUserId());
+            if (appliedSwaps.add(swapRequest.getId())) {
+                learn(from, wanted, countPairs);
+                learn(to, offered, countPairs);
+                teacher(wanted, to).swaps++;
+                teacher(offered, from).swaps++;
+            }
+            Double rating = swapRequest.getRating();
+            Double previous = ratings.get(swapRequest.getId());
+            if (rating != null && !rating.equals(previous)) {
+                // The rating is for the receiver, who taught the skill the sender asked for
+                teacher(wanted, to).rate(rating, previous);
+                ratings.put(swapRequest.getId(), rating);
+            }
+        }
+
+        int[] learnedBy(int user) {
+            return user >= 0 ? learned.get(user) : NO_SKILLS;
+        }
+
+        void addRow(int skill, IntIntHashMap target) {
+            IntIntHashMap row = skill < cooccurrence.size() ? cooccurrence.get(skill) : null;
+            if (row != null) {
+                target.addAll(row);
+            }
+        }
+
+        IntIntHashMap row(int skill) {
+            while (cooccurrence.size() <= skill) {
+                cooccurrence.add(null);
+            }
+            IntIntHashMap row = cooccurrence.get(skill);
+            if (row == null) {
+                row = new IntIntHashMap();
+                cooccurrence.set(skill, row);
+            }
+            return row;
+        }
+
+        private int intern(String userId) {
+            Integer existing = userIds.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            int user = userNames.size();
+            userIds.put(userId, user);
+            userNames.add(userId);
+            learned.add(NO_SKILLS);
+            return user;
+        }
+
+        private void learn(int user, int skill, boolean countPairs) {
+            int[] current = learned.get(user);
+            for (int known : current) {
+                if (known == skill) {
+                    return;
+                }
+            }
+            if (countPairs) {
+                for (int known : current) {
+                    row(known).addTo(skill, 1);
+                    row(skill).addTo(known, 1);
+                }
+            }
+            int[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = skill;
+            learned.set(user, next);
+        }
+
+        private TeacherStats teacher(int skill, int teacher) {
+            while (teachers.size() <= skill) {
+                teachers.add(new IntIntHashMap());
+            }
+            IntIntHashMap slots = teachers.get(skill);
+            int slot = slots.get(teacher);
+            if (slot == 0) {
+                teacherStats.add(new TeacherStats());
+                slot = teacherStats.size();
+                slots.addTo(teacher, slot);
+            }
+            return teacherStats.get(slot - 1);
+        }
+    }
+
+    private static final class TeacherStats {
+        int swaps;
+        int ratingCount;
+        double ratingSum;
+
+        void rate(double rating, Double previous) {
+            if (previous == null) {
+                ratingCount++;
+                ratingSum += rating;
+            } else {
+                ratingSum += rating - previous;
+            }
+        }
+
+        RecommendationDto.TeacherRecommendation toRecommendation(String teacherId, String skill) {
+            Double average = ratingCount == 0 ? null : ratingSum / ratingCount;
+            double smoothed = (ratingSum + PRIOR_RATING * PRIOR_WEIGHT) / (ratingCount + PRIOR_WEIGHT);
+            return new RecommendationDto.TeacherRecommendation(teacherId, skill, swaps, average,
+                    smoothed * Math.log1p(swaps));
+        }
+    }
+
+    private record CachedRecommendations(List<String> skillsWanted, RecommendationDto recommendations) {
+    }
+
+    /**
+     * Counts skill pairs over a slice of per-user learned sets, merging partial matrices on join.
+     */
+    private static final class PairCountTask extends RecursiveTask<List<IntIntHashMap>> {
+        private final List<int[]> learnedSets;
+        private final int from;
+        private final int to;
+        private final int skillCount;
+
+        PairCountTask(List<int[]> learnedSets, int from, int to, int skillCount) {
+            this.learnedSets = learnedSets;
+            this.from = from;
+            this.to = to;
+            this.skillCount = skillCount;
+        }
+
+        @Override
+        protected List<IntIntHashMap> compute() {
+            if (to - from <= PAIR_TASK_THRESHOLD) {
+                List<IntIntHashMap> rows = new ArrayList<>(Collections.nCopies(skillCount, (IntIntHashMap) null));
+                for (int i = from; i < to; i++) {
+                    int[] skills = learnedSets.get(i);
+                    for (int a : skills) {
+                        for (int b : skills) {
+                            if (a != b) {
+                                IntIntHashMap row = rows.get(a);
+                                if (row == null) {
+                                    row = new IntIntHashMap();
+                                    rows.set(a, row);
+                                }
+                                row.addTo(b, 1);
+                            }
+                        }
+                    }
+                }
+                return rows;
+            }
+            int mid = (from + to) >>> 1;
+            PairCountTask left = new PairCountTask(learnedSets, from, mid, skillCount);
+            left.fork();
+            List<IntIntHashMap> right = new PairCountTask(learnedSets, mid, to, skillCount).compute();
+            List<IntIntHashMap> merged = left.join();
+            for (int skill = 0; skill < skillCount; skill++) {
+                IntIntHashMap row = right.get(skill);
+                if (row == null) {
+                    continue;
+                }
+                if (merged.get(skill) == null) {
+                    merged.set(skill, row);
+                } else {
+                    merged.get(skill).addAll(row);
+                }
+            }
+            return merged;
+        }
+    }
+}
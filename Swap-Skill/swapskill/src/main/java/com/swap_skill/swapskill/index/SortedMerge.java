@@ -0,0 +1,44 @@
+package com.swap_skill.swapskill.index;
+
+import java.util.*;
+
+/**
+ * Lazily merges iterators that are each sorted in the same order into one sorted iterator (a k-way merge).
+ * Only the current head of each source is held, and a source is advanced only when its head is taken,
+ * so paging sources fetch no more than the caller consumes.
+ */
+public class SortedMerge<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+
+    public SortedMerge(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.value(), b.value()));
+        for (Iterator<? extends T> source : sources) {
+            advance(source);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        advance(head.source());
+        return head.value();
+    }
+
+    private void advance(Iterator<? extends T> source) {
+        if (source.hasNext()) {
+            heads.add(new Head<>(source.next(), source));
+        }
+    }
+
+    private record Head<T>(T value, Iterator<? extends T> source) {
+    }
+} 
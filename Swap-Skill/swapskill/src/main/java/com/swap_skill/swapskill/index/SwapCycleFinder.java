@@ -0,0 +1,356 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.SwapCycleDto;
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Directed "can teach" graph over users: an edge u -> v exists when u offers a skill v wants,
+ * or when an open swap request has u teaching v. Finds multi-party swap rings through a user
+ * by meeting forward and backward searches in the middle.
+ */
+@Component
+@Slf4j
+public class SwapCycleFinder {
+
+    public static final int MIN_CYCLE_LENGTH = 3;
+    public static final int MAX_CYCLE_LENGTH = 4;
+
+    private static final int[] NONE = new int[0];
+    private static final EnumSet<SwapRequest.SwapStatus> OPEN =
+            EnumSet.of(SwapRequest.SwapStatus.PENDING, SwapRequest.SwapStatus.ACCEPTED);
+
+    private final SkillDictionary skillDictionary;
+    private final int maxFanout;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> userIds = new HashMap<>();
+    private String[] userNames = new String[1024];
+    private int[][] offered = new int[1024][];
+    private int[][] wanted = new int[1024][];
+    private boolean[] listed = new boolean[1024];
+    private int[][] offeredBy = new int[256][];
+    private int[][] wantedBy = new int[256][];
+
+    private final Map<Long, Integer> swapEdgeCounts = new HashMap<>();
+    private final Map<Long, Integer> swapEdgeSkills = new HashMap<>();
+    private final Map<Integer, Set<Integer>> swapEdgesOut = new HashMap<>();
+    private final Map<Integer, Set<Integer>> swapEdgesIn = new HashMap<>();
+
+    public SwapCycleFinder(SkillDictionary skillDictionary,
+                           @Value("${swap-cycles.max-fanout:256}") int maxFanout) {
+        this.skillDictionary = skillDictionary;
+        this.maxFanout = maxFanout;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                Integer node = userIds.get(event.getUserId());
+                if (node != null) {
+                    setSkills(node, NONE, NONE);
+                    listed[node] = false;
+                }
+                return;
+            }
+            User user = event.getCurrent();
+            int node = node(user.getId());
+            setSkills(node, skillIds(user.getSkillsOffered()), skillIds(user.getSkillsWanted()));
+            listed[node] = user.isPublicProfile();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onSwapRequestChanged(SwapRequestChangedEvent event) {
+        SwapRequest swapRequest = event.getSwapRequest();
+        boolean wasOpen = event.getPreviousStatus() != null && OPEN.contains(event.getPreviousStatus());
+        boolean isOpen = !event.isDeleted() && OPEN.contains(swapRequest.getStatus());
+        if (wasOpen == isOpen) {
+            return;
+        }
+        int delta = isOpen ? 1 : -1;
+        lock.writeLock().lock();
+        try {
+            int from = node(swapRequest.getFromUserId());
+            int to = node(swapRequest.getToUserId());
+            adjustSwapEdge(to, from, skillDictionary.idOf(swapRequest.getSkillWanted()), delta);
+            adjustSwapEdge(from, to, skillDictionary.idOf(swapRequest.getSkillOffered()), delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds swap rings of {@value #MIN_CYCLE_LENGTH} to {@code maxLength} users that start and end at the user,
+     * shortest first. Each user in a ring teaches the next one. Enumeration stops once {@code limit} rings are found,
+     * and 4-user rings are only searched when there are fewer 3-user rings than that.
+     */
+    public List<SwapCycleDto> findCycles(String userId, int maxLength, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer start = userIds.get(userId);
+            if (start == null) {
+                return List.of();
+            }
+            int s = start;
+
+            int[] firstHop = neighbors(s, true);
+            Set<Integer> lastHop = new HashSet<>();
+            for (int c : neighbors(s, false)) {
+                lastHop.add(c);
+            }
+
+            // Shortest first: all 3-user rings come before any 4-user ring, so stop as soon as limit are found
+            List<int[]> cycles = new ArrayList<>(Math.min(limit, 64));
+            int[][] secondHop = new int[firstHop.length][];
+            for (int i = 0; i < firstHop.length; i++) {
+                int a = firstHop[i];
+                secondHop[i] = neighbors(a, true);
+                for (int b : secondHop[i]) {
+                    if (cycles.size() == limit) {
+                        return toDtos(cycles);
+                    }
+                    if (b != s && lastHop.contains(b)) {
+                        cycles.add(new int[]{s, a, b});
+                    }
+                }
+            }
+            if (maxLength < 4 || cycles.size() == limit) {
+                return toDtos(cycles);
+            }
+
+            Map<Integer, List<Integer>> secondToLastHop = new HashMap<>();
+            for (int c : lastHop) {
+                for (int b : neighbors(c, false)) {
+                    if (b != s) {
+                        secondToLastHop.computeIfAbsent(b, k -> new ArrayList<>()).add(c);
+                    }
+                }
+            }
+            for (int i = 0; i < firstHop.length; i++) {
+                int a = firstHop[i];
+                for (int b : secondHop[i]) {
+                    if (b == s) {
+                        continue;
+                    }
+                    for (int c : secondToLastHop.getOrDefault(b, List.of())) {
+                        if (cycles.size() == limit) {
+                            return toDtos(cycles);
+                        }
+                        if (c != a) {
+                            cycles.add(new int[]{s, a, b, c});
+                        }
+                    }
+                }
+            }
+            return toDtos(cycles);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SwapCycleDto> toDtos(List<int[]> cycles) {
+        List<SwapCycleDto> result = new ArrayList<>(cycles.size());
+        for (int[] cycle : cycles) {
+            result.add(toDto(cycle));
+        }
+        return result;
+    }
+
+    /**
+     * Users this node can teach ({@code outgoing}) or learn from, capped at the configured fan-out.
+     * Unlisted (private) users are pruned.
+     */
+    private int[] neighbors(int node, boolean outgoing) {
+        int[] skills = outgoing ? offered[node] : wanted[node];
+        int[][] postings = outgoing ? wantedBy : offeredBy;
+        Set<Integer> result = new LinkedHashSet<>();
+        Set<Integer> swapEdges = (outgoing ? swapEdgesOut : swapEdgesIn).getOrDefault(node, Set.of());
+        for (int other : swapEdges) {
+            if (other != node && listed[other] && result.size() < maxFanout) {
+                result.add(other);
+            }
+        }
+        if (skills != null) {
+            for (int skill : skills) {
+                int[] users = skill < postings.length && postings[skill] != null ? postings[skill] : NONE;
+                for (int other : users) {
+                    if (result.size() >= maxFanout) {
+                        return toArray(result);
+                    }
+                    if (other != node && listed[other]) {
+                        result.add(other);
+                    }
+                }
+            }
+        }
+        return toArray(result);
+    }
+
+    private SwapCycleDto toDto(int[] cycle) {
+        List<String> ids = new ArrayList<>(cycle.length);
+        List<SwapCycleDto.Step> steps = new ArrayList<>(cycle.length);
+        for (int i = 0; i < cycle.length; i++) {
+            int from = cycle[i];
+            int to = cycle[(i + 1) % cycle.length];
+            ids.add(userNames[from]);
+            steps.add(new SwapCycleDto.Step(userNames[from], userNames[to], teachableSkill(from, to)));
+        }
+        return SwapCycleDto.builder().userIds(ids).steps(steps).build();
+    }
+
+    private String teachableSkill(int from, int to) {
+        int[] canTeach = offered[from] != null ? offered[from] : NONE;
+        int[] wants = wanted[to] != null ? wanted[to] : NONE;
+        int i = 0;
+        int j = 0;
+        while (i < canTeach.length && j < wants.length) {
+            if (canTeach[i] == wants[j]) {
+                return skillDictionary.nameOf(canTeach[i]);
+            }
+            if (canTeach[i] < wants[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        Integer skill = swapEdgeSkills.get(edgeKey(from, to));
+        return skill != null ? skillDictionary.nameOf(skill) : null;
+    }
+
+    private int node(String userId) {
+        Integer node = userIds.get(userId);
+        if (node != null) {
+            return node;
+        }
+        int id = userIds.size();
+        if (id == userNames.length) {
+            int capacity = id * 2;
+            userNames = Arrays.copyOf(userNames, capacity);
+            offered = Arrays.copyOf(offered, capacity);
+            wanted = Arrays.copyOf(wanted, capacity);
+            listed = Arrays.copyOf(listed, capacity);
+        }
+        userIds.put(userId, id);
+        userNames[id] = userId;
+        return id;
+    }
+
+    private void setSkills(int node, int[] newOffered, int[] newWanted) {
+        updatePostings(node, offered[node], newOffered, true);
+        updatePostings(node, wanted[node], newWanted, false);
+        offered[node] = newOffered;
+        wanted[node] = newWanted;
+    }
+
+    private void updatePostings(int node, int[] before, int[] after, boolean offering) {
+        for (int skill : before != null ? before : NONE) {
+            if (Arrays.binarySearch(after, skill) < 0) {
+                int[][] postings = offering ? offeredBy : wantedBy;
+                postings[skill] = remove(postings[skill], node);
+            }
+        }
+        for (int skill : after) {
+            if (before == null || Arrays.binarySearch(before, skill) < 0) {
+                ensureSkillCapacity(skill);
+                int[][] postings = offering ? offeredBy : wantedBy;
+                postings[skill] = insert(postings[skill], node);
+            }
+        }
+    }
+
+    private void ensureSkillCapacity(int skill) {
+        if (skill >= offeredBy.length) {
+            int capacity = Math.max(skill + 1, offeredBy.length * 2);
+            offeredBy = Arrays.copyOf(offeredBy, capacity);
+            wantedBy = Arrays.copyOf(wantedBy, capacity);
+        }
+    }
+
+    private void adjustSwapEdge(int teacher, int learner, int skill, int delta) {
+        long key = edgeKey(teacher, learner);
+        int count = swapEdgeCounts.getOrDefault(key, 0) + delta;
+        if (count > 0) {
+            swapEdgeCounts.put(key, count);
+            swapEdgeSkills.put(key, skill);
+            swapEdgesOut.computeIfAbsent(teacher, k -> new HashSet<>()).add(learner);
+            swapEdgesIn.computeIfAbsent(learner, k -> new HashSet<>()).add(teacher);
+        } else {
+            swapEdgeCounts.remove(key);
+            swapEdgeSkills.remove(key);
+            removeEdge(swapEdgesOut, teacher, learner);
+            removeEdge(swapEdgesIn, learner, teacher);
+        }
+    }
+
+    private int[] skillIds(List<String> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return NONE;
+        }
+        return skills.stream()
+                .filter(skill -> skill != null && !skill.isBlank())
+                .mapToInt(skillDictionary::idOf)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static void removeEdge(Map<Integer, Set<Integer>> edges, int from, int to) {
+        Set<Integer> targets = edges.get(from);
+        if (targets != null && targets.remove(to) && targets.isEmpty()) {
+            edges.remove(from);
+        }
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private static int[] insert(int[] sorted, int value) {
+        if (sorted == null) {
+            return new int[]{value};
+        }
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+        int at = -index - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(sorted, at, result, at + 1, sorted.length - at);
+        return result;
+    }
+
+    private static int[] remove(int[] sorted, int value) {
+        if (sorted == null) {
+            return null;
+        }
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return sorted;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+        return result;
+    }
+
+    private static int[] toArray(Set<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,60 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.repository.SwapRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hydrates the in-memory swap indexes on startup by replaying open (PENDING and ACCEPTED) swap requests.
+ * Completed swaps are loaded by the recommendation engine's own rebuild.
+ * <p>
+ * Runs on {@link ApplicationReadyEvent}, which Spring Boot publishes before the readiness state changes to
+ * accepting traffic, so the instance reports ready only after the replay. Requests that arrive earlier are
+ * checked against Firestore until the duplicate-key index has been marked hydrated.
+ */
+@Component
+@Slf4j
+public class SwapIndexBootstrap {
+
+    private final SwapRequestRepository swapRequestRepository;
+    private final SwapRequestKeyIndex swapRequestKeyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SwapIndexBootstrap(SwapRequestRepository swapRequestRepository, SwapRequestKeyIndex swapRequestKeyIndex,
+                              ApplicationEventPublisher eventPublisher) {
+        this.swapRequestRepository = swapRequestRepository;
+        this.swapRequestKeyIndex = swapRequestKeyIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        int replayed = 0;
+        boolean complete = true;
+        for (SwapRequest.SwapStatus status : List.of(SwapRequest.SwapStatus.PENDING, SwapRequest.SwapStatus.ACCEPTED)) {
+            try {
+                for (SwapRequest swapRequest : swapRequestRepository.findByStatus(status)) {
+                    eventPublisher.publishEvent(SwapRequestChangedEvent.replayed(swapRequest));
+                    replayed++;
+                }
+            } catch (Exception e) {
+                complete = false;
+                log.error("Failed to hydrate swap indexes with {} requests: {}", status, e.getMessage());
+            }
+        }
+        if (complete) {
+            swapRequestKeyIndex.markHydrated();
+            log.info("Swap indexes hydrated with {} open requests", replayed);
+        } else {
+            log.warn("Swap indexes only partly hydrated ({} open requests); duplicate checks keep querying Firestore",
+                    replayed);
+        }
+    }
+}
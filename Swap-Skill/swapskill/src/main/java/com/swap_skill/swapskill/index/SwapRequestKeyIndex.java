@@ -0,0 +1,88 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of open (PENDING) swap requests keyed by
+ * (fromUserId, toUserId, skillOffered, skillWanted).
+ * A key is reserved before the write so concurrent duplicates are rejected without a Firestore query.
+ * <p>
+ * The index only knows this instance's writes and what {@link SwapIndexBootstrap} replayed; until that replay has
+ * finished ({@link #isHydrated()}), callers must also check Firestore for an existing pending request.
+ */
+@Component
+public class SwapRequestKeyIndex {
+
+    static final String RESERVED = "";
+
+    private final ConcurrentHashMap<String, String> openKeys = new ConcurrentHashMap<>();
+    private volatile boolean hydrated;
+
+    public static String keyOf(String fromUserId, String toUserId, String skillOffered, String skillWanted) {
+        return fromUserId + '\u0000' + toUserId + '\u0000' + normalize(skillOffered) + '\u0000' + normalize(skillWanted);
+    }
+
+    public static String keyOf(SwapRequest swapRequest) {
+        return keyOf(swapRequest.getFromUserId(), swapRequest.getToUserId(),
+                swapRequest.getSkillOffered(), swapRequest.getSkillWanted());
+    }
+
+    /**
+     * Reserves the key for a new swap request.
+     *
+     * @return null if the key was free, otherwise the ID of the open swap request holding it
+     *         ({@link #RESERVED} while that request is still being written)
+     */
+    public String reserve(String key) {
+        return openKeys.putIfAbsent(key, RESERVED);
+    }
+
+    /**
+     * Replaces a holder that turned out to be stale (no longer pending) with a fresh reservation.
+     */
+    public boolean reclaim(String key, String staleSwapId) {
+        return openKeys.replace(key, staleSwapId, RESERVED);
+    }
+
+    public void bind(String key, String swapId) {
+        openKeys.put(key, swapId);
+    }
+
+    public void cancelReservation(String key) {
+        openKeys.remove(key, RESERVED);
+    }
+
+    public void release(SwapRequest swapRequest) {
+        openKeys.remove(keyOf(swapRequest), swapRequest.getId());
+    }
+
+    public int size() {
+        return openKeys.size();
+    }
+
+    public boolean isHydrated() {
+        return hydrated;
+    }
+
+    void markHydrated() {
+        hydrated = true;
+    }
+
+    @EventListener
+    public void onSwapRequestChanged(SwapRequestChangedEvent event) {
+        SwapRequest swapRequest = event.getSwapRequest();
+        if (event.isReplay() && swapRequest.getStatus() == SwapRequest.SwapStatus.PENDING) {
+            openKeys.putIfAbsent(keyOf(swapRequest), swapRequest.getId());
+        }
+    }
+
+    private static String normalize(String skill) {
+        return skill == null ? "" : skill.trim().toLowerCase(Locale.ROOT);
+    }
+}
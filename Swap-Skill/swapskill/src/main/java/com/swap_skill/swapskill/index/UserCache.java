@@ -0,0 +1,94 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Bounded, least-recently-used cache of users by ID. Entries are refreshed from {@link UserChangedEvent}s
+ * and expire after a TTL so writes made by other instances are eventually picked up.
+ */
+@Component
+public class UserCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public UserCache(@Value("${user-cache.max-size:10000}") int maxSize,
+                     @Value("${user-cache.ttl-ms:300000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized Optional<User> get(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - entry.cachedAt() > ttlMillis) {
+            entries.remove(id);
+            return Optional.empty();
+        }
+        return Optional.of(entry.user());
+    }
+
+    /**
+     * Looks up several users at once.
+     *
+     * @param misses receives the IDs that are not cached
+     * @return the cached users by ID
+     */
+    public synchronized Map<String, User> getAll(Collection<String> ids, Collection<String> misses) {
+        Map<String, User> hits = new HashMap<>();
+        for (String id : ids) {
+            Optional<User> user = get(id);
+            if (user.isPresent()) {
+                hits.put(id, user.get());
+            } else {
+                misses.add(id);
+            }
+        }
+        return hits;
+    }
+
+    public synchronized void put(User user) {
+        entries.put(user.getId(), new Entry(user, System.currentTimeMillis()));
+    }
+
+    public synchronized void putAll(Collection<User> users) {
+        for (User user : users) {
+            put(user);
+        }
+    }
+
+    public synchronized void evict(String id) {
+        entries.remove(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            evict(event.getUserId());
+        } else {
+            put(event.getCurrent());
+        }
+    }
+
+    private record Entry(User user, long cachedAt) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import com.swap_skill.swapskill.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Hydrates the in-memory user indexes on startup by replaying users as {@link UserChangedEvent}s.
+ * Users come from the local snapshot when one exists, followed by the users changed in Firestore after
+ * the snapshot's watermark, read in pages, and minus the users deleted since; otherwise the whole collection is
+ * read. Either way the snapshot watermark ends at the last user read back from Firestore.
+ */
+@Component
+@Slf4j
+public class UserIndexBootstrap {
+
+    private final UserRepository userRepository;
+    private final UserSnapshotStore userSnapshotStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserIndexBootstrap(UserRepository userRepository, UserSnapshotStore userSnapshotStore,
+                              ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.userSnapshotStore = userSnapshotStore;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        long start = System.currentTimeMillis();
+        try {
+            Optional<UserSnapshotStore.Snapshot> snapshot = userSnapshotStore.load();
+            if (snapshot.isEmpty()) {
+                List<User> users = userRepository.findAll();
+                for (User user : users) {
+                    eventPublisher.publishEvent(UserChangedEvent.replayed(user));
+                }
+                userSnapshotStore.advanceWatermark(users);
+                log.info("User indexes hydrated with {} users in {} ms", users.size(), System.currentTimeMillis() - start);
+                return;
+            }
+
+            Map<String, User> snapshotUsers = new HashMap<>();
+            for (User user : snapshot.get().users()) {
+                snapshotUsers.put(user.getId(), user);
+                eventPublisher.publishEvent(UserChangedEvent.replayed(user));
+            }
+            int updates = userSnapshotStore.catchUp(
+                    user -> eventPublisher.publishEvent(UserChangedEvent.replayed(snapshotUsers.get(user.getId()), user)),
+                    user -> eventPublisher.publishEvent(UserChangedEvent.replayed(user, null)));
+            log.info("User indexes hydrated from snapshot with {} users and {} updates in {} ms",
+                    snapshotUsers.size(), updates, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to hydrate user indexes: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.swap_skill.swapskill.index;
+
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import com.swap_skill.swapskill.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Versioned binary snapshot of all users on local disk, used to warm the in-memory indexes on startup
+ * without scanning the whole users collection. Skills are stored once in a table, in skill ID order,
+ * and referenced by index; loading registers them with the skill dictionary in that order.
+ * <p>
+ * Layout: magic, version, watermark (updatedAt and ID), skill table, user records.
+ * <p>
+ * The watermark is the (updatedAt, id) position of the last user read back from Firestore by a catch-up query,
+ * never a locally observed change, so changes made by other instances are not skipped on the next start.
+ * Before each write the store catches up from Firestore, which also picks up those remote changes. Deleted users
+ * never show up as changes; catch-up drops them using the tombstones left since the watermark.
+ */
+@Component
+@Slf4j
+public class UserSnapshotStore {
+
+    private static final int MAGIC = 0x53534E50;
+    private static final short VERSION = 3;
+
+    private final SkillDictionary skillDictionary;
+    private final UserRepository userRepository;
+    private final Path path;
+    private final boolean enabled;
+    private final int catchUpPageSize;
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+    private Timestamp watermark;
+    private String watermarkId;
+
+    public UserSnapshotStore(SkillDictionary skillDictionary, UserRepository userRepository,
+                             @Value("${snapshot.path:data/users.snapshot}") String path,
+                             @Value("${snapshot.enabled:true}") boolean enabled,
+                             @Value("${snapshot.catch-up-page-size:1000}") int catchUpPageSize) {
+        this.skillDictionary = skillDictionary;
+        this.userRepository = userRepository;
+        this.path = Paths.get(path);
+        this.enabled = enabled;
+        this.catchUpPageSize = catchUpPageSize;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            users.remove(event.getUserId());
+        } else {
+            users.put(event.getUserId(), event.getCurrent());
+        }
+        dirty = true;
+    }
+
+    public Optional<Snapshot> load() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                log.warn("Ignoring user snapshot {}: not a snapshot file", path);
+                return Optional.empty();
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                log.warn("Ignoring user snapshot {}: unsupported version {}", path, version);
+                return Optional.empty();
+            }
+            Timestamp snapshotWatermark = readTimestamp(buffer);
+            String snapshotWatermarkId = readString(buffer);
+
+            String[] skills = new String[buffer.getInt()];
+            for (int i = 0; i < skills.length; i++) {
+                skills[i] = readString(buffer);
+                skillDictionary.idOfStored(skills[i]);
+            }
+
+            int count = buffer.getInt();
+            List<User> loaded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loaded.add(User.builder()
+                        .id(readString(buffer))
+                        .name(readString(buffer))
+                        .profilePhoto(readString(buffer))
+                        .location(readString(buffer))
+                        .availability(readStrings(buffer))
+                        .skillsOffered(readSkills(buffer, skills))
+                        .skillsWanted(readSkills(buffer, skills))
+                        .publicProfile(buffer.get() != 0)
+                        .rating(buffer.get() != 0 ? buffer.getDouble() : null)
+                        .ratingCount(buffer.getInt())
+                        .about(readString(buffer))
+                        .createdAt(readTimestamp(buffer))
+                        .updatedAt(readTimestamp(buffer))
+                        .build());
+            }
+            synchronized (this) {
+                watermark = snapshotWatermark;
+                watermarkId = snapshotWatermarkId;
+            }
+            log.info("Loaded user snapshot with {} users in {} ms", count, System.currentTimeMillis() - start);
+            return Optional.of(new Snapshot(snapshotWatermark, snapshotWatermarkId, loaded));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable user snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the users changed in Firestore after the watermark, a page at a time, passes each one to
+     * {@code consumer} and moves the watermark to the last user read. Starts from the beginning when no
+     * watermark has been set yet. Users deleted since the watermark are dropped and passed to {@code deleted}.
+     * Returns the number of users read.
+     */
+    public synchronized int catchUp(Consumer<User> consumer, Consumer<User> deleted) {
+        if (watermark != null) {
+            for (String id : userRepository.findDeletedSince(watermark)) {
+                User removed = users.remove(id);
+                if (removed != null) {
+                    deleted.accept(removed);
+                    dirty = true;
+                }
+            }
+        }
+        int read = 0;
+        while (true) {
+            List<User> page = userRepository.findChangedAfter(watermark, watermarkId, catchUpPageSize);
+            for (User user : page) {
+                users.put(user.getId(), user);
+                consumer.accept(user);
+            }
+            read += page.size();
+            if (!page.isEmpty()) {
+                User last = page.get(page.size() - 1);
+                watermark = last.getUpdatedAt();
+                watermarkId = last.getId();
+                dirty = true;
+            }
+            if (page.size() < catchUpPageSize) {
+                return read;
+            }
+        }
+    }
+
+    /**
+     * Sets the watermark to the newest of the given users, which must have been read back from Firestore.
+     */
+    public synchronized void advanceWatermark(Collection<User> readBack) {
+        for (User user : readBack) {
+            if (user.getUpdatedAt() != null && (watermark == null
+                    || user.getUpdatedAt().compareTo(watermark) > 0
+                    || user.getUpdatedAt().equals(watermark) && user.getId().compareTo(watermarkId) > 0)) {
+                watermark = user.getUpdatedAt();
+                watermarkId = user.getId();
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${snapshot.interval-ms:600000}", fixedDelayString = "${snapshot.interval-ms:600000}")
+    public void scheduledWrite() {
+        if (!enabled || !hasWatermark()) {
+            return;
+        }
+        try {
+            catchUp(user -> { }, user -> { });
+        } catch (RuntimeException e) {
+            log.warn("User snapshot catch-up failed, writing with the previous watermark: {}", e.getMessage());
+        }
+        if (dirty) {
+            write();
+        }
+    }
+
+    private synchronized boolean hasWatermark() {
+        return watermark != null;
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (dirty) {
+            write();
+        }
+    }
+
+    public synchronized void write() {
+        if (!enabled || watermark == null) {
+            return;
+        }
+        dirty = false;
+        long start = System.currentTimeMillis();
+        List<User> current = new ArrayList<>(users.values());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Map<String, Integer> skillIndex = new LinkedHashMap<>();
+            int dictionarySize = skillDictionary.size();
+            for (int id = 0; id < dictionarySize; id++) {
+                skillIndex.put(skillDictionary.nameOf(id), id);
+            }
+            for (User user : current) {
+                indexSkills(skillIndex, user.getSkillsOffered());
+                indexSkills(skillIndex, user.getSkillsWanted());
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                writeTimestamp(out, watermark);
+                writeString(out, watermarkId);
+                out.writeInt(skillIndex.size());
+                for (String skill : skillIndex.keySet()) {
+                    writeString(out, skill);
+                }
+                out.writeInt(current.size());
+                for (User user : current) {
+                    writeString(out, user.getId());
+                    writeString(out, user.getName());
+                    writeString(out, user.getProfilePhoto());
+                    writeString(out, user.getLocation());
+                    writeStrings(out, user.getAvailability());
+                    writeSkills(out, skillIndex, user.getSkillsOffered());
+                    writeSkills(out, skillIndex, user.getSkillsWanted());
+                    out.writeBoolean(user.isPublicProfile());
+                    out.writeBoolean(user.getRating() != null);
+                    if (user.getRating() != null) {
+                        out.writeDouble(user.getRating());
+                    }
+                    out.writeInt(user.getRatingCount() == null ? 0 : user.getRatingCount());
+                    writeString(out, user.getAbout());
+                    writeTimestamp(out, user.getCreatedAt());
+                    writeTimestamp(out, user.getUpdatedAt());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote user snapshot with {} users in {} ms", current.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Failed to write user snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    public record Snapshot(Timestamp watermark, String watermarkId, List<User> users) {
+    }
+
+    private static void indexSkills(Map<String, Integer> skillIndex, List<String> skills) {
+        if (skills != null) {
+            for (String skill : skills) {
+                skillIndex.putIfAbsent(skill, skillIndex.size());
+            }
+        }
+    }
+
+    private static void writeSkills(DataOutputStream out, Map<String, Integer> skillIndex, List<String> skills)
+            throws IOException {
+        if (skills == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(skills.size());
+        for (String skill : skills) {
+            out.writeInt(skillIndex.get(skill));
+        }
+    }
+
+    private static List<String> readSkills(ByteBuffer buffer, String[] skills) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(skills[buffer.getInt()]);
+        }
+        return result;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readString(buffer));
+        }
+        return result;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTimestamp(DataOutputStream out, Timestamp timestamp) throws IOException {
+        out.writeBoolean(timestamp != null);
+        if (timestamp != null) {
+            out.writeLong(timestamp.getSeconds());
+            out.writeInt(timestamp.getNanos());
+        }
+    }
+
+    private static Timestamp readTimestamp(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return Timestamp.ofTimeSecondsAndNanos(seconds, nanos);
+    }
+}
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
@@ -22,7 +22,24 @@ public class User {
     private List<String> skillsWanted;
     private boolean publicProfile;
     private Double rating;
+    private Integer ratingCount;
     private String about;
     private Timestamp createdAt;
     private Timestamp updatedAt;
+
+    /**
+     * Folds a swap rating into the average; a non-null {@code previous} rating of the same swap is replaced.
+     */
+    public void addRating(double rating, Double previous) {
+        int count = ratingCount == null ? 0 : ratingCount;
+        double sum = this.rating == null ? 0.0 : this.rating * count;
+        if (previous == null || count == 0) {
+            sum += rating;
+            count++;
+        } else {
+            sum += rating - previous;
+        }
+        this.rating = sum / count;
+        this.ratingCount = count;
+    }
 } 
\ No newline at end of file
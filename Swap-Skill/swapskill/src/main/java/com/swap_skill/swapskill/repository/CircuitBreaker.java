@@ -0,0 +1,123 @@
+package com.swap_skill.swapskill.repository;
+
+import com.swap_skill.swapskill.config.FirestoreProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker. While closed it records the outcome of the last {@code windowSize} calls and opens
+ * when the failure or slow-call rate reaches its threshold. Once open, calls are rejected until
+ * {@code openDuration} has passed; then a few trial calls are let through and the breaker closes if all of them
+ * succeed quickly, or opens again otherwise.
+ */
+@Slf4j
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final FirestoreProperties.CircuitBreaker settings;
+    private final boolean[] failed;
+    private final boolean[] slow;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int count;
+    private int failures;
+    private int slowCalls;
+    private long openUntil;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(String name, FirestoreProperties.CircuitBreaker settings) {
+        this.name = name;
+        this.settings = settings;
+        this.failed = new boolean[settings.getWindowSize()];
+        this.slow = new boolean[settings.getWindowSize()];
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= settings.getHalfOpenCalls()) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a permission that was acquired but not used for a call.
+     */
+    synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && trialsStarted > 0) {
+            trialsStarted--;
+        }
+    }
+
+    synchronized void onResult(boolean success, long durationNanos) {
+        boolean isSlow = durationNanos >= settings.getSlowCallDuration().toNanos();
+        if (state == State.HALF_OPEN) {
+            if (!success || isSlow) {
+                open();
+            } else if (++trialsSucceeded >= settings.getHalfOpenCalls()) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (count == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            count++;
+        }
+        failed[next] = !success;
+        slow[next] = isSlow;
+        failures += success ? 0 : 1;
+        slowCalls += isSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+
+        if (count >= settings.getMinimumCalls()
+                && (failures * 100 >= settings.getFailureRateThreshold() * count
+                || slowCalls * 100 >= settings.getSlowCallRateThreshold() * count)) {
+            open();
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void open() {
+        openUntil = System.currentTimeMillis() + settings.getOpenDuration().toMillis();
+        transition(State.OPEN);
+    }
+
+    private void transition(State target) {
+        if (state != target) {
+            log.warn("Firestore circuit breaker for {} changed from {} to {}", name, state, target);
+        }
+        state = target;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (target == State.CLOSED) {
+            next = 0;
+            count = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
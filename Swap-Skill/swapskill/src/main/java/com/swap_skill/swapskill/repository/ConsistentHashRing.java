@@ -0,0 +1,37 @@
+package com.swap_skill.swapskill.repository;
+
+import com.swap_skill.swapskill.util.Hashing;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring with virtual nodes. A key belongs to the first node point at or after its hash, so adding
+ * a node only moves the keys that land on the new node's points (about 1/N of them).
+ */
+final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(Hashing.hash64(node + "#" + i), node);
+            }
+        }
+    }
+
+    String nodeFor(String key) {
+        return nodeForHash(Hashing.hash64(key));
+    }
+
+    String nodeForHash(long hash) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+} 
@@ -0,0 +1,69 @@
+package com.swap_skill.swapskill.repository;
+
+/**
+ * Per-thread record of whether the current request was served stale data or hit an unavailable Firestore,
+ * so the web layer can flag the response, and of whether the request is read-only and may be served stale data
+ * at all.
+ */
+public final class DegradedReads {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private DegradedReads() {
+    }
+
+    public static State current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+        READ_ONLY.remove();
+    }
+
+    /**
+     * Marks the current request as read-only, e.g. a GET, so failed cached reads may fall back to stale results.
+     * Other requests, and work outside a request, always read current data.
+     */
+    public static void setReadOnly(boolean readOnly) {
+        READ_ONLY.set(readOnly);
+    }
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    /**
+     * Carries over flags recorded on another thread, e.g. by a read run on an executor for this request.
+     */
+    public static void merge(State state) {
+        if (state == null) {
+            return;
+        }
+        if (state.staleAgeMillis() >= 0) {
+            markStale(state.staleAgeMillis());
+        }
+        if (state.unavailable()) {
+            markUnavailable();
+        }
+    }
+
+    static void markStale(long ageMillis) {
+        State state = CURRENT.get();
+        long oldest = state != null ? Math.max(state.staleAgeMillis(), ageMillis) : ageMillis;
+        CURRENT.set(new State(oldest, state != null && state.unavailable()));
+    }
+
+    static void markUnavailable() {
+        State state = CURRENT.get();
+        CURRENT.set(new State(state != null ? state.staleAgeMillis() : -1, true));
+    }
+
+    /**
+     * @param staleAgeMillis age of the oldest stale result served, or -1 if none was
+     * @param unavailable    whether a Firestore call failed or was shed without a stale fallback
+     */
+    public record State(long staleAgeMillis, boolean unavailable) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Stores idempotency keys in the {@code idempotency_keys} collection. Documents carry an {@code expiresAt} field;
+ * expired documents are ignored here and can be deleted by a Firestore TTL policy on that field. Keys in flight
+ * also carry a {@code leaseUntil}, after which a retry of the same request may take them over.
+ */
+@Repository
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "idempotency.shared", havingValue = "true")
+@Slf4j
+public class FirebaseIdempotencyRepository implements IdempotencyRepository {
+
+    private static final String COLLECTION_NAME = "idempotency_keys";
+    private final Firestore firestore;
+    private final FirestoreCalls firestoreCalls;
+
+    public FirebaseIdempotencyRepository(Firestore firestore, FirestoreCalls firestoreCalls) {
+        this.firestore = firestore;
+        this.firestoreCalls = firestoreCalls;
+    }
+
+    @Override
+    public <T> Optional<IdempotencyRecord<T>> claim(String id, String fingerprint, Timestamp expiresAt,
+                                                    Timestamp leaseUntil, Class<T> responseType) {
+        try {
+            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+            IdempotencyRecord<T> existing = firestoreCalls.write("idempotency.claim",
+                    () -> firestore.runTransaction(transaction -> {
+                        DocumentSnapshot document = transaction.get(docRef).get();
+                        Timestamp now = Timestamp.now();
+                        Timestamp documentExpiresAt = document.exists() ? document.getTimestamp("expiresAt") : null;
+                        if (documentExpiresAt != null && documentExpiresAt.compareTo(now) > 0) {
+                            IdempotencyRecord<T> record = new IdempotencyRecord<>(document.getString("fingerprint"),
+                                    document.get("response", responseType));
+                            Timestamp documentLeaseUntil = document.getTimestamp("leaseUntil");
+                            boolean abandoned = record.response() == null && fingerprint.equals(record.fingerprint())
+                                    && (documentLeaseUntil == null || documentLeaseUntil.compareTo(now) <= 0);
+                            if (!abandoned) {
+                                return record;
+                            }
+                            log.warn("Taking over idempotency key {} whose lease ran out", id);
+                        }
+                        Map<String, Object> claim = new HashMap<>();
+                        claim.put("fingerprint", fingerprint);
+                        claim.put("expiresAt", expiresAt);
+                        claim.put("leaseUntil", leaseUntil);
+                        transaction.set(docRef, claim);
+                        return null;
+                    }));
+            return Optional.ofNullable(existing);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error claiming idempotency key: {}", e.getMessage());
+            throw new RuntimeException("Failed to claim idempotency key", e);
+        }
+    }
+
+    @Override
+    public void complete(String id, Object response) {
+        try {
+            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+            firestoreCalls.write("idempotency.complete", () -> docRef.update("response", response));
+        } catch (InterruptedException | ExecutionException e) {
+            // The write itself succeeded; other instances will treat the key as in flight until it expires
+            log.error("Error completing idempotency key: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(String id) {
+        try {
+            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+            firestoreCalls.write("idempotency.release", docRef::delete);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error releasing idempotency key: {}", e.getMessage());
+        }
+    }
+} 
@@ -2,36 +2,66 @@ package com.swap_skill.swapskill.repository;
 
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
+import com.swap_skill.swapskill.eventlog.SwapEvent;
 import com.swap_skill.swapskill.model.SwapRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
+/**
+ * Swap requests stored on the {@link ShardedFirestore} shard of their sender. Queries by sender go to that shard;
+ * lookups by ID and queries by receiver or status fan out to all shards in parallel and merge the results.
+ * <p>
+ * New requests are created together with a guard document in {@code swap_keys}, keyed by a hash of the duplicate
+ * key and naming the request that holds it, so two instances cannot both create the same pending request.
+ * <p>
+ * Every write also records an event of the change in the {@code swap_events} collection of the same shard, in the
+ * same batch or transaction, stamped with the commit time. Each shard is one event source, read in order of
+ * (commit time, document ID).
+ */
 @Repository
+@Profile("!inmemory")
 @Slf4j
 public class FirebaseSwapRequestRepository implements SwapRequestRepository {
 
     private static final String COLLECTION_NAME = "swaps";
-    private final Firestore firestore;
+    static final String KEYS_COLLECTION_NAME = "swap_keys";
+    private static final String EVENTS_COLLECTION_NAME = "swap_events";
+    private static final int MAX_BATCH_WRITES = 500;
+    private static final Comparator<SwapRequest> CHANGE_ORDER = Comparator.comparing(SwapRequest::getUpdatedAt)
+            .thenComparing(SwapRequest::getId);
+    private static final Comparator<SwapRequest> NEWEST_FIRST = Comparator.comparing(SwapRequest::getCreatedAt)
+            .thenComparing(SwapRequest::getId)
+            .reversed();
+    private final ShardedFirestore shardedFirestore;
+    private final FirestoreCalls firestoreCalls;
 
-    public FirebaseSwapRequestRepository(Firestore firestore) {
-        this.firestore = firestore;
+    public FirebaseSwapRequestRepository(ShardedFirestore shardedFirestore, FirestoreCalls firestoreCalls) {
+        this.shardedFirestore = shardedFirestore;
+        this.firestoreCalls = firestoreCalls;
     }
 
     @Override
-    public SwapRequest save(SwapRequest swapRequest) {
+    public SwapRequest save(SwapRequest swapRequest, SwapEvent.Type type) {
         try {
             if (swapRequest.getId() == null) {
-                swapRequest.setId(UUID.randomUUID().toString());
+                swapRequest.setId(shardedFirestore.newSwapId(swapRequest.getFromUserId()));
                 swapRequest.setCreatedAt(com.google.cloud.Timestamp.now());
             }
             swapRequest.setUpdatedAt(com.google.cloud.Timestamp.now());
             
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(swapRequest.getId());
-            ApiFuture<WriteResult> result = docRef.set(swapRequest);
-            result.get();
+            Firestore shard = shardedFirestore.shardFor(swapRequest.getFromUserId());
+            WriteBatch batch = shard.batch();
+            batch.set(shard.collection(COLLECTION_NAME).document(swapRequest.getId()), swapRequest);
+            batch.set(shard.collection(EVENTS_COLLECTION_NAME).document(), eventFields(type, swapRequest));
+            firestoreCalls.write("swaps.save", () -> batch.commit());
             
             log.info("Swap request saved successfully with ID: {}", swapRequest.getId());
             return swapRequest;
@@ -42,18 +72,156 @@ public class FirebaseSwapRequestRepository implements SwapRequestRepository {
     }
 
     @Override
-    public Optional<SwapRequest> findById(String id) {
+    public Optional<String> createUnlessPending(SwapRequest swapRequest, String key) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
+            com.google.cloud.Timestamp now = com.google.cloud.Timestamp.now();
+            swapRequest.setId(shardedFirestore.newSwapId(swapRequest.getFromUserId()));
+            swapRequest.setCreatedAt(now);
+            swapRequest.setUpdatedAt(now);
+            
+            Firestore shard = shardedFirestore.shardFor(swapRequest.getFromUserId());
+            CollectionReference collection = shard.collection(COLLECTION_NAME);
+            DocumentReference keyRef = shard.collection(KEYS_COLLECTION_NAME).document(keyDocumentId(key));
+            if (shardedFirestore.isRebalancing()) {
+                // The guard, or the swap it names, may still sit on the previous shard
+                Optional<String> movingHolderId = pendingHolderOnAnyShard(keyDocumentId(key));
+                if (movingHolderId.isPresent()) {
+                    return movingHolderId;
+                }
+            }
+            String holderId = firestoreCalls.write("swaps.create", () -> shard.runTransaction(transaction -> {
+                DocumentSnapshot keyDocument = transaction.get(keyRef).get();
+                String currentHolderId = keyDocument.exists() ? keyDocument.getString("swapId") : null;
+                if (currentHolderId != null) {
+                    DocumentSnapshot holder = transaction.get(collection.document(currentHolderId)).get();
+                    if (holder.exists() && SwapRequest.SwapStatus.PENDING.name().equals(holder.getString("status"))) {
+                        return currentHolderId;
+                    }
+                }
+                transaction.set(keyRef, Map.of("swapId", swapRequest.getId()));
+                transaction.set(collection.document(swapRequest.getId()), swapRequest);
+                transaction.set(shard.collection(EVENTS_COLLECTION_NAME).document(),
+                        eventFields(SwapEvent.Type.CREATED, swapRequest));
+                return null;
+            }));
             
-            if (document.exists()) {
-                SwapRequest swapRequest = document.toObject(SwapRequest.class);
-                swapRequest.setId(document.getId());
-                return Optional.of(swapRequest);
+            if (holderId == null) {
+                log.info("Swap request created successfully with ID: {}", swapRequest.getId());
+            }
+            return Optional.ofNullable(holderId);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error creating swap request: {}", e.getMessage());
+            throw new RuntimeException("Failed to create swap request", e);
+        }
+    }
+
+    /**
+     * The pending swap request named by the guard document on any shard, found by its ID.
+     */
+    private Optional<String> pendingHolderOnAnyShard(String keyDocumentId) throws InterruptedException, ExecutionException {
+        List<DocumentSnapshot> keyDocuments = firestoreCalls.read("swaps.findKeyHolder",
+                () -> ShardedFirestore.fanOut(shardedFirestore.all(),
+                        shard -> shard.collection(KEYS_COLLECTION_NAME).document(keyDocumentId).get()));
+        for (DocumentSnapshot keyDocument : keyDocuments) {
+            String holderId = keyDocument.exists() ? keyDocument.getString("swapId") : null;
+            if (holderId == null) {
+                continue;
+            }
+            List<DocumentSnapshot> holders = firestoreCalls.read("swaps.findKeyHolder",
+                    () -> ShardedFirestore.fanOut(shardedFirestore.readShardsForSwap(holderId),
+                            shard -> shard.collection(COLLECTION_NAME).document(holderId).get()));
+            for (DocumentSnapshot holder : holders) {
+                if (holder.exists() && SwapRequest.SwapStatus.PENDING.name().equals(holder.getString("status"))) {
+                    return Optional.of(holderId);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public SaveAllResult saveAll(List<SwapRequest> swapRequests) {
+        Map<Firestore, List<SwapRequest>> byShard = new LinkedHashMap<>();
+        for (SwapRequest swapRequest : swapRequests) {
+            byShard.computeIfAbsent(shardedFirestore.shardFor(swapRequest.getFromUserId()), shard -> new ArrayList<>())
+                    .add(swapRequest);
+        }
+        // A transaction covers one database and at most 500 writes, two per request with its event;
+        // each chunk commits atomically on its own
+        int chunkSize = MAX_BATCH_WRITES / 2;
+        Set<SwapRequest> committed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<SwapRequest> conflicted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Firestore, List<SwapRequest>> shard : byShard.entrySet()) {
+            Firestore firestore = shard.getKey();
+            List<SwapRequest> shardRequests = shard.getValue();
+            for (int start = 0; start < shardRequests.size(); start += chunkSize) {
+                List<SwapRequest> chunk = shardRequests.subList(start, Math.min(start + chunkSize, shardRequests.size()));
+                try {
+                    com.google.cloud.Timestamp now = com.google.cloud.Timestamp.now();
+                    Set<SwapRequest> conflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+                    conflicts.addAll(firestoreCalls.write("swaps.saveAll", () -> saveChunk(firestore, chunk, now)));
+                    for (SwapRequest swapRequest : chunk) {
+                        if (conflicts.contains(swapRequest)) {
+                            conflicted.add(swapRequest);
+                        } else {
+                            swapRequest.setUpdatedAt(now);
+                            committed.add(swapRequest);
+                        }
+                    }
+                } catch (InterruptedException | ExecutionException | RuntimeException e) {
+                    log.error("Error saving a chunk of {} swap requests: {}", chunk.size(), e.getMessage());
+                }
+            }
+        }
+        
+        List<SwapRequest> saved = swapRequests.stream().filter(committed::contains).toList();
+        List<SwapRequest> conflicts = swapRequests.stream().filter(conflicted::contains).toList();
+        log.info("{} of {} swap requests saved successfully, {} changed concurrently", saved.size(), swapRequests.size(),
+                conflicts.size());
+        return new SaveAllResult(saved, conflicts);
+    }
+
+    /**
+     * Writes the requests of one chunk whose stored copy still has the {@code updatedAt} they were read with,
+     * in one transaction, and returns the others.
+     */
+    private ApiFuture<List<SwapRequest>> saveChunk(Firestore firestore, List<SwapRequest> chunk,
+                                                   com.google.cloud.Timestamp now) {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        CollectionReference events = firestore.collection(EVENTS_COLLECTION_NAME);
+        DocumentReference[] docRefs = chunk.stream()
+                .map(swapRequest -> collection.document(swapRequest.getId()))
+                .toArray(DocumentReference[]::new);
+        return firestore.runTransaction(transaction -> {
+            Map<String, DocumentSnapshot> documents = new HashMap<>();
+            for (DocumentSnapshot document : transaction.getAll(docRefs).get()) {
+                documents.put(document.getId(), document);
+            }
+            List<SwapRequest> conflicts = new ArrayList<>();
+            for (SwapRequest swapRequest : chunk) {
+                DocumentSnapshot document = documents.get(swapRequest.getId());
+                if (document == null || !document.exists()
+                        || !Objects.equals(document.getTimestamp("updatedAt"), swapRequest.getUpdatedAt())) {
+                    conflicts.add(swapRequest);
+                    continue;
+                }
+                SwapRequest updated = swapRequest.toBuilder().updatedAt(now).build();
+                transaction.set(collection.document(updated.getId()), updated);
+                transaction.set(events.document(), eventFields(SwapEvent.Type.forStatus(updated.getStatus()), updated));
             }
-            return Optional.empty();
+            return conflicts;
+        });
+    }
+
+    @Override
+    public Optional<SwapRequest> findById(String id) {
+        try {
+            List<DocumentSnapshot> documents = firestoreCalls.read("swaps.findById", id,
+                    () -> ShardedFirestore.fanOut(shardedFirestore.readShardsForSwap(id),
+                            shard -> shard.collection(COLLECTION_NAME).document(id).get()));
+            
+            List<SwapRequest> swapRequests = toSwapRequests(documents.stream().filter(DocumentSnapshot::exists).toList());
+            return swapRequests.stream().findFirst();
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding swap request by ID: {}", e.getMessage());
             throw new RuntimeException("Failed to find swap request", e);
@@ -61,20 +229,41 @@ public class FirebaseSwapRequestRepository implements SwapRequestRepository {
     }
 
     @Override
-    public List<SwapRequest> findByFromUserId(String fromUserId) {
+    public List<SwapRequest> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("fromUserId", fromUserId)
-                    .get();
-            QuerySnapshot documents = future.get();
+            Map<Firestore, List<String>> groups = shardedFirestore.readGroupsForSwaps(ids);
+            List<List<DocumentSnapshot>> results = firestoreCalls.read("swaps.findAllById", ids,
+                    () -> ShardedFirestore.fanOut(groups.keySet(), shard -> {
+                        CollectionReference collection = shard.collection(COLLECTION_NAME);
+                        DocumentReference[] docRefs = groups.get(shard).stream()
+                                .map(collection::document)
+                                .toArray(DocumentReference[]::new);
+                        return shard.getAll(docRefs);
+                    }));
             
-            List<SwapRequest> swapRequests = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                SwapRequest swapRequest = document.toObject(SwapRequest.class);
-                swapRequest.setId(document.getId());
-                swapRequests.add(swapRequest);
+            List<DocumentSnapshot> documents = new ArrayList<>();
+            for (List<DocumentSnapshot> result : results) {
+                for (DocumentSnapshot document : result) {
+                    if (document.exists()) {
+                        documents.add(document);
+                    }
+                }
             }
-            return swapRequests;
+            return toSwapRequests(documents);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding swap requests by IDs: {}", e.getMessage());
+            throw new RuntimeException("Failed to find swap requests", e);
+        }
+    }
+
+    @Override
+    public List<SwapRequest> findByFromUserId(String fromUserId) {
+        try {
+            return query("swaps.findByFromUserId", fromUserId, shardedFirestore.readShardsFor(fromUserId),
+                    collection -> collection.whereEqualTo("fromUserId", fromUserId));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding swap requests by from user ID: {}", e.getMessage());
             throw new RuntimeException("Failed to find swap requests by from user ID", e);
@@ -84,40 +273,54 @@ public class FirebaseSwapRequestRepository implements SwapRequestRepository {
     @Override
     public List<SwapRequest> findByToUserId(String toUserId) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("toUserId", toUserId)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<SwapRequest> swapRequests = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                SwapRequest swapRequest = document.toObject(SwapRequest.class);
-                swapRequest.setId(document.getId());
-                swapRequests.add(swapRequest);
-            }
-            return swapRequests;
+            return query("swaps.findByToUserId", toUserId, shardedFirestore.all(),
+                    collection -> collection.whereEqualTo("toUserId", toUserId));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding swap requests by to user ID: {}", e.getMessage());
             throw new RuntimeException("Failed to find swap requests by to user ID", e);
         }
     }
 
+    @Override
+    public List<SwapRequest> findByFromUserIdCreatedBefore(String fromUserId, com.google.cloud.Timestamp createdAt,
+                                                           String id, int limit) {
+        return findCreatedBefore("swaps.findByFromUserIdCreatedBefore", "fromUserId", fromUserId,
+                shardedFirestore.readShardsFor(fromUserId), createdAt, id, limit);
+    }
+
+    @Override
+    public List<SwapRequest> findByToUserIdCreatedBefore(String toUserId, com.google.cloud.Timestamp createdAt,
+                                                         String id, int limit) {
+        return findCreatedBefore("swaps.findByToUserIdCreatedBefore", "toUserId", toUserId,
+                shardedFirestore.all(), createdAt, id, limit);
+    }
+
+    private List<SwapRequest> findCreatedBefore(String operation, String userField, String userId, List<Firestore> shards,
+                                                com.google.cloud.Timestamp createdAt, String id, int limit) {
+        try {
+            List<SwapRequest> swapRequests = query(operation, userId + "/" + createdAt + "/" + id + "/" + limit, shards,
+                    collection -> {
+                        Query query = collection
+                                .whereEqualTo(userField, userId)
+                                .orderBy("createdAt", Query.Direction.DESCENDING)
+                                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                                .limit(limit);
+                        return createdAt != null ? query.startAfter(createdAt, id) : query;
+                    });
+            return firstInOrder(swapRequests, NEWEST_FIRST, limit);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding swap requests by {} before {}: {}", userField, createdAt, e.getMessage());
+            throw new RuntimeException("Failed to find swap requests by " + userField, e);
+        }
+    }
+
     @Override
     public List<SwapRequest> findByFromUserIdAndStatus(String fromUserId, SwapRequest.SwapStatus status) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("fromUserId", fromUserId)
-                    .whereEqualTo("status", status)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<SwapRequest> swapRequests = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                SwapRequest swapRequest = document.toObject(SwapRequest.class);
-                swapRequest.setId(document.getId());
-                swapRequests.add(swapRequest);
-            }
-            return swapRequests;
+            return query("swaps.findByFromUserIdAndStatus", fromUserId + "/" + status, shardedFirestore.readShardsFor(fromUserId),
+                    collection -> collection
+                            .whereEqualTo("fromUserId", fromUserId)
+                            .whereEqualTo("status", status));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding swap requests by from user ID and status: {}", e.getMessage());
             throw new RuntimeException("Failed to find swap requests by from user ID and status", e);
@@ -127,19 +330,10 @@ public class FirebaseSwapRequestRepository implements SwapRequestRepository {
     @Override
     public List<SwapRequest> findByToUserIdAndStatus(String toUserId, SwapRequest.SwapStatus status) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("toUserId", toUserId)
-                    .whereEqualTo("status", status)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<SwapRequest> swapRequests = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                SwapRequest swapRequest = document.toObject(SwapRequest.class);
-                swapRequest.setId(document.getId());
-                swapRequests.add(swapRequest);
-            }
-            return swapRequests;
+            return query("swaps.findByToUserIdAndStatus", toUserId + "/" + status, shardedFirestore.all(),
+                    collection -> collection
+                            .whereEqualTo("toUserId", toUserId)
+                            .whereEqualTo("status", status));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding swap requests by to user ID and status: {}", e.getMessage());
             throw new RuntimeException("Failed to find swap requests by to user ID and status", e);
@@ -147,10 +341,51 @@ public class FirebaseSwapRequestRepository implements SwapRequestRepository {
     }
 
     @Override
-    public void deleteById(String id) {
+    public List<SwapRequest> findByStatus(SwapRequest.SwapStatus status) {
+        try {
+            return query("swaps.findByStatus", null, shardedFirestore.all(),
+                    collection -> collection.whereEqualTo("status", status));
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding swap requests by status: {}", e.getMessage());
+            throw new RuntimeException("Failed to find swap requests by status", e);
+        }
+    }
+
+    @Override
+    public List<SwapRequest> findChangedAfter(com.google.cloud.Timestamp updatedAt, String id, int limit) {
+        try {
+            List<SwapRequest> swapRequests = query("swaps.findChangedAfter", null, shardedFirestore.all(), collection -> {
+                Query query = collection
+                        .orderBy("updatedAt")
+                        .orderBy(FieldPath.documentId())
+                        .limit(limit);
+                return updatedAt != null ? query.startAfter(updatedAt, id) : query;
+            });
+            return firstInOrder(swapRequests, CHANGE_ORDER, limit);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding swap requests changed after {}: {}", updatedAt, e.getMessage());
+            throw new RuntimeException("Failed to find changed swap requests", e);
+        }
+    }
+
+    @Override
+    public void delete(SwapRequest swapRequest) {
+        String id = swapRequest.getId();
         try {
-            ApiFuture<WriteResult> writeResult = firestore.collection(COLLECTION_NAME).document(id).delete();
-            writeResult.get();
+            Firestore owner = shardedFirestore.shardFor(swapRequest.getFromUserId());
+            WriteBatch batch = owner.batch();
+            batch.delete(owner.collection(COLLECTION_NAME).document(id));
+            batch.set(owner.collection(EVENTS_COLLECTION_NAME).document(), eventFields(SwapEvent.Type.DELETED, swapRequest));
+            firestoreCalls.write("swaps.delete", () -> batch.commit());
+            
+            // Mid-rebalance a copy may still be on the previous shard
+            List<Firestore> others = shardedFirestore.readShardsForSwap(id).stream()
+                    .filter(shard -> shard != owner)
+                    .toList();
+            if (!others.isEmpty()) {
+                firestoreCalls.write("swaps.delete", () -> ShardedFirestore.fanOut(others,
+                        shard -> shard.collection(COLLECTION_NAME).document(id).delete()));
+            }
             log.info("Swap request deleted successfully with ID: {}", id);
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error deleting swap request: {}", e.getMessage());
@@ -161,13 +396,128 @@ public class FirebaseSwapRequestRepository implements SwapRequestRepository {
     @Override
     public boolean existsById(String id) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
-            return document.exists();
+            List<DocumentSnapshot> documents = firestoreCalls.read("swaps.existsById",
+                    () -> ShardedFirestore.fanOut(shardedFirestore.readShardsForSwap(id),
+                            shard -> shard.collection(COLLECTION_NAME).document(id).get()));
+            return documents.stream().anyMatch(DocumentSnapshot::exists);
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error checking if swap request exists: {}", e.getMessage());
             throw new RuntimeException("Failed to check if swap request exists", e);
         }
     }
+
+    @Override
+    public List<String> eventSources() {
+        return new ArrayList<>(shardedFirestore.byName().keySet());
+    }
+
+    @Override
+    public List<SwapEvent> findEventsAfter(String source, long timestamp, String eventId, int limit) {
+        Firestore shard = shardedFirestore.byName().get(source);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown swap event source " + source);
+        }
+        try {
+            // A query sees every commit up to its read time, so no event can later appear before the last one read
+            Query query = shard.collection(EVENTS_COLLECTION_NAME)
+                    .orderBy("recordedAt")
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            Query page = eventId != null
+                    ? query.startAfter(com.google.cloud.Timestamp.ofTimeMicroseconds(timestamp), eventId)
+                    : query;
+            QuerySnapshot result = firestoreCalls.read("swaps.findEventsAfter", () -> page.get());
+            List<SwapEvent> events = new ArrayList<>(result.size());
+            for (DocumentSnapshot document : result.getDocuments()) {
+                events.add(toSwapEvent(source, document));
+            }
+            return events;
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding swap events of {} after {}: {}", source, timestamp, e.getMessage());
+            throw new RuntimeException("Failed to find swap events", e);
+        }
+    }
+
+    /**
+     * Fields of an event document for a change of {@code swapRequest}; the commit stamps {@code recordedAt}.
+     */
+    private static Map<String, Object> eventFields(SwapEvent.Type type, SwapRequest swapRequest) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("type", type.name());
+        fields.put("swapRequestId", swapRequest.getId());
+        fields.put("fromUserId", swapRequest.getFromUserId());
+        fields.put("toUserId", swapRequest.getToUserId());
+        fields.put("skillOffered", swapRequest.getSkillOffered());
+        fields.put("skillWanted", swapRequest.getSkillWanted());
+        fields.put("status", swapRequest.getStatus() != null ? swapRequest.getStatus().name() : null);
+        fields.put("rating", swapRequest.getRating());
+        fields.put("recordedAt", FieldValue.serverTimestamp());
+        return fields;
+    }
+
+    private static SwapEvent toSwapEvent(String source, DocumentSnapshot document) {
+        com.google.cloud.Timestamp recordedAt = document.getTimestamp("recordedAt");
+        String status = document.getString("status");
+        return new SwapEvent(0, SwapEvent.Type.valueOf(document.getString("type")),
+                recordedAt.getSeconds() * 1_000_000 + recordedAt.getNanos() / 1_000,
+                document.getString("swapRequestId"), document.getString("fromUserId"), document.getString("toUserId"),
+                document.getString("skillOffered"), document.getString("skillWanted"),
+                status != null ? SwapRequest.SwapStatus.valueOf(status) : null, document.getDouble("rating"),
+                source, document.getId());
+    }
+
+    /**
+     * Runs a query on the given shards in parallel and returns the swap requests found on any of them.
+     */
+    private List<SwapRequest> query(String operation, Object cacheKey, List<Firestore> shards,
+                                    Function<CollectionReference, Query> query)
+            throws InterruptedException, ExecutionException {
+        List<QuerySnapshot> results = firestoreCalls.read(operation, cacheKey,
+                () -> ShardedFirestore.fanOut(shards, shard -> query.apply(shard.collection(COLLECTION_NAME)).get()));
+        List<DocumentSnapshot> documents = new ArrayList<>();
+        for (QuerySnapshot result : results) {
+            documents.addAll(result.getDocuments());
+        }
+        return toSwapRequests(documents);
+    }
+
+    /**
+     * Merges per-shard pages: each shard returned its first {@code limit} rows, so the first {@code limit}
+     * of the merge are the overall first.
+     */
+    private static List<SwapRequest> firstInOrder(List<SwapRequest> swapRequests, Comparator<SwapRequest> order, int limit) {
+        swapRequests.sort(order);
+        return swapRequests.size() > limit ? new ArrayList<>(swapRequests.subList(0, limit)) : swapRequests;
+    }
+
+    /**
+     * Converts documents to swap requests. A swap request read from two shards mid-rebalance is returned once,
+     * keeping the newest copy.
+     */
+    private static List<SwapRequest> toSwapRequests(List<DocumentSnapshot> documents) {
+        Map<String, SwapRequest> swapRequests = new LinkedHashMap<>();
+        for (DocumentSnapshot document : documents) {
+            SwapRequest swapRequest = document.toObject(SwapRequest.class);
+            swapRequest.setId(document.getId());
+            swapRequests.merge(swapRequest.getId(), swapRequest, (a, b) -> isNewer(b, a) ? b : a);
+        }
+        return new ArrayList<>(swapRequests.values());
+    }
+
+    /**
+     * Guard document ID for a duplicate key; keys contain user text and separators that are not valid in IDs.
+     */
+    static String keyDocumentId(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isNewer(SwapRequest candidate, SwapRequest current) {
+        return candidate.getUpdatedAt() != null
+                && (current.getUpdatedAt() == null || candidate.getUpdatedAt().compareTo(current.getUpdatedAt()) > 0);
+    }
 } 
\ No newline at end of file
@@ -1,23 +1,35 @@
 package com.swap_skill.swapskill.repository;
 
-import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import com.swap_skill.swapskill.model.User;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
+/**
+ * Users sharded by ID across the {@link ShardedFirestore} databases. Lookups by ID go to the owning shard;
+ * queries on other fields fan out to all shards in parallel and merge the results. A deleted user leaves a
+ * tombstone in {@code user_tombstones} on its owning shard, written in the same batch as the delete.
+ */
 @Repository
+@Profile("!inmemory")
 @Slf4j
 public class FirebaseUserRepository implements UserRepository {
 
     private static final String COLLECTION_NAME = "users";
-    private final Firestore firestore;
+    private static final String TOMBSTONES_COLLECTION_NAME = "user_tombstones";
+    private static final Comparator<User> CHANGE_ORDER = Comparator.comparing(User::getUpdatedAt)
+            .thenComparing(User::getId);
+    private final ShardedFirestore shardedFirestore;
+    private final FirestoreCalls firestoreCalls;
 
-    public FirebaseUserRepository(Firestore firestore) {
-        this.firestore = firestore;
+    public FirebaseUserRepository(ShardedFirestore shardedFirestore, FirestoreCalls firestoreCalls) {
+        this.shardedFirestore = shardedFirestore;
+        this.firestoreCalls = firestoreCalls;
     }
 
     @Override
@@ -29,9 +41,8 @@ public class FirebaseUserRepository implements UserRepository {
             }
             user.setUpdatedAt(com.google.cloud.Timestamp.now());
             
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(user.getId());
-            ApiFuture<WriteResult> result = docRef.set(user);
-            result.get(); // Wait for the write to complete
+            DocumentReference docRef = shardedFirestore.shardFor(user.getId()).collection(COLLECTION_NAME).document(user.getId());
+            firestoreCalls.write("users.save", () -> docRef.set(user));
             
             log.info("User saved successfully with ID: {}", user.getId());
             return user;
@@ -44,14 +55,15 @@ public class FirebaseUserRepository implements UserRepository {
     @Override
     public Optional<User> findById(String id) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
+            List<DocumentSnapshot> documents = firestoreCalls.read("users.findById", id,
+                    () -> ShardedFirestore.fanOut(shardedFirestore.readShardsFor(id),
+                            shard -> shard.collection(COLLECTION_NAME).document(id).get()));
             
-            if (document.exists()) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                return Optional.of(user);
+            // The owner is asked first, so its copy wins while a user is being moved
+            for (DocumentSnapshot document : documents) {
+                if (document.exists()) {
+                    return Optional.of(toUser(document));
+                }
             }
             return Optional.empty();
         } catch (InterruptedException | ExecutionException e) {
@@ -61,18 +73,40 @@ public class FirebaseUserRepository implements UserRepository {
     }
 
     @Override
-    public List<User> findAll() {
+    public List<User> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
-            QuerySnapshot documents = future.get();
+            Map<Firestore, List<String>> groups = shardedFirestore.readGroupsFor(ids);
+            List<List<DocumentSnapshot>> results = firestoreCalls.read("users.findAllById", ids,
+                    () -> ShardedFirestore.fanOut(groups.keySet(), shard -> {
+                        CollectionReference collection = shard.collection(COLLECTION_NAME);
+                        DocumentReference[] docRefs = groups.get(shard).stream()
+                                .map(collection::document)
+                                .toArray(DocumentReference[]::new);
+                        return shard.getAll(docRefs);
+                    }));
             
-            List<User> users = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                users.add(user);
+            List<DocumentSnapshot> documents = new ArrayList<>();
+            for (List<DocumentSnapshot> result : results) {
+                for (DocumentSnapshot document : result) {
+                    if (document.exists()) {
+                        documents.add(document);
+                    }
+                }
             }
-            return users;
+            return toUsers(documents);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding users by IDs: {}", e.getMessage());
+            throw new RuntimeException("Failed to find users", e);
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        try {
+            return query("users.findAll", null, collection -> collection);
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding all users: {}", e.getMessage());
             throw new RuntimeException("Failed to find users", e);
@@ -80,20 +114,11 @@ public class FirebaseUserRepository implements UserRepository {
     }
 
     @Override
-    public List<User> findBySkillsOfferedContaining(String skill) {
+    public List<User> findBySkillsOfferedContainingAny(Collection<String> skills) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereArrayContains("skillsOffered", skill)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<User> users = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                users.add(user);
-            }
-            return users;
+            List<String> values = List.copyOf(skills);
+            return query("users.findBySkillsOfferedContainingAny", values,
+                    collection -> collection.whereArrayContainsAny("skillsOffered", values));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding users by skills offered: {}", e.getMessage());
             throw new RuntimeException("Failed to find users by skills offered", e);
@@ -101,20 +126,11 @@ public class FirebaseUserRepository implements UserRepository {
     }
 
     @Override
-    public List<User> findBySkillsWantedContaining(String skill) {
+    public List<User> findBySkillsWantedContainingAny(Collection<String> skills) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereArrayContains("skillsWanted", skill)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<User> users = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                users.add(user);
-            }
-            return users;
+            List<String> values = List.copyOf(skills);
+            return query("users.findBySkillsWantedContainingAny", values,
+                    collection -> collection.whereArrayContainsAny("skillsWanted", values));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding users by skills wanted: {}", e.getMessage());
             throw new RuntimeException("Failed to find users by skills wanted", e);
@@ -124,18 +140,8 @@ public class FirebaseUserRepository implements UserRepository {
     @Override
     public List<User> findByAvailabilityContaining(String availability) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereArrayContains("availability", availability)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<User> users = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                users.add(user);
-            }
-            return users;
+            return query("users.findByAvailabilityContaining", availability,
+                    collection -> collection.whereArrayContains("availability", availability));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding users by availability: {}", e.getMessage());
             throw new RuntimeException("Failed to find users by availability", e);
@@ -145,18 +151,8 @@ public class FirebaseUserRepository implements UserRepository {
     @Override
     public List<User> findByPublicProfile(boolean publicProfile) {
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("publicProfile", publicProfile)
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<User> users = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                users.add(user);
-            }
-            return users;
+            return query("users.findByPublicProfile", publicProfile,
+                    collection -> collection.whereEqualTo("publicProfile", publicProfile));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error finding users by public profile: {}", e.getMessage());
             throw new RuntimeException("Failed to find users by public profile", e);
@@ -167,30 +163,87 @@ public class FirebaseUserRepository implements UserRepository {
     public List<User> searchUsers(String searchTerm) {
         try {
             // Firestore doesn't support full-text search, so we'll search by name
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
+            return query("users.searchUsers", searchTerm, collection -> collection
                     .whereGreaterThanOrEqualTo("name", searchTerm)
-                    .whereLessThanOrEqualTo("name", searchTerm + '\uf8ff')
-                    .get();
-            QuerySnapshot documents = future.get();
-            
-            List<User> users = new ArrayList<>();
-            for (DocumentSnapshot document : documents) {
-                User user = document.toObject(User.class);
-                user.setId(document.getId());
-                users.add(user);
-            }
-            return users;
+                    .whereLessThanOrEqualTo("name", searchTerm + '\uf8ff'));
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error searching users: {}", e.getMessage());
             throw new RuntimeException("Failed to search users", e);
         }
     }
 
+    @Override
+    public List<User> findByUpdatedAtAfter(com.google.cloud.Timestamp updatedAt) {
+        try {
+            return query("users.findByUpdatedAtAfter", null,
+                    collection -> collection.whereGreaterThan("updatedAt", updatedAt));
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding users updated after {}: {}", updatedAt, e.getMessage());
+            throw new RuntimeException("Failed to find updated users", e);
+        }
+    }
+
+    @Override
+    public List<User> findChangedAfter(com.google.cloud.Timestamp updatedAt, String id, int limit) {
+        try {
+            // Each shard returns its first `limit` changes; the first `limit` of the merge are the overall first
+            List<User> users = query("users.findChangedAfter", null, collection -> {
+                Query query = collection
+                        .orderBy("updatedAt")
+                        .orderBy(FieldPath.documentId())
+                        .limit(limit);
+                return updatedAt != null ? query.startAfter(updatedAt, id) : query;
+            });
+            users.sort(CHANGE_ORDER);
+            return users.size() > limit ? new ArrayList<>(users.subList(0, limit)) : users;
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding users changed after {}: {}", updatedAt, e.getMessage());
+            throw new RuntimeException("Failed to find changed users", e);
+        }
+    }
+
+    @Override
+    public Optional<User> addRating(String id, double rating, Double previous) {
+        try {
+            DocumentReference docRef = shardedFirestore.shardFor(id).collection(COLLECTION_NAME).document(id);
+            User updated = firestoreCalls.write("users.addRating",
+                    () -> docRef.getFirestore().runTransaction(transaction -> {
+                        DocumentSnapshot document = transaction.get(docRef).get();
+                        if (!document.exists()) {
+                            return null;
+                        }
+                        User user = toUser(document);
+                        user.addRating(rating, previous);
+                        user.setUpdatedAt(com.google.cloud.Timestamp.now());
+                        Map<String, Object> fields = new HashMap<>();
+                        fields.put("rating", user.getRating());
+                        fields.put("ratingCount", user.getRatingCount());
+                        fields.put("updatedAt", user.getUpdatedAt());
+                        transaction.update(docRef, fields);
+                        return user;
+                    }));
+            return Optional.ofNullable(updated);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error adding rating to user: {}", e.getMessage());
+            throw new RuntimeException("Failed to add rating to user", e);
+        }
+    }
+
     @Override
     public void deleteById(String id) {
         try {
-            ApiFuture<WriteResult> writeResult = firestore.collection(COLLECTION_NAME).document(id).delete();
-            writeResult.get();
+            Firestore owner = shardedFirestore.shardFor(id);
+            com.google.cloud.Timestamp deletedAt = com.google.cloud.Timestamp.now();
+            firestoreCalls.write("users.deleteById", () -> ShardedFirestore.fanOut(shardedFirestore.readShardsFor(id),
+                    shard -> {
+                        WriteBatch batch = shard.batch();
+                        batch.delete(shard.collection(COLLECTION_NAME).document(id));
+                        if (shard == owner) {
+                            batch.set(shard.collection(TOMBSTONES_COLLECTION_NAME).document(id),
+                                    Map.of("deletedAt", deletedAt));
+                        }
+                        return batch.commit();
+                    }));
             log.info("User deleted successfully with ID: {}", id);
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error deleting user: {}", e.getMessage());
@@ -198,16 +251,75 @@ public class FirebaseUserRepository implements UserRepository {
         }
     }
 
+    @Override
+    public List<String> findDeletedSince(com.google.cloud.Timestamp deletedAt) {
+        try {
+            List<QuerySnapshot> results = firestoreCalls.read("users.findDeletedSince",
+                    () -> ShardedFirestore.fanOut(shardedFirestore.all(), shard -> shard
+                            .collection(TOMBSTONES_COLLECTION_NAME)
+                            .whereGreaterThanOrEqualTo("deletedAt", deletedAt)
+                            .get()));
+            Set<String> ids = new LinkedHashSet<>();
+            for (QuerySnapshot result : results) {
+                for (DocumentSnapshot document : result.getDocuments()) {
+                    ids.add(document.getId());
+                }
+            }
+            return new ArrayList<>(ids);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding users deleted since {}: {}", deletedAt, e.getMessage());
+            throw new RuntimeException("Failed to find deleted users", e);
+        }
+    }
+
     @Override
     public boolean existsById(String id) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
-            return document.exists();
+            List<DocumentSnapshot> documents = firestoreCalls.read("users.existsById",
+                    () -> ShardedFirestore.fanOut(shardedFirestore.readShardsFor(id),
+                            shard -> shard.collection(COLLECTION_NAME).document(id).get()));
+            return documents.stream().anyMatch(DocumentSnapshot::exists);
         } catch (InterruptedException | ExecutionException e) {
             log.error("Error checking if user exists: {}", e.getMessage());
             throw new RuntimeException("Failed to check if user exists", e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Runs a query on every shard in parallel and returns the users found on any of them.
+     */
+    private List<User> query(String operation, Object cacheKey, Function<CollectionReference, Query> query)
+            throws InterruptedException, ExecutionException {
+        List<QuerySnapshot> results = firestoreCalls.read(operation, cacheKey,
+                () -> ShardedFirestore.fanOut(shardedFirestore.all(),
+                        shard -> query.apply(shard.collection(COLLECTION_NAME)).get()));
+        List<DocumentSnapshot> documents = new ArrayList<>();
+        for (QuerySnapshot result : results) {
+            documents.addAll(result.getDocuments());
+        }
+        return toUsers(documents);
+    }
+
+    /**
+     * Converts documents to users. A user read from two shards mid-rebalance is returned once, newest copy first.
+     */
+    private static List<User> toUsers(List<DocumentSnapshot> documents) {
+        Map<String, User> users = new LinkedHashMap<>();
+        for (DocumentSnapshot document : documents) {
+            User user = toUser(document);
+            users.merge(user.getId(), user, (a, b) -> isNewer(b, a) ? b : a);
+        }
+        return new ArrayList<>(users.values());
+    }
+
+    private static boolean isNewer(User candidate, User current) {
+        return candidate.getUpdatedAt() != null
+                && (current.getUpdatedAt() == null || candidate.getUpdatedAt().compareTo(current.getUpdatedAt()) > 0);
+    }
+
+    private static User toUser(DocumentSnapshot document) {
+        User user = document.toObject(User.class);
+        user.setId(document.getId());
+        return user;
+    }
+} 
@@ -0,0 +1,320 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.swap_skill.swapskill.config.FirestoreProperties;
+import com.swap_skill.swapskill.tracing.Span;
+import com.swap_skill.swapskill.tracing.Tracer;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs Firestore calls with a per-operation deadline instead of blocking indefinitely.
+ * Idempotent reads can be hedged: when the first attempt is still running after the operation's observed p95,
+ * a second attempt is sent and whichever succeeds first wins.
+ * <p>
+ * Calls are grouped per repository (the operation name's prefix, e.g. {@code users}) behind a circuit breaker
+ * and a bulkhead, so a degraded Firestore sheds load instead of tying up request threads. Only transient failures
+ * (timeouts and {@code UNAVAILABLE}, {@code DEADLINE_EXCEEDED} or {@code RESOURCE_EXHAUSTED}) count against the
+ * breaker; a rejected call such as {@code FAILED_PRECONDITION} or {@code NOT_FOUND} says nothing about Firestore's
+ * health. Reads given a cache key fall back to their last successful result when they fail transiently or are
+ * shed, but only on a {@linkplain DegradedReads#isReadOnly() read-only} request: writes and the lookups they are
+ * based on always see current data. {@link DegradedReads} records the fallback for the web layer.
+ * <p>
+ * Metrics per operation: {@code firestore.calls} (timer), {@code firestore.timeouts},
+ * {@code firestore.hedges.fired}, {@code firestore.hedges.won}, {@code firestore.rejected}
+ * and {@code firestore.stale.served}. Each call is also traced as a span with the number of documents it returned.
+ */
+@Component
+@Slf4j
+public class FirestoreCalls {
+
+    private static final Set<StatusCode.Code> TRANSIENT_CODES = EnumSet.of(StatusCode.Code.UNAVAILABLE,
+            StatusCode.Code.DEADLINE_EXCEEDED, StatusCode.Code.RESOURCE_EXHAUSTED);
+    private final FirestoreProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final StaleCache staleCache;
+    private final Tracer tracer;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+
+    public FirestoreCalls(FirestoreProperties properties, MeterRegistry meterRegistry, Tracer tracer) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.staleCache = new StaleCache(properties.getStaleCacheSize());
+        this.tracer = tracer;
+    }
+
+    /**
+     * Runs a write or other non-idempotent call, bounded by the operation's deadline.
+     */
+    public <T> T write(String operation, Supplier<ApiFuture<T>> call) throws InterruptedException, ExecutionException {
+        Span span = tracer.start("firestore " + operation);
+        try {
+            T value = guarded(operation, () -> await(operation, call.get()));
+            span.attribute("documents", documentCount(value));
+            return value;
+        } catch (FirestoreUnavailableException | ExecutionException e) {
+            span.fail(e);
+            if (isTransient(e)) {
+                DegradedReads.markUnavailable();
+            }
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Runs an idempotent read, bounded by the operation's deadline and hedged if enabled for the operation.
+     */
+    public <T> T read(String operation, Supplier<ApiFuture<T>> call) throws InterruptedException, ExecutionException {
+        return read(operation, null, call);
+    }
+
+    /**
+     * Like {@link #read(String, Supplier)}, and remembers the result under {@code cacheKey} so it can be served
+     * stale if a later read with the same key, on a read-only request, fails transiently or is shed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String operation, Object cacheKey, Supplier<ApiFuture<T>> call)
+            throws InterruptedException, ExecutionException {
+        String key = cacheKey != null ? operation + ':' + cacheKey : null;
+        Span span = tracer.start("firestore " + operation);
+        try {
+            T value = guarded(operation, () -> hedgedRead(operation, call));
+            if (key != null) {
+                staleCache.put(key, value);
+            }
+            span.attribute("documents", documentCount(value));
+            return value;
+        } catch (FirestoreUnavailableException | ExecutionException e) {
+            span.fail(e);
+            boolean isTransient = isTransient(e);
+            StaleCache.Entry stale = key != null && isTransient && DegradedReads.isReadOnly() ? staleCache.get(key) : null;
+            if (stale == null) {
+                if (isTransient) {
+                    DegradedReads.markUnavailable();
+                }
+                throw e;
+            }
+            log.warn("Serving stale result for {} from {} ms ago: {}", operation, stale.ageMillis(), e.getMessage());
+            counter("firestore.stale.served", operation).increment();
+            DegradedReads.markStale(stale.ageMillis());
+            span.attribute("stale.ageMs", stale.ageMillis())
+                    .attribute("documents", documentCount(stale.value()));
+            return (T) stale.value();
+        } finally {
+            span.end();
+        }
+    }
+
+    private <T> T guarded(String operation, Call<T> call) throws InterruptedException, ExecutionException {
+        String group = group(operation);
+        CircuitBreaker breaker = breakers.computeIfAbsent(group,
+                name -> new CircuitBreaker(name, properties.getCircuitBreaker()));
+        if (!breaker.tryAcquirePermission()) {
+            counter("firestore.rejected", operation).increment();
+            throw new FirestoreUnavailableException("Firestore is unavailable for " + group + ", try again later");
+        }
+        Semaphore bulkhead = bulkheads.computeIfAbsent(group,
+                name -> new Semaphore(properties.getBulkhead().getMaxConcurrentCalls()));
+        if (!bulkhead.tryAcquire(properties.getBulkhead().getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+            breaker.releasePermission();
+            counter("firestore.rejected", operation).increment();
+            throw new FirestoreUnavailableException("Too many concurrent Firestore calls for " + group + ", try again later");
+        }
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return call.run();
+        } catch (ExecutionException | RuntimeException e) {
+            failed = isTransient(e);
+            throw e;
+        } finally {
+            bulkhead.release();
+            breaker.onResult(!failed, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Whether a failure means Firestore is degraded rather than that the call itself was refused: a call shed or
+     * timed out here, or a status of {@code UNAVAILABLE}, {@code DEADLINE_EXCEEDED} or {@code RESOURCE_EXHAUSTED}.
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof FirestoreUnavailableException || e instanceof TimeoutException) {
+                return true;
+            }
+            if (e instanceof ApiException apiException) {
+                return TRANSIENT_CODES.contains(apiException.getStatusCode().getCode());
+            }
+            if (e instanceof FirestoreException firestoreException && firestoreException.getStatus() != null) {
+                Status.Code code = firestoreException.getStatus().getCode();
+                return code == Status.Code.UNAVAILABLE || code == Status.Code.DEADLINE_EXCEEDED
+                        || code == Status.Code.RESOURCE_EXHAUSTED;
+            }
+        }
+        return false;
+    }
+
+    private <T> T await(String operation, ApiFuture<T> future) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long deadlineNanos = properties.deadlineFor(operation).toNanos();
+        try {
+            T value = future.get(deadlineNanos, TimeUnit.NANOSECONDS);
+            timer(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw timedOut(operation, e);
+        }
+    }
+
+    private <T> T hedgedRead(String operation, Supplier<ApiFuture<T>> call) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long deadlineNanos = properties.deadlineFor(operation).toNanos();
+        ApiFuture<T> primary = attempt(operation, call, start);
+
+        long hedgeDelay = properties.hedgeFor(operation) ? hedgeDelayNanos(operation) : -1;
+        if (hedgeDelay < 0 || hedgeDelay >= deadlineNanos) {
+            return await(operation, primary);
+        }
+        try {
+            T value = primary.get(hedgeDelay, TimeUnit.NANOSECONDS);
+            timer(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (TimeoutException e) {
+            // Slower than p95: fall through and race a second attempt
+        }
+
+        counter("firestore.hedges.fired", operation).increment();
+        tracer.current().attribute("hedged", true);
+        ApiFuture<T> hedge = attempt(operation, call, System.nanoTime());
+        CompletableFuture<Boolean> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        ApiFutures.addCallback(primary, race(winner, false, failures), MoreExecutors.directExecutor());
+        ApiFutures.addCallback(hedge, race(winner, true, failures), MoreExecutors.directExecutor());
+        try {
+            boolean hedgeWon = winner.get(deadlineNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+            if (hedgeWon) {
+                counter("firestore.hedges.won", operation).increment();
+                tracer.current().attribute("hedgeWon", true);
+            }
+            timer(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            (hedgeWon ? primary : hedge).cancel(true);
+            return (hedgeWon ? hedge : primary).get();
+        } catch (TimeoutException e) {
+            primary.cancel(true);
+            hedge.cancel(true);
+            throw timedOut(operation, e);
+        }
+    }
+
+    private <T> ApiFuture<T> attempt(String operation, Supplier<ApiFuture<T>> call, long start) {
+        ApiFuture<T> future = call.get();
+        ApiFutures.addCallback(future, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                latencies.computeIfAbsent(operation, k -> new LatencyWindow()).record(System.nanoTime() - start);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Completes {@code winner} with the first successful attempt; if both attempts fail, with the last failure.
+     */
+    private static <T> ApiFutureCallback<T> race(CompletableFuture<Boolean> winner, boolean isHedge,
+                                                 AtomicInteger failures) {
+        return new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                winner.complete(isHedge);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(t);
+                }
+            }
+        };
+    }
+
+    private long hedgeDelayNanos(String operation) {
+        LatencyWindow window = latencies.get(operation);
+        long p95 = window != null ? window.p95Nanos() : -1;
+        return p95 < 0 ? -1 : Math.max(p95, properties.getMinHedgeDelay().toNanos());
+    }
+
+    private ExecutionException timedOut(String operation, TimeoutException cause) {
+        counter("firestore.timeouts", operation).increment();
+        log.warn("Firestore {} exceeded its deadline of {} ms", operation, properties.deadlineFor(operation).toMillis());
+        return new ExecutionException("Firestore " + operation + " timed out", cause);
+    }
+
+    /**
+     * Number of documents in a result, for tracing: query results, document lookups (existing ones only),
+     * and lists of either, e.g. fanned-out reads or batch write results. Null for other results.
+     */
+    private static Integer documentCount(Object value) {
+        if (value instanceof QuerySnapshot snapshot) {
+            return snapshot.size();
+        }
+        if (value instanceof DocumentSnapshot document) {
+            return document.exists() ? 1 : 0;
+        }
+        if (value instanceof List<?> values) {
+            int count = 0;
+            for (Object element : values) {
+                Integer elementCount = documentCount(element);
+                count += elementCount != null ? elementCount : 1;
+            }
+            return count;
+        }
+        return null;
+    }
+
+    private static String group(String operation) {
+        int dot = operation.indexOf('.');
+        return dot < 0 ? operation : operation.substring(0, dot);
+    }
+
+    private Timer timer(String operation) {
+        return meterRegistry.timer("firestore.calls", "operation", operation);
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run() throws InterruptedException, ExecutionException;
+    }
+}
@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.repository;
+
+/**
+ * Thrown without calling Firestore when its circuit breaker is open or its bulkhead is full.
+ */
+public class FirestoreUnavailableException extends RuntimeException {
+
+    public FirestoreUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.swap_skill.swapskill.repository;
+
+/**
+ * A claimed idempotency key: the fingerprint of the request that claimed it, and its response once completed
+ * ({@code null} while that request is still in flight).
+ */
+public record IdempotencyRecord<T>(String fingerprint, T response) {
+} 
@@ -0,0 +1,25 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.Timestamp;
+
+import java.util.Optional;
+
+/**
+ * Idempotency keys shared between instances. Keys are claimed atomically so only one instance executes a request.
+ */
+public interface IdempotencyRepository {
+
+    /**
+     * Claims {@code id} for the request with the given fingerprint. The claim holds a lease until {@code leaseUntil};
+     * if the key is still in flight once its lease has run out, e.g. because the instance running it died, a claim
+     * for the same request takes it over.
+     *
+     * @return empty if the claim succeeded, otherwise the unexpired record that already holds the key
+     */
+    <T> Optional<IdempotencyRecord<T>> claim(String id, String fingerprint, Timestamp expiresAt, Timestamp leaseUntil,
+                                             Class<T> responseType);
+
+    void complete(String id, Object response);
+
+    void release(String id);
+} 
@@ -0,0 +1,207 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.eventlog.SwapEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Heap-backed swap request store for load tests and local runs without Firestore (profile {@code inmemory}).
+ * Events are kept in one list, the single source {@value #EVENT_SOURCE}.
+ */
+@Repository
+@Profile("inmemory")
+@Slf4j
+public class InMemorySwapRequestRepository implements SwapRequestRepository {
+
+    private static final String EVENT_SOURCE = "memory";
+
+    private final Map<String, SwapRequest> swapRequests = new ConcurrentHashMap<>();
+    private final Map<String, String> keyHolders = new HashMap<>();
+    private final List<SwapEvent> events = new ArrayList<>();
+    private long lastEventTimestamp;
+
+    @Override
+    public synchronized SwapRequest save(SwapRequest swapRequest, SwapEvent.Type type) {
+        store(swapRequest);
+        recordEvent(type, swapRequest);
+        return swapRequest;
+    }
+
+    private void store(SwapRequest swapRequest) {
+        if (swapRequest.getId() == null) {
+            swapRequest.setId(UUID.randomUUID().toString());
+            swapRequest.setCreatedAt(Timestamp.now());
+        }
+        swapRequest.setUpdatedAt(Timestamp.now());
+        swapRequests.put(swapRequest.getId(), swapRequest.toBuilder().build());
+    }
+
+    @Override
+    public synchronized Optional<String> createUnlessPending(SwapRequest swapRequest, String key) {
+        String holderId = keyHolders.get(key);
+        SwapRequest holder = holderId != null ? swapRequests.get(holderId) : null;
+        if (holder != null && holder.getStatus() == SwapRequest.SwapStatus.PENDING) {
+            return Optional.of(holderId);
+        }
+        save(swapRequest, SwapEvent.Type.CREATED);
+        keyHolders.put(key, swapRequest.getId());
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized SaveAllResult saveAll(List<SwapRequest> swapRequests) {
+        List<SwapRequest> saved = new ArrayList<>();
+        List<SwapRequest> conflicts = new ArrayList<>();
+        for (SwapRequest swapRequest : swapRequests) {
+            SwapRequest stored = this.swapRequests.get(swapRequest.getId());
+            if (stored == null || !Objects.equals(stored.getUpdatedAt(), swapRequest.getUpdatedAt())) {
+                conflicts.add(swapRequest);
+                continue;
+            }
+            save(swapRequest, SwapEvent.Type.forStatus(swapRequest.getStatus()));
+            saved.add(swapRequest);
+        }
+        return new SaveAllResult(saved, conflicts);
+    }
+
+    @Override
+    public Optional<SwapRequest> findById(String id) {
+        return Optional.ofNullable(swapRequests.get(id)).map(swapRequest -> swapRequest.toBuilder().build());
+    }
+
+    @Override
+    public List<SwapRequest> findAllById(Collection<String> ids) {
+        List<SwapRequest> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            SwapRequest swapRequest = swapRequests.get(id);
+            if (swapRequest != null) {
+                result.add(swapRequest.toBuilder().build());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<SwapRequest> findByFromUserId(String fromUserId) {
+        return find(swapRequest -> fromUserId.equals(swapRequest.getFromUserId()));
+    }
+
+    @Override
+    public List<SwapRequest> findByToUserId(String toUserId) {
+        return find(swapRequest -> toUserId.equals(swapRequest.getToUserId()));
+    }
+
+    @Override
+    public List<SwapRequest> findByFromUserIdCreatedBefore(String fromUserId, Timestamp createdAt, String id, int limit) {
+        return findCreatedBefore(swapRequest -> fromUserId.equals(swapRequest.getFromUserId()), createdAt, id, limit);
+    }
+
+    @Override
+    public List<SwapRequest> findByToUserIdCreatedBefore(String toUserId, Timestamp createdAt, String id, int limit) {
+        return findCreatedBefore(swapRequest -> toUserId.equals(swapRequest.getToUserId()), createdAt, id, limit);
+    }
+
+    @Override
+    public List<SwapRequest> findByFromUserIdAndStatus(String fromUserId, SwapRequest.SwapStatus status) {
+        return find(swapRequest -> fromUserId.equals(swapRequest.getFromUserId()) && swapRequest.getStatus() == status);
+    }
+
+    @Override
+    public List<SwapRequest> findByToUserIdAndStatus(String toUserId, SwapRequest.SwapStatus status) {
+        return find(swapRequest -> toUserId.equals(swapRequest.getToUserId()) && swapRequest.getStatus() == status);
+    }
+
+    @Override
+    public List<SwapRequest> findByStatus(SwapRequest.SwapStatus status) {
+        return find(swapRequest -> swapRequest.getStatus() == status);
+    }
+
+    @Override
+    public List<SwapRequest> findChangedAfter(Timestamp updatedAt, String id, int limit) {
+        Comparator<SwapRequest> order = Comparator.comparing(SwapRequest::getUpdatedAt).thenComparing(SwapRequest::getId);
+        SwapRequest position = updatedAt != null ? SwapRequest.builder().updatedAt(updatedAt).id(id).build() : null;
+        return swapRequests.values().stream()
+                .filter(value -> value.getUpdatedAt() != null)
+                .filter(value -> position == null || order.compare(value, position) > 0)
+                .sorted(order)
+                .limit(limit)
+                .map(value -> value.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void delete(SwapRequest swapRequest) {
+        swapRequests.remove(swapRequest.getId());
+        recordEvent(SwapEvent.Type.DELETED, swapRequest);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return swapRequests.containsKey(id);
+    }
+
+    @Override
+    public List<String> eventSources() {
+        return List.of(EVENT_SOURCE);
+    }
+
+    @Override
+    public synchronized List<SwapEvent> findEventsAfter(String source, long timestamp, String eventId, int limit) {
+        if (!EVENT_SOURCE.equals(source)) {
+            return new ArrayList<>();
+        }
+        // Timestamps are unique and increasing, so the position is the first event with a later one
+        int start = 0;
+        if (eventId != null) {
+            int end = events.size();
+            while (start < end) {
+                int middle = (start + end) >>> 1;
+                if (events.get(middle).timestamp() <= timestamp) {
+                    start = middle + 1;
+                } else {
+                    end = middle;
+                }
+            }
+        }
+        return new ArrayList<>(events.subList(start, Math.min(start + limit, events.size())));
+    }
+
+    /**
+     * Records an event with a unique timestamp in epoch microseconds. Callers hold the lock.
+     */
+    private void recordEvent(SwapEvent.Type type, SwapRequest swapRequest) {
+        long timestamp = Math.max(lastEventTimestamp + 1, System.currentTimeMillis() * 1000);
+        lastEventTimestamp = timestamp;
+        events.add(SwapEvent.of(type, swapRequest, timestamp, EVENT_SOURCE, UUID.randomUUID().toString()));
+    }
+
+    private List<SwapRequest> findCreatedBefore(Predicate<SwapRequest> filter, Timestamp createdAt, String id, int limit) {
+        Comparator<SwapRequest> newestFirst = Comparator.comparing(SwapRequest::getCreatedAt)
+                .thenComparing(SwapRequest::getId)
+                .reversed();
+        SwapRequest position = createdAt != null ? SwapRequest.builder().createdAt(createdAt).id(id).build() : null;
+        return swapRequests.values().stream()
+                .filter(filter)
+                .filter(swapRequest -> swapRequest.getCreatedAt() != null)
+                .filter(swapRequest -> position == null || newestFirst.compare(swapRequest, position) > 0)
+                .sorted(newestFirst)
+                .limit(limit)
+                .map(swapRequest -> swapRequest.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+
+    private List<SwapRequest> find(Predicate<SwapRequest> filter) {
+        return swapRequests.values().stream()
+                .filter(filter)
+                .map(swapRequest -> swapRequest.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,140 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Heap-backed user store for load tests and local runs without Firestore (profile {@code inmemory}).
+ * Returns copies so callers cannot mutate stored users.
+ */
+@Repository
+@Profile("inmemory")
+@Slf4j
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Timestamp> tombstones = new ConcurrentHashMap<>();
+
+    @Override
+    public User save(User user) {
+        if (user.getId() == null) {
+            user.setId(UUID.randomUUID().toString());
+            user.setCreatedAt(Timestamp.now());
+        }
+        user.setUpdatedAt(Timestamp.now());
+        users.put(user.getId(), user.toBuilder().build());
+        return user;
+    }
+
+    @Override
+    public Optional<User> addRating(String id, double rating, Double previous) {
+        User updated = users.computeIfPresent(id, (key, user) -> {
+            User copy = user.toBuilder().build();
+            copy.addRating(rating, previous);
+            copy.setUpdatedAt(Timestamp.now());
+            return copy;
+        });
+        return Optional.ofNullable(updated).map(user -> user.toBuilder().build());
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(users.get(id)).map(user -> user.toBuilder().build());
+    }
+
+    @Override
+    public List<User> findAllById(Collection<String> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(user.toBuilder().build());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return find(user -> true);
+    }
+
+    @Override
+    public List<User> findBySkillsOfferedContainingAny(Collection<String> skills) {
+        return find(user -> user.getSkillsOffered() != null
+                && user.getSkillsOffered().stream().anyMatch(skills::contains));
+    }
+
+    @Override
+    public List<User> findBySkillsWantedContainingAny(Collection<String> skills) {
+        return find(user -> user.getSkillsWanted() != null
+                && user.getSkillsWanted().stream().anyMatch(skills::contains));
+    }
+
+    @Override
+    public List<User> findByAvailabilityContaining(String availability) {
+        return find(user -> user.getAvailability() != null && user.getAvailability().contains(availability));
+    }
+
+    @Override
+    public List<User> findByPublicProfile(boolean publicProfile) {
+        return find(user -> user.isPublicProfile() == publicProfile);
+    }
+
+    @Override
+    public List<User> searchUsers(String searchTerm) {
+        return find(user -> user.getName() != null && user.getName().startsWith(searchTerm));
+    }
+
+    @Override
+    public List<User> findByUpdatedAtAfter(Timestamp updatedAt) {
+        return find(user -> user.getUpdatedAt() != null && user.getUpdatedAt().compareTo(updatedAt) > 0);
+    }
+
+    @Override
+    public List<User> findChangedAfter(Timestamp updatedAt, String id, int limit) {
+        Comparator<User> order = Comparator.comparing(User::getUpdatedAt).thenComparing(User::getId);
+        User position = updatedAt != null ? User.builder().updatedAt(updatedAt).id(id).build() : null;
+        return users.values().stream()
+                .filter(value -> value.getUpdatedAt() != null)
+                .filter(value -> position == null || order.compare(value, position) > 0)
+                .sorted(order)
+                .limit(limit)
+                .map(value -> value.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteById(String id) {
+        users.remove(id);
+        tombstones.put(id, Timestamp.now());
+    }
+
+    @Override
+    public List<String> findDeletedSince(Timestamp deletedAt) {
+        return tombstones.entrySet().stream()
+                .filter(tombstone -> tombstone.getValue().compareTo(deletedAt) >= 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return users.containsKey(id);
+    }
+
+    private List<User> find(Predicate<User> filter) {
+        return users.values().stream()
+                .filter(filter)
+                .map(user -> user.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,38 @@
+package com.swap_skill.swapskill.repository;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of the most recent call latencies with a periodically recomputed 95th percentile.
+ */
+final class LatencyWindow {
+
+    private static final int CAPACITY = 1024;
+    private static final int MIN_SAMPLES = 100;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final long[] samples = new long[CAPACITY];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long p95Nanos = -1;
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % CAPACITY;
+        count = Math.min(count + 1, CAPACITY);
+        if (++sinceRecompute >= RECOMPUTE_EVERY && count >= MIN_SAMPLES) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * Observed p95 latency, or -1 until enough samples have been recorded.
+     */
+    long p95Nanos() {
+        return p95Nanos;
+    }
+}
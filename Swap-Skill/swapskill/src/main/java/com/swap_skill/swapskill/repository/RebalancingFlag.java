@@ -0,0 +1,68 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The rebalancing flag shared by all instances, kept in the {@code sharding/state} document on the first shard.
+ * Every instance polls it and fans routed reads out to every shard while it is set (or while
+ * {@code sharding.rebalancing} is configured), so documents being moved by a rebalance on any instance stay visible.
+ */
+@Component
+@Profile("!inmemory")
+@Slf4j
+public class RebalancingFlag {
+
+    private static final String COLLECTION_NAME = "sharding";
+    private static final String DOCUMENT_ID = "state";
+    private final ShardedFirestore shardedFirestore;
+    private final FirestoreCalls firestoreCalls;
+    private final long refreshMs;
+
+    public RebalancingFlag(ShardedFirestore shardedFirestore, FirestoreCalls firestoreCalls,
+                           @Value("${sharding.flag-refresh-ms:5000}") long refreshMs) {
+        this.shardedFirestore = shardedFirestore;
+        this.firestoreCalls = firestoreCalls;
+        this.refreshMs = refreshMs;
+    }
+
+    /**
+     * How long until every instance has seen a change of the flag.
+     */
+    public long propagationMs() {
+        return refreshMs;
+    }
+
+    public void set(boolean rebalancing) throws InterruptedException, ExecutionException {
+        firestoreCalls.write("shards.setRebalancing", () -> document().set(Map.of("rebalancing", rebalancing)));
+        shardedFirestore.setRebalancing(rebalancing);
+        log.info("Shared rebalancing flag set to {}", rebalancing);
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.flag-refresh-ms:5000}")
+    public void refresh() {
+        try {
+            DocumentSnapshot state = firestoreCalls.read("shards.getRebalancing", () -> document().get());
+            boolean rebalancing = state.exists() && Boolean.TRUE.equals(state.getBoolean("rebalancing"));
+            if (rebalancing != shardedFirestore.isSharedRebalancing()) {
+                log.info("Shared rebalancing flag changed to {}", rebalancing);
+                shardedFirestore.setRebalancing(rebalancing);
+            }
+        } catch (InterruptedException | ExecutionException | RuntimeException e) {
+            // Keep the last known value; reads stay fanned out if it was set
+            log.warn("Error reading the shared rebalancing flag: {}", e.getMessage());
+        }
+    }
+
+    private DocumentReference document() {
+        return shardedFirestore.all().get(0).collection(COLLECTION_NAME).document(DOCUMENT_ID);
+    }
+} 
\ No newline at end of file
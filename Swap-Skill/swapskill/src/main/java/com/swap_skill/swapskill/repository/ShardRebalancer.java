@@ -0,0 +1,172 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.swap_skill.swapskill.index.SwapRequestKeyIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Moves users and swap requests that sit on a shard other than their owner under the current hash ring, e.g.
+ * after a shard was added. Each document is copied to its owner unless the owner already holds a newer copy,
+ * then deleted from the old shard only if it did not change in the meantime. A swap request's duplicate guard in
+ * {@code swap_keys} moves with it, in the same transaction on the owner. Runs are idempotent: documents
+ * skipped because of a concurrent change are picked up by the next run.
+ * <p>
+ * A run sets the shared {@link RebalancingFlag} and waits for every instance to see it before moving anything, so
+ * routed reads go to every shard on all instances while documents move. The flag is cleared only after a run that
+ * skipped nothing; until then documents may still sit on their old shard and reads stay fanned out.
+ */
+@Component
+@Profile("!inmemory")
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String USERS = "users";
+    private static final String SWAPS = "swaps";
+    private static final String KEYS = FirebaseSwapRequestRepository.KEYS_COLLECTION_NAME;
+    private static final int PAGE_SIZE = 500;
+    private final ShardedFirestore shardedFirestore;
+    private final FirestoreCalls firestoreCalls;
+    private final RebalancingFlag rebalancingFlag;
+
+    public ShardRebalancer(ShardedFirestore shardedFirestore, FirestoreCalls firestoreCalls,
+                           RebalancingFlag rebalancingFlag) {
+        this.shardedFirestore = shardedFirestore;
+        this.firestoreCalls = firestoreCalls;
+        this.rebalancingFlag = rebalancingFlag;
+    }
+
+    public synchronized Result rebalance() {
+        try {
+            rebalancingFlag.set(true);
+            Thread.sleep(rebalancingFlag.propagationMs());
+            Result result = new Result(0, 0, 0);
+            for (Map.Entry<String, Firestore> shard : shardedFirestore.byName().entrySet()) {
+                result = result.plus(rebalance(shard.getKey(), shard.getValue(), USERS));
+                result = result.plus(rebalance(shard.getKey(), shard.getValue(), SWAPS));
+            }
+            log.info("Shard rebalance finished: {} users and {} swap requests moved, {} skipped",
+                    result.usersMoved(), result.swapsMoved(), result.skipped());
+            if (result.skipped() == 0) {
+                rebalancingFlag.set(false);
+            } else {
+                log.warn("{} documents were skipped; reads stay on every shard until a run skips none",
+                        result.skipped());
+            }
+            return result;
+        } catch (InterruptedException | ExecutionException e) {
+            // The flag stays set, so documents left on their old shard remain readable
+            log.error("Error rebalancing shards: {}", e.getMessage());
+            throw new RuntimeException("Failed to rebalance shards", e);
+        }
+    }
+
+    private Result rebalance(String shardName, Firestore shard, String collectionName)
+            throws InterruptedException, ExecutionException {
+        int moved = 0;
+        int skipped = 0;
+        String lastId = null;
+        while (true) {
+            Query query = shard.collection(collectionName).orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+            Query page = lastId != null ? query.startAfter(lastId) : query;
+            List<QueryDocumentSnapshot> documents = firestoreCalls.read("shards.scan", page::get).getDocuments();
+            for (QueryDocumentSnapshot document : documents) {
+                String owner = shardedFirestore.shardNameFor(ownerKey(collectionName, document));
+                if (owner.equals(shardName)) {
+                    continue;
+                }
+                if (move(document, shardedFirestore.byName().get(owner), collectionName)) {
+                    moved++;
+                } else {
+                    skipped++;
+                }
+            }
+            if (documents.size() < PAGE_SIZE) {
+                break;
+            }
+            lastId = documents.get(documents.size() - 1).getId();
+        }
+        if (moved > 0 || skipped > 0) {
+            log.info("Moved {} {} off shard {} ({} skipped)", moved, collectionName, shardName, skipped);
+        }
+        return USERS.equals(collectionName) ? new Result(moved, 0, skipped) : new Result(0, moved, skipped);
+    }
+
+    /**
+     * Copies the document to its owner and deletes it from its current shard.
+     *
+     * @return false if the document changed while being moved and was left in place
+     */
+    private boolean move(QueryDocumentSnapshot document, Firestore owner, String collectionName)
+            throws InterruptedException, ExecutionException {
+        DocumentReference target = owner.collection(collectionName).document(document.getId());
+        Timestamp updatedAt = document.getTimestamp("updatedAt");
+        DocumentSnapshot key = SWAPS.equals(collectionName) ? guardOf(document) : null;
+        DocumentReference targetKey = key != null ? owner.collection(KEYS).document(key.getId()) : null;
+        firestoreCalls.write("shards.copy", () -> owner.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(target).get();
+            DocumentSnapshot existingKey = targetKey != null ? transaction.get(targetKey).get() : null;
+            Timestamp existingUpdatedAt = existing.exists() ? existing.getTimestamp("updatedAt") : null;
+            if (!existing.exists() || existingUpdatedAt == null
+                    || (updatedAt != null && updatedAt.compareTo(existingUpdatedAt) > 0)) {
+                transaction.set(target, document.getData());
+            }
+            // A guard already on the owner belongs to a newer request and is kept
+            if (existingKey != null && !existingKey.exists()) {
+                transaction.set(targetKey, key.getData());
+            }
+            return null;
+        }));
+        try {
+            firestoreCalls.write("shards.delete",
+                    () -> document.getReference().delete(Precondition.updatedAt(document.getUpdateTime())));
+        } catch (ExecutionException e) {
+            log.warn("{} {} changed while being moved, leaving it for the next run: {}",
+                    collectionName, document.getId(), e.getMessage());
+            return false;
+        }
+        if (key != null) {
+            try {
+                firestoreCalls.write("shards.delete",
+                        () -> key.getReference().delete(Precondition.updatedAt(key.getUpdateTime())));
+            } catch (ExecutionException e) {
+                // Taken over by a newer request on the old shard; that request's own guard stays with it
+                log.warn("Swap key {} changed while being moved, leaving it in place: {}", key.getId(), e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The duplicate guard on the swap request's current shard, if it still names this request.
+     */
+    private DocumentSnapshot guardOf(QueryDocumentSnapshot swap) throws InterruptedException, ExecutionException {
+        String keyId = FirebaseSwapRequestRepository.keyDocumentId(SwapRequestKeyIndex.keyOf(
+                swap.getString("fromUserId"), swap.getString("toUserId"),
+                swap.getString("skillOffered"), swap.getString("skillWanted")));
+        DocumentReference keyRef = swap.getReference().getFirestore().collection(KEYS).document(keyId);
+        DocumentSnapshot key = firestoreCalls.read("shards.scan", keyRef::get);
+        return key.exists() && swap.getId().equals(key.getString("swapId")) ? key : null;
+    }
+
+    private static String ownerKey(String collectionName, DocumentSnapshot document) {
+        if (SWAPS.equals(collectionName)) {
+            String fromUserId = document.getString("fromUserId");
+            return fromUserId != null ? fromUserId : document.getId();
+        }
+        return document.getId();
+    }
+
+    public record Result(int usersMoved, int swapsMoved, int skipped) {
+
+        Result plus(Result other) {
+            return new Result(usersMoved + other.usersMoved, swapsMoved + other.swapsMoved, skipped + other.skipped);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.Firestore;
+import com.swap_skill.swapskill.util.Hashing;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The Firestore databases that users and swap requests are spread over. Users are placed by a consistent hash of
+ * their ID and swap requests live with their sender ({@code fromUserId}), so a user's profile and outgoing swaps
+ * share a shard. With a single shard every call goes to it, exactly as before sharding.
+ * <p>
+ * Swap request IDs start with the sender's ring hash ({@code <16 hex digits>-<uuid>}), so a lookup by ID goes
+ * straight to the owning shard, even after the ring changes. IDs without that prefix predate it and are read from
+ * every shard.
+ * <p>
+ * While shards are rebalanced, a document may still sit on its previous shard, so routed reads go to every shard,
+ * owner first. That is the case while {@code sharding.rebalancing} is configured or the shared flag kept by
+ * {@link RebalancingFlag} is set.
+ */
+public class ShardedFirestore {
+
+    private static final Pattern ROUTED_SWAP_ID = Pattern.compile("^([0-9a-f]{16})-");
+
+    private final Map<String, Firestore> shards;
+    private final List<Firestore> all;
+    private final ConsistentHashRing ring;
+    private final boolean configuredRebalancing;
+    private volatile boolean sharedRebalancing;
+
+    public ShardedFirestore(Map<String, Firestore> shards, int virtualNodes, boolean rebalancing) {
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        this.all = List.copyOf(shards.values());
+        this.ring = new ConsistentHashRing(shards.keySet(), virtualNodes);
+        this.configuredRebalancing = rebalancing;
+    }
+
+    /**
+     * Starts {@code call} on every given shard at once; the result completes when all of them have.
+     */
+    public static <T> ApiFuture<List<T>> fanOut(Collection<Firestore> shards, Function<Firestore, ApiFuture<T>> call) {
+        List<ApiFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Firestore shard : shards) {
+            futures.add(call.apply(shard));
+        }
+        return ApiFutures.allAsList(futures);
+    }
+
+    public String shardNameFor(String userId) {
+        return ring.nodeFor(userId);
+    }
+
+    /**
+     * The shard that owns the user's documents; all writes go here.
+     */
+    public Firestore shardFor(String userId) {
+        return shards.get(ring.nodeFor(userId));
+    }
+
+    /**
+     * The shards to read a user's documents from: the owner, or every shard (owner first) while rebalancing.
+     */
+    public List<Firestore> readShardsFor(String userId) {
+        return readShards(shardFor(userId));
+    }
+
+    /**
+     * A new swap request ID that routes to the sender's shard.
+     */
+    public String newSwapId(String fromUserId) {
+        return String.format("%016x-%s", Hashing.hash64(fromUserId), UUID.randomUUID());
+    }
+
+    /**
+     * The shards to read a swap request from: its owner, found from the ID, or every shard (owner first) while
+     * rebalancing. IDs without a routing prefix are read from every shard.
+     */
+    public List<Firestore> readShardsForSwap(String swapId) {
+        Matcher matcher = ROUTED_SWAP_ID.matcher(swapId);
+        if (!matcher.find()) {
+            return all;
+        }
+        return readShards(shards.get(ring.nodeForHash(Long.parseUnsignedLong(matcher.group(1), 16))));
+    }
+
+    /**
+     * Groups swap request IDs by the shards to read them from.
+     */
+    public Map<Firestore, List<String>> readGroupsForSwaps(Collection<String> swapIds) {
+        Map<Firestore, List<String>> groups = new LinkedHashMap<>();
+        for (String swapId : swapIds) {
+            for (Firestore shard : readShardsForSwap(swapId)) {
+                groups.computeIfAbsent(shard, s -> new ArrayList<>()).add(swapId);
+            }
+        }
+        return groups;
+    }
+
+    private List<Firestore> readShards(Firestore owner) {
+        if (!isRebalancing() || all.size() == 1) {
+            return List.of(owner);
+        }
+        List<Firestore> shardsToRead = new ArrayList<>(all.size());
+        shardsToRead.add(owner);
+        for (Firestore shard : all) {
+            if (shard != owner) {
+                shardsToRead.add(shard);
+            }
+        }
+        return shardsToRead;
+    }
+
+    /**
+     * Groups user IDs by the shards to read them from.
+     */
+    public Map<Firestore, List<String>> readGroupsFor(Collection<String> userIds) {
+        Map<Firestore, List<String>> groups = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            for (Firestore shard : readShardsFor(userId)) {
+                groups.computeIfAbsent(shard, s -> new ArrayList<>()).add(userId);
+            }
+        }
+        return groups;
+    }
+
+    public List<Firestore> all() {
+        return all;
+    }
+
+    public Map<String, Firestore> byName() {
+        return shards;
+    }
+
+    public boolean isRebalancing() {
+        return configuredRebalancing || sharedRebalancing;
+    }
+
+    boolean isSharedRebalancing() {
+        return sharedRebalancing;
+    }
+
+    /**
+     * Records the last value read from or written to the shared flag; see {@link RebalancingFlag}.
+     */
+    void setRebalancing(boolean rebalancing) {
+        this.sharedRebalancing = rebalancing;
+    }
+} 
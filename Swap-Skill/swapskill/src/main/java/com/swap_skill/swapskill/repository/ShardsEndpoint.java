@@ -0,0 +1,41 @@
+package com.swap_skill.swapskill.repository;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/shards}: lists the Firestore shards and, on POST, moves documents onto their owning shard.
+ * Not exposed by default; expose it on an internal management port only.
+ */
+@Component
+@Profile("!inmemory")
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardedFirestore shardedFirestore;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardsEndpoint(ShardedFirestore shardedFirestore, ShardRebalancer shardRebalancer) {
+        this.shardedFirestore = shardedFirestore;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> shards = new LinkedHashMap<>();
+        shards.put("shards", shardedFirestore.byName().keySet());
+        shards.put("rebalancing", shardedFirestore.isRebalancing());
+        return shards;
+    }
+
+    @WriteOperation
+    public ShardRebalancer.Result rebalance() {
+        return shardRebalancer.rebalance();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.swap_skill.swapskill.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used store of the last successful result per read, served when Firestore is degraded.
+ */
+final class StaleCache {
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    StaleCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized void put(String key, Object value) {
+        entries.put(key, new Entry(value, System.currentTimeMillis()));
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    record Entry(Object value, long storedAt) {
+
+        long ageMillis() {
+            return System.currentTimeMillis() - storedAt;
+        }
+    }
+}
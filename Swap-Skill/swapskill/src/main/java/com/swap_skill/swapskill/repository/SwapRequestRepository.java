@@ -1,16 +1,73 @@
 package com.swap_skill.swapskill.repository;
 
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.eventlog.SwapEvent;
 import com.swap_skill.swapskill.model.SwapRequest;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Swap requests and the events of their changes. Every write records an event of the change in the same atomic
+ * write, so the events (read back with {@link #findEventsAfter}) hold exactly the changes that happened.
+ */
 public interface SwapRequestRepository {
-    SwapRequest save(SwapRequest swapRequest);
+    /**
+     * Saves the swap request and records a {@code type} event of the change.
+     */
+    SwapRequest save(SwapRequest swapRequest, SwapEvent.Type type);
+    /**
+     * Saves a new swap request unless {@code key} is held by another swap request that is still pending, and
+     * records its {@code CREATED} event. The check and the write are atomic across instances.
+     *
+     * @return the ID of the pending swap request holding the key, or empty if the new request was saved
+     */
+    Optional<String> createUnlessPending(SwapRequest swapRequest, String key);
+    /**
+     * Saves changes to existing swap requests in chunks that each commit atomically, each with an event of the
+     * status it moved to. A request is saved only if its stored copy still has the {@code updatedAt} it was read
+     * with; otherwise it was changed concurrently and is reported as a conflict. A failed chunk does not stop the
+     * others.
+     *
+     * @return the swap requests saved and those that conflicted, each in the order given
+     */
+    SaveAllResult saveAll(List<SwapRequest> swapRequests);
     Optional<SwapRequest> findById(String id);
+    List<SwapRequest> findAllById(Collection<String> ids);
     List<SwapRequest> findByFromUserId(String fromUserId);
     List<SwapRequest> findByToUserId(String toUserId);
+    /**
+     * Returns up to {@code limit} swap requests sent by the user, newest first by (createdAt, id), strictly before
+     * the given position; a {@code null} createdAt starts from the newest.
+     */
+    List<SwapRequest> findByFromUserIdCreatedBefore(String fromUserId, Timestamp createdAt, String id, int limit);
+    /**
+     * Like {@link #findByFromUserIdCreatedBefore}, for swap requests received by the user.
+     */
+    List<SwapRequest> findByToUserIdCreatedBefore(String toUserId, Timestamp createdAt, String id, int limit);
     List<SwapRequest> findByFromUserIdAndStatus(String fromUserId, SwapRequest.SwapStatus status);
     List<SwapRequest> findByToUserIdAndStatus(String toUserId, SwapRequest.SwapStatus status);
-    void deleteById(String id);
+    List<SwapRequest> findByStatus(SwapRequest.SwapStatus status);
+    /**
+     * Returns up to {@code limit} swap requests ordered by (updatedAt, id), starting after the given position;
+     * a {@code null} updatedAt starts from the beginning.
+     */
+    List<SwapRequest> findChangedAfter(Timestamp updatedAt, String id, int limit);
+    /**
+     * Deletes the swap request and records its {@code DELETED} event.
+     */
+    void delete(SwapRequest swapRequest);
     boolean existsById(String id);
+    /**
+     * Names of the event sources; each one keeps its events in commit order.
+     */
+    List<String> eventSources();
+    /**
+     * Returns up to {@code limit} events of {@code source} ordered by (timestamp, eventId), starting after the given
+     * position; a {@code null} eventId starts from the beginning. The events are not yet in the log (sequence 0).
+     */
+    List<SwapEvent> findEventsAfter(String source, long timestamp, String eventId, int limit);
+
+    record SaveAllResult(List<SwapRequest> saved, List<SwapRequest> conflicts) {
+    }
 } 
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.swap_skill.swapskill.repository;
 
+import com.google.cloud.Timestamp;
 import com.swap_skill.swapskill.model.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
@@ -8,12 +10,32 @@ import java.util.concurrent.ExecutionException;
 public interface UserRepository {
     User save(User user);
     Optional<User> findById(String id);
+    List<User> findAllById(Collection<String> ids);
     List<User> findAll();
-    List<User> findBySkillsOfferedContaining(String skill);
-    List<User> findBySkillsWantedContaining(String skill);
+    List<User> findBySkillsOfferedContainingAny(Collection<String> skills);
+    List<User> findBySkillsWantedContainingAny(Collection<String> skills);
     List<User> findByAvailabilityContaining(String availability);
     List<User> findByPublicProfile(boolean publicProfile);
     List<User> searchUsers(String searchTerm);
+    List<User> findByUpdatedAtAfter(Timestamp updatedAt);
+    /**
+     * Returns up to {@code limit} users ordered by (updatedAt, id), starting after the given position;
+     * a {@code null} updatedAt starts from the beginning.
+     */
+    List<User> findChangedAfter(Timestamp updatedAt, String id, int limit);
+    /**
+     * Folds a swap rating into the user's average {@code rating} atomically and returns the updated user.
+     * A non-null {@code previous} is the value the same swap was rated before and is replaced, not added.
+     */
+    Optional<User> addRating(String id, double rating, Double previous);
+    /**
+     * Deletes the user and leaves a tombstone, so readers catching up with {@link #findChangedAfter} can tell
+     * the user is gone.
+     */
     void deleteById(String id);
+    /**
+     * Returns the IDs of users deleted at or after {@code deletedAt}, from their tombstones.
+     */
+    List<String> findDeletedSince(Timestamp deletedAt);
     boolean existsById(String id);
 } 
\ No newline at end of file
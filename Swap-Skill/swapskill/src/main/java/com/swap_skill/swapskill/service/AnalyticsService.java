@@ -0,0 +1,10 @@
+package com.swap_skill.swapskill.service;
+
+import com.swap_skill.swapskill.dto.SkillDemandDto;
+
+import java.util.List;
+
+public interface AnalyticsService {
+    List<SkillDemandDto> getSkillGaps(int limit);
+    SkillDemandDto getSkillDemand(String skill);
+}
@@ -0,0 +1,7 @@
+package com.swap_skill.swapskill.service;
+
+import com.swap_skill.swapskill.dto.DashboardDto;
+
+public interface DashboardService {
+    DashboardDto getDashboard(String userId, boolean expandUsers);
+}
@@ -0,0 +1,13 @@
+package com.swap_skill.swapskill.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code action} at most once per {@code scope} and idempotency key. A retry with the same key and request
+     * gets the first result back; a concurrent retry waits for the first execution. Without a key the action
+     * simply runs.
+     */
+    <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action);
+} 
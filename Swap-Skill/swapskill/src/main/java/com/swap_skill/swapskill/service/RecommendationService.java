@@ -0,0 +1,11 @@
+package com.swap_skill.swapskill.service;
+
+import com.swap_skill.swapskill.dto.RecommendationDto;
+import com.swap_skill.swapskill.dto.SimilarUserDto;
+
+import java.util.List;
+
+public interface RecommendationService {
+    RecommendationDto getRecommendations(String userId);
+    List<SimilarUserDto> getSimilarUsers(String userId, int limit);
+}
@@ -0,0 +1,12 @@
+package com.swap_skill.swapskill.service;
+
+import com.swap_skill.swapskill.dto.LeaderboardEntryDto;
+import com.swap_skill.swapskill.dto.SkillSuggestionDto;
+
+import java.util.List;
+
+public interface SkillService {
+    List<SkillSuggestionDto> autocomplete(String prefix, int limit);
+    List<LeaderboardEntryDto> getTopTeachers(String skill, int offset, int limit);
+    LeaderboardEntryDto getTeacherRank(String skill, String userId);
+}
@@ -0,0 +1,9 @@
+package com.swap_skill.swapskill.service;
+
+import com.swap_skill.swapskill.dto.SwapCycleDto;
+
+import java.util.List;
+
+public interface SwapCycleService {
+    List<SwapCycleDto> findSwapCycles(String userId, int maxLength, int limit);
+}
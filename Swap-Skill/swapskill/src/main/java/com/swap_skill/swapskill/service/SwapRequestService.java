@@ -1,6 +1,12 @@
 package com.swap_skill.swapskill.service;
 
+import com.swap_skill.swapskill.dto.SwapBatchActionDto;
+import com.swap_skill.swapskill.dto.SwapBatchResultDto;
+import com.swap_skill.swapskill.dto.SwapEventDto;
 import com.swap_skill.swapskill.dto.SwapRequestDto;
+import com.swap_skill.swapskill.dto.SwapRequestWithUsersDto;
+import com.swap_skill.swapskill.dto.SwapStatsDto;
+import com.swap_skill.swapskill.dto.SwapTimelineDto;
 import com.swap_skill.swapskill.model.SwapRequest;
 
 import java.util.List;
@@ -11,9 +17,14 @@ public interface SwapRequestService {
     List<SwapRequest> getSwapRequestsByFromUser(String fromUserId);
     List<SwapRequest> getSwapRequestsByToUser(String toUserId);
     List<SwapRequest> getSwapRequestsByStatus(String userId, SwapRequest.SwapStatus status);
+    List<SwapRequestWithUsersDto> expandUsers(List<SwapRequest> swapRequests);
+    SwapTimelineDto getSwapTimeline(String userId, String cursor, int limit, boolean expandUsers);
     SwapRequest acceptSwapRequest(String id);
     SwapRequest rejectSwapRequest(String id);
     SwapRequest completeSwapRequest(String id);
+    SwapBatchResultDto applyBatchActions(List<SwapBatchActionDto.Item> actions);
     SwapRequest addRatingAndFeedback(String id, Double rating, String feedback);
     void deleteSwapRequest(String id);
+    List<SwapEventDto> getSwapHistory(String id);
+    SwapStatsDto getSwapStats(String userId);
 } 
\ No newline at end of file
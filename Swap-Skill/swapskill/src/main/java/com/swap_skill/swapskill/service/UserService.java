@@ -2,14 +2,19 @@ package com.swap_skill.swapskill.service;
 
 import com.swap_skill.swapskill.dto.UserDto;
 import com.swap_skill.swapskill.dto.UserSearchDto;
+import com.swap_skill.swapskill.dto.UserSummary;
 import com.swap_skill.swapskill.model.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     User createUser(UserDto userDto);
     User updateUser(String id, UserDto userDto);
     User getUserById(String id);
+    List<User> getUsersByIds(List<String> ids);
+    Map<String, UserSummary> getUserSummaries(Collection<String> ids);
     List<User> getAllUsers();
     List<User> searchUsers(String searchTerm);
     List<User> getUsersBySkillsOffered(String skill);
@@ -17,4 +22,6 @@ public interface UserService {
     List<User> getUsersByAvailability(String availability);
     void deleteUser(String id);
     void toggleProfileVisibility(String id);
+    void addRating(String id, double rating, Double previous);
+    User updateProfilePhoto(String id, byte[] photo);
 } 
\ No newline at end of file
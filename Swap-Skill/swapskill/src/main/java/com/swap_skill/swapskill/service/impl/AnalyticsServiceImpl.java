@@ -0,0 +1,45 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.swap_skill.swapskill.analytics.SkillDemandSketches;
+import com.swap_skill.swapskill.dto.SkillDemandDto;
+import com.swap_skill.swapskill.exception.BadRequestException;
+import com.swap_skill.swapskill.service.AnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SkillDemandSketches skillDemandSketches;
+
+    public AnalyticsServiceImpl(SkillDemandSketches skillDemandSketches) {
+        this.skillDemandSketches = skillDemandSketches;
+    }
+
+    @Override
+    public List<SkillDemandDto> getSkillGaps(int limit) {
+        log.info("Getting skill supply/demand gaps");
+        
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        return skillDemandSketches.gaps(limit);
+    }
+
+    @Override
+    public SkillDemandDto getSkillDemand(String skill) {
+        log.info("Getting supply and demand for skill: {}", skill);
+        
+        if (skill == null || skill.isBlank()) {
+            throw new BadRequestException("Skill is required");
+        }
+        
+        return skillDemandSketches.skill(skill);
+    }
+}
@@ -0,0 +1,122 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.swap_skill.swapskill.dto.DashboardDto;
+import com.swap_skill.swapskill.dto.SwapRequestWithUsersDto;
+import com.swap_skill.swapskill.exception.NotFoundException;
+import com.swap_skill.swapskill.exception.PrivateProfileException;
+import com.swap_skill.swapskill.index.UserCache;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.model.User;
+import com.swap_skill.swapskill.repository.DegradedReads;
+import com.swap_skill.swapskill.repository.UserRepository;
+import com.swap_skill.swapskill.service.DashboardService;
+import com.swap_skill.swapskill.service.SwapRequestService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class DashboardServiceImpl implements DashboardService {
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final SwapRequestService swapRequestService;
+    private final Executor readExecutor;
+
+    public DashboardServiceImpl(UserRepository userRepository, UserCache userCache,
+                                SwapRequestService swapRequestService,
+                                @Qualifier("readExecutor") Executor readExecutor) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.swapRequestService = swapRequestService;
+        this.readExecutor = readExecutor;
+    }
+
+    @Override
+    public DashboardDto getDashboard(String userId, boolean expandUsers) {
+        log.info("Getting dashboard for user: {}", userId);
+        
+        CompletableFuture<Result<User>> profile = async(() -> userCache.get(userId)
+                .orElseGet(() -> userRepository.findById(userId)
+                        .orElseThrow(() -> new NotFoundException("User not found with ID: " + userId))));
+        CompletableFuture<Result<List<SwapRequest>>> incoming = async(() -> swapRequestService.getSwapRequestsByToUser(userId));
+        CompletableFuture<Result<List<SwapRequest>>> outgoing = async(() -> swapRequestService.getSwapRequestsByFromUser(userId));
+        
+        User user = join(profile);
+        if (!user.isPublicProfile()) {
+            throw new PrivateProfileException("User profile is private");
+        }
+        List<SwapRequest> incomingSwaps = join(incoming);
+        List<SwapRequest> outgoingSwaps = join(outgoing);
+        
+        return DashboardDto.builder()
+                .profile(user)
+                .incoming(expand(incomingSwaps, expandUsers))
+                .outgoing(expand(outgoingSwaps, expandUsers))
+                .incomingCounts(countByStatus(incomingSwaps))
+                .outgoingCounts(countByStatus(outgoingSwaps))
+                .build();
+    }
+
+    private List<SwapRequestWithUsersDto> expand(List<SwapRequest> swapRequests, boolean expandUsers) {
+        if (expandUsers) {
+            return swapRequestService.expandUsers(swapRequests);
+        }
+        return swapRequests.stream()
+                .map(swapRequest -> SwapRequestWithUsersDto.builder().swapRequest(swapRequest).build())
+                .toList();
+    }
+
+    private static Map<SwapRequest.SwapStatus, Integer> countByStatus(List<SwapRequest> swapRequests) {
+        Map<SwapRequest.SwapStatus, Integer> counts = new EnumMap<>(SwapRequest.SwapStatus.class);
+        for (SwapRequest.SwapStatus status : SwapRequest.SwapStatus.values()) {
+            counts.put(status, 0);
+        }
+        for (SwapRequest swapRequest : swapRequests) {
+            if (swapRequest.getStatus() != null) {
+                counts.merge(swapRequest.getStatus(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Runs a read on the read executor as part of the current request, capturing any degraded-read flags it raised
+     * on the worker thread.
+     */
+    private <T> CompletableFuture<Result<T>> async(Supplier<T> read) {
+        boolean readOnly = DegradedReads.isReadOnly();
+        return CompletableFuture.supplyAsync(() -> {
+            DegradedReads.clear();
+            DegradedReads.setReadOnly(readOnly);
+            try {
+                return new Result<>(read.get(), DegradedReads.current());
+            } finally {
+                DegradedReads.clear();
+            }
+        }, readExecutor);
+    }
+
+    private static <T> T join(CompletableFuture<Result<T>> future) {
+        try {
+            Result<T> result = future.join();
+            DegradedReads.merge(result.degraded());
+            return result.value();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Result<T>(T value, DegradedReads.State degraded) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.exception.BadRequestException;
+import com.swap_skill.swapskill.exception.ConflictException;
+import com.swap_skill.swapskill.repository.IdempotencyRecord;
+import com.swap_skill.swapskill.repository.IdempotencyRepository;
+import com.swap_skill.swapskill.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Keeps idempotency keys in a bounded local map with a TTL. Each key holds a future for its first execution, so
+ * replays and concurrent duplicates on this instance share one result. When {@code idempotency.shared} is enabled,
+ * keys are also claimed in Firestore so retries landing on another instance are recognised. A shared claim holds a
+ * lease of {@code idempotency.wait-ms}, as long as a duplicate waits here; a claim left in flight past its lease
+ * (e.g. by an instance that died) is taken over by the next retry of the same request.
+ * <p>
+ * Only successful results are kept: if the first execution fails, the key is released and a retry runs again.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final IdempotencyRepository sharedKeys;
+    private final int maxKeys;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public IdempotencyServiceImpl(ObjectMapper objectMapper,
+                                  ObjectProvider<IdempotencyRepository> idempotencyRepository,
+                                  @Value("${idempotency.max-keys:10000}") int maxKeys,
+                                  @Value("${idempotency.ttl-ms:86400000}") long ttlMillis,
+                                  @Value("${idempotency.wait-ms:30000}") long waitMillis) {
+        this.objectMapper = objectMapper;
+        this.sharedKeys = idempotencyRepository.getIfAvailable();
+        this.maxKeys = maxKeys;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // Keys still in flight stay until they finish so their duplicates keep waiting on them
+                return size() > IdempotencyServiceImpl.this.maxKeys && eldest.getValue().result().isDone();
+            }
+        };
+    }
+
+    @Override
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = sha256(scope + ':' + key);
+        String fingerprint = fingerprint(request);
+        
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Entry existing;
+        synchronized (this) {
+            existing = entries.get(id);
+            if (existing != null && System.currentTimeMillis() - existing.createdAt() > ttlMillis) {
+                entries.remove(id);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(id, new Entry(fingerprint, result, System.currentTimeMillis()));
+            }
+        }
+        if (existing != null) {
+            requireSameRequest(existing.fingerprint(), fingerprint);
+            log.info("Replaying {} request for idempotency key: {}", scope, key);
+            return responseType.cast(await(existing.result()));
+        }
+        
+        try {
+            T response = executeOnce(id, fingerprint, responseType, action);
+            result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                Entry current = entries.get(id);
+                if (current != null && current.result() == result) {
+                    entries.remove(id);
+                }
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <T> T executeOnce(String id, String fingerprint, Class<T> responseType, Supplier<T> action) {
+        if (sharedKeys == null) {
+            return action.get();
+        }
+        long now = System.currentTimeMillis();
+        Timestamp expiresAt = Timestamp.ofTimeMicroseconds((now + ttlMillis) * 1000);
+        Timestamp leaseUntil = Timestamp.ofTimeMicroseconds((now + waitMillis) * 1000);
+        Optional<IdempotencyRecord<T>> claimed = sharedKeys.claim(id, fingerprint, expiresAt, leaseUntil, responseType);
+        if (claimed.isPresent()) {
+            requireSameRequest(claimed.get().fingerprint(), fingerprint);
+            if (claimed.get().response() == null) {
+                throw new ConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            return claimed.get().response();
+        }
+        
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            sharedKeys.release(id);
+            throw e;
+        }
+        sharedKeys.complete(id, response);
+        return response;
+    }
+
+    private Object await(CompletableFuture<Object> result) {
+        try {
+            return result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request", e);
+        }
+    }
+
+    private static void requireSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return sha256(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, long createdAt) {
+    }
+} 
@@ -0,0 +1,62 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.swap_skill.swapskill.dto.RecommendationDto;
+import com.swap_skill.swapskill.dto.SimilarUserDto;
+import com.swap_skill.swapskill.exception.BadRequestException;
+import com.swap_skill.swapskill.exception.NotFoundException;
+import com.swap_skill.swapskill.exception.PrivateProfileException;
+import com.swap_skill.swapskill.index.SimilarUserIndex;
+import com.swap_skill.swapskill.index.SkillRecommendationEngine;
+import com.swap_skill.swapskill.model.User;
+import com.swap_skill.swapskill.repository.UserRepository;
+import com.swap_skill.swapskill.service.RecommendationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private static final int MAX_SIMILAR_LIMIT = 50;
+
+    private final UserRepository userRepository;
+    private final SkillRecommendationEngine recommendationEngine;
+    private final SimilarUserIndex similarUserIndex;
+
+    public RecommendationServiceImpl(UserRepository userRepository, SkillRecommendationEngine recommendationEngine,
+                                     SimilarUserIndex similarUserIndex) {
+        this.userRepository = userRepository;
+        this.recommendationEngine = recommendationEngine;
+        this.similarUserIndex = similarUserIndex;
+    }
+
+    @Override
+    public RecommendationDto getRecommendations(String userId) {
+        log.info("Getting recommendations for user: {}", userId);
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + userId));
+        
+        return recommendationEngine.recommend(userId, user.getSkillsWanted());
+    }
+
+    @Override
+    public List<SimilarUserDto> getSimilarUsers(String userId, int limit) {
+        log.info("Getting users similar to user: {}", userId);
+        
+        if (limit < 1 || limit > MAX_SIMILAR_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SIMILAR_LIMIT);
+        }
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + userId));
+        
+        if (!user.isPublicProfile()) {
+            throw new PrivateProfileException("User profile is private");
+        }
+        
+        return similarUserIndex.findSimilar(user, limit);
+    }
+}
@@ -0,0 +1,61 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.swap_skill.swapskill.dto.LeaderboardEntryDto;
+import com.swap_skill.swapskill.dto.SkillSuggestionDto;
+import com.swap_skill.swapskill.exception.BadRequestException;
+import com.swap_skill.swapskill.exception.NotFoundException;
+import com.swap_skill.swapskill.index.SkillDictionary;
+import com.swap_skill.swapskill.index.SkillLeaderboard;
+import com.swap_skill.swapskill.service.SkillService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class SkillServiceImpl implements SkillService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final SkillDictionary skillDictionary;
+    private final SkillLeaderboard skillLeaderboard;
+
+    public SkillServiceImpl(SkillDictionary skillDictionary, SkillLeaderboard skillLeaderboard) {
+        this.skillDictionary = skillDictionary;
+        this.skillLeaderboard = skillLeaderboard;
+    }
+
+    @Override
+    public List<SkillSuggestionDto> autocomplete(String prefix, int limit) {
+        log.debug("Autocompleting skills with prefix: {}", prefix);
+        
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        return skillDictionary.autocomplete(prefix, limit);
+    }
+
+    @Override
+    public List<LeaderboardEntryDto> getTopTeachers(String skill, int offset, int limit) {
+        log.info("Getting top teachers for skill: {}", skill);
+        
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (offset < 0) {
+            throw new BadRequestException("Offset must not be negative");
+        }
+        
+        return skillLeaderboard.top(skill, offset, limit);
+    }
+
+    @Override
+    public LeaderboardEntryDto getTeacherRank(String skill, String userId) {
+        log.info("Getting rank of user {} for skill: {}", userId, skill);
+        
+        return skillLeaderboard.rankOf(skill, userId)
+                .orElseThrow(() -> new NotFoundException("User " + userId + " is not ranked for skill: " + skill));
+    }
+}
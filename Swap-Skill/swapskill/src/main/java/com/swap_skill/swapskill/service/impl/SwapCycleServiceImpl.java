@@ -0,0 +1,38 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.swap_skill.swapskill.dto.SwapCycleDto;
+import com.swap_skill.swapskill.exception.BadRequestException;
+import com.swap_skill.swapskill.index.SwapCycleFinder;
+import com.swap_skill.swapskill.service.SwapCycleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class SwapCycleServiceImpl implements SwapCycleService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SwapCycleFinder swapCycleFinder;
+
+    public SwapCycleServiceImpl(SwapCycleFinder swapCycleFinder) {
+        this.swapCycleFinder = swapCycleFinder;
+    }
+
+    @Override
+    public List<SwapCycleDto> findSwapCycles(String userId, int maxLength, int limit) {
+        log.info("Finding swap cycles of up to {} users for user: {}", maxLength, userId);
+        
+        if (maxLength < SwapCycleFinder.MIN_CYCLE_LENGTH || maxLength > SwapCycleFinder.MAX_CYCLE_LENGTH) {
+            throw new BadRequestException("Max length must be between " + SwapCycleFinder.MIN_CYCLE_LENGTH
+                    + " and " + SwapCycleFinder.MAX_CYCLE_LENGTH);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        return swapCycleFinder.findCycles(userId, maxLength, limit);
+    }
+}
@@ -1,25 +1,68 @@
 package com.swap_skill.swapskill.service.impl;
 
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.dto.SwapBatchActionDto;
+import com.swap_skill.swapskill.dto.SwapBatchResultDto;
+import com.swap_skill.swapskill.dto.SwapEventDto;
 import com.swap_skill.swapskill.dto.SwapRequestDto;
+import com.swap_skill.swapskill.dto.SwapRequestWithUsersDto;
+import com.swap_skill.swapskill.dto.SwapStatsDto;
+import com.swap_skill.swapskill.dto.SwapTimelineDto;
+import com.swap_skill.swapskill.dto.UserSummary;
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.eventlog.SwapEvent;
+import com.swap_skill.swapskill.eventlog.SwapHistoryProjection;
+import com.swap_skill.swapskill.eventlog.UserSwapStatsProjection;
+import com.swap_skill.swapskill.exception.BadRequestException;
+import com.swap_skill.swapskill.exception.ConflictException;
+import com.swap_skill.swapskill.exception.InvalidTransitionException;
+import com.swap_skill.swapskill.exception.NotFoundException;
+import com.swap_skill.swapskill.index.SkillDictionary;
+import com.swap_skill.swapskill.index.SortedMerge;
+import com.swap_skill.swapskill.index.SwapRequestKeyIndex;
 import com.swap_skill.swapskill.model.SwapRequest;
 import com.swap_skill.swapskill.repository.SwapRequestRepository;
 import com.swap_skill.swapskill.repository.UserRepository;
 import com.swap_skill.swapskill.service.SwapRequestService;
+import com.swap_skill.swapskill.service.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 @Service
 @Slf4j
 public class SwapRequestServiceImpl implements SwapRequestService {
 
+    private static final int MAX_TIMELINE_LIMIT = 100;
+    private static final Comparator<SwapRequest> NEWEST_FIRST = Comparator.comparing(SwapRequest::getCreatedAt)
+            .thenComparing(SwapRequest::getId)
+            .reversed();
+
     private final SwapRequestRepository swapRequestRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final SwapRequestKeyIndex swapRequestKeyIndex;
+    private final SkillDictionary skillDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SwapHistoryProjection swapHistoryProjection;
+    private final UserSwapStatsProjection userSwapStatsProjection;
 
-    public SwapRequestServiceImpl(SwapRequestRepository swapRequestRepository, UserRepository userRepository) {
+    public SwapRequestServiceImpl(SwapRequestRepository swapRequestRepository, UserRepository userRepository,
+                                  UserService userService, SwapRequestKeyIndex swapRequestKeyIndex,
+                                  SkillDictionary skillDictionary, ApplicationEventPublisher eventPublisher,
+                                  SwapHistoryProjection swapHistoryProjection,
+                                  UserSwapStatsProjection userSwapStatsProjection) {
         this.swapRequestRepository = swapRequestRepository;
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.swapRequestKeyIndex = swapRequestKeyIndex;
+        this.skillDictionary = skillDictionary;
+        this.eventPublisher = eventPublisher;
+        this.swapHistoryProjection = swapHistoryProjection;
+        this.userSwapStatsProjection = userSwapStatsProjection;
     }
 
     @Override
@@ -27,30 +70,78 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         log.info("Creating swap request from user {} to user {}", 
                 swapRequestDto.getFromUserId(), swapRequestDto.getToUserId());
         
+        // Check if user is trying to swap with themselves
+        if (swapRequestDto.getFromUserId().equals(swapRequestDto.getToUserId())) {
+            throw new BadRequestException("Cannot create swap request with yourself");
+        }
+        
         // Validate that both users exist
         if (!userRepository.existsById(swapRequestDto.getFromUserId())) {
-            throw new RuntimeException("From user not found with ID: " + swapRequestDto.getFromUserId());
+            throw new NotFoundException("From user not found with ID: " + swapRequestDto.getFromUserId());
         }
         
         if (!userRepository.existsById(swapRequestDto.getToUserId())) {
-            throw new RuntimeException("To user not found with ID: " + swapRequestDto.getToUserId());
-        }
-        
-        // Check if user is trying to swap with themselves
-        if (swapRequestDto.getFromUserId().equals(swapRequestDto.getToUserId())) {
-            throw new RuntimeException("Cannot create swap request with yourself");
+            throw new NotFoundException("To user not found with ID: " + swapRequestDto.getToUserId());
         }
         
         SwapRequest swapRequest = SwapRequest.builder()
                 .fromUserId(swapRequestDto.getFromUserId())
                 .toUserId(swapRequestDto.getToUserId())
-                .skillOffered(swapRequestDto.getSkillOffered())
-                .skillWanted(swapRequestDto.getSkillWanted())
+                .skillOffered(skillDictionary.resolve(swapRequestDto.getSkillOffered()))
+                .skillWanted(skillDictionary.resolve(swapRequestDto.getSkillWanted()))
                 .message(swapRequestDto.getMessage())
                 .status(SwapRequest.SwapStatus.PENDING)
                 .build();
         
-        return swapRequestRepository.save(swapRequest);
+        String key = SwapRequestKeyIndex.keyOf(swapRequest);
+        reserveSwapKey(key);
+        try {
+            if (!swapRequestKeyIndex.isHydrated()) {
+                rejectPendingDuplicate(swapRequest, key);
+            }
+            Optional<String> holderId = swapRequestRepository.createUnlessPending(swapRequest, key);
+            if (holderId.isPresent()) {
+                throw new ConflictException("A pending swap request for these skills already exists with ID: " + holderId.get());
+            }
+            swapRequestKeyIndex.bind(key, swapRequest.getId());
+            eventPublisher.publishEvent(SwapRequestChangedEvent.created(swapRequest));
+            return swapRequest;
+        } catch (RuntimeException e) {
+            swapRequestKeyIndex.cancelReservation(key);
+            throw e;
+        }
+    }
+
+    private void reserveSwapKey(String key) {
+        String holderId = swapRequestKeyIndex.reserve(key);
+        while (holderId != null) {
+            if (holderId.isEmpty()) {
+                throw new ConflictException("An identical swap request is already being created");
+            }
+            // The index only says "maybe open"; confirm against Firestore before rejecting
+            boolean stillPending = swapRequestRepository.findById(holderId)
+                    .map(existing -> existing.getStatus() == SwapRequest.SwapStatus.PENDING)
+                    .orElse(false);
+            if (stillPending) {
+                throw new ConflictException("A pending swap request for these skills already exists with ID: " + holderId);
+            }
+            if (swapRequestKeyIndex.reclaim(key, holderId)) {
+                return;
+            }
+            holderId = swapRequestKeyIndex.reserve(key);
+        }
+    }
+
+    /**
+     * Checks Firestore for a pending duplicate while the key index is still being hydrated and may miss one.
+     */
+    private void rejectPendingDuplicate(SwapRequest swapRequest, String key) {
+        for (SwapRequest existing : swapRequestRepository.findByFromUserIdAndStatus(
+                swapRequest.getFromUserId(), SwapRequest.SwapStatus.PENDING)) {
+            if (SwapRequestKeyIndex.keyOf(existing).equals(key)) {
+                throw new ConflictException("A pending swap request for these skills already exists with ID: " + existing.getId());
+            }
+        }
     }
 
     @Override
@@ -58,7 +149,7 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         log.info("Getting swap request by ID: {}", id);
         
         return swapRequestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Swap request not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("Swap request not found with ID: " + id));
     }
 
     @Override
@@ -84,19 +175,76 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         return fromUserRequests;
     }
 
+    @Override
+    public List<SwapRequestWithUsersDto> expandUsers(List<SwapRequest> swapRequests) {
+        Set<String> userIds = new HashSet<>();
+        for (SwapRequest swapRequest : swapRequests) {
+            userIds.add(swapRequest.getFromUserId());
+            userIds.add(swapRequest.getToUserId());
+        }
+        Map<String, UserSummary> users = userService.getUserSummaries(userIds);
+        
+        List<SwapRequestWithUsersDto> expanded = new ArrayList<>(swapRequests.size());
+        for (SwapRequest swapRequest : swapRequests) {
+            expanded.add(SwapRequestWithUsersDto.builder()
+                    .swapRequest(swapRequest)
+                    .fromUser(users.get(swapRequest.getFromUserId()))
+                    .toUser(users.get(swapRequest.getToUserId()))
+                    .build());
+        }
+        return expanded;
+    }
+
+    @Override
+    public SwapTimelineDto getSwapTimeline(String userId, String cursor, int limit, boolean expandUsers) {
+        log.info("Getting swap timeline for user: {}", userId);
+        
+        if (limit < 1 || limit > MAX_TIMELINE_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TIMELINE_LIMIT);
+        }
+        SwapRequest position = decodeCursor(cursor);
+        Timestamp createdAt = position != null ? position.getCreatedAt() : null;
+        String id = position != null ? position.getId() : null;
+        
+        // One extra row per direction tells whether another page exists without a further read
+        int pageSize = limit + 1;
+        Iterator<SwapRequest> timeline = new SortedMerge<>(List.of(
+                new PagedSwapRequests((before, beforeId) -> swapRequestRepository
+                        .findByFromUserIdCreatedBefore(userId, before, beforeId, pageSize), createdAt, id, pageSize),
+                new PagedSwapRequests((before, beforeId) -> swapRequestRepository
+                        .findByToUserIdCreatedBefore(userId, before, beforeId, pageSize), createdAt, id, pageSize)),
+                NEWEST_FIRST);
+        
+        List<SwapRequest> page = new ArrayList<>(limit);
+        while (page.size() < limit && timeline.hasNext()) {
+            page.add(timeline.next());
+        }
+        
+        List<SwapRequestWithUsersDto> items = expandUsers
+                ? expandUsers(page)
+                : page.stream().map(swapRequest -> SwapRequestWithUsersDto.builder().swapRequest(swapRequest).build()).toList();
+        return SwapTimelineDto.builder()
+                .items(items)
+                .nextCursor(timeline.hasNext() ? encodeCursor(page.get(page.size() - 1)) : null)
+                .build();
+    }
+
     @Override
     public SwapRequest acceptSwapRequest(String id) {
         log.info("Accepting swap request with ID: {}", id);
         
         SwapRequest swapRequest = swapRequestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Swap request not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("Swap request not found with ID: " + id));
         
         if (swapRequest.getStatus() != SwapRequest.SwapStatus.PENDING) {
-            throw new RuntimeException("Cannot accept swap request that is not pending");
+            throw new InvalidTransitionException("Cannot accept swap request that is not pending");
         }
         
         swapRequest.setStatus(SwapRequest.SwapStatus.ACCEPTED);
-        return swapRequestRepository.save(swapRequest);
+        SwapRequest saved = swapRequestRepository.save(swapRequest, SwapEvent.Type.ACCEPTED);
+        swapRequestKeyIndex.release(saved);
+        eventPublisher.publishEvent(SwapRequestChangedEvent.updated(SwapRequest.SwapStatus.PENDING, saved));
+        return saved;
     }
 
     @Override
@@ -104,14 +252,17 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         log.info("Rejecting swap request with ID: {}", id);
         
         SwapRequest swapRequest = swapRequestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Swap request not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("Swap request not found with ID: " + id));
         
         if (swapRequest.getStatus() != SwapRequest.SwapStatus.PENDING) {
-            throw new RuntimeException("Cannot reject swap request that is not pending");
+            throw new InvalidTransitionException("Cannot reject swap request that is not pending");
         }
         
         swapRequest.setStatus(SwapRequest.SwapStatus.REJECTED);
-        return swapRequestRepository.save(swapRequest);
+        SwapRequest saved = swapRequestRepository.save(swapRequest, SwapEvent.Type.REJECTED);
+        swapRequestKeyIndex.release(saved);
+        eventPublisher.publishEvent(SwapRequestChangedEvent.updated(SwapRequest.SwapStatus.PENDING, saved));
+        return saved;
     }
 
     @Override
@@ -119,14 +270,129 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         log.info("Completing swap request with ID: {}", id);
         
         SwapRequest swapRequest = swapRequestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Swap request not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("Swap request not found with ID: " + id));
         
         if (swapRequest.getStatus() != SwapRequest.SwapStatus.ACCEPTED) {
-            throw new RuntimeException("Cannot complete swap request that is not accepted");
+            throw new InvalidTransitionException("Cannot complete swap request that is not accepted");
         }
         
         swapRequest.setStatus(SwapRequest.SwapStatus.COMPLETED);
-        return swapRequestRepository.save(swapRequest);
+        SwapRequest saved = swapRequestRepository.save(swapRequest, SwapEvent.Type.COMPLETED);
+        eventPublisher.publishEvent(SwapRequestChangedEvent.updated(SwapRequest.SwapStatus.ACCEPTED, saved));
+        return saved;
+    }
+
+    @Override
+    public SwapBatchResultDto applyBatchActions(List<SwapBatchActionDto.Item> actions) {
+        log.info("Applying {} swap request actions in a batch", actions.size());
+        
+        Set<String> ids = new LinkedHashSet<>();
+        for (SwapBatchActionDto.Item item : actions) {
+            ids.add(item.getId());
+        }
+        Map<String, SwapRequest> swapRequests = new HashMap<>();
+        for (SwapRequest swapRequest : swapRequestRepository.findAllById(ids)) {
+            swapRequests.put(swapRequest.getId(), swapRequest);
+        }
+        
+        SwapBatchResultDto.Outcome[] outcomes = new SwapBatchResultDto.Outcome[actions.size()];
+        List<PendingAction> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < actions.size(); i++) {
+            SwapBatchActionDto.Item item = actions.get(i);
+            SwapRequest swapRequest = swapRequests.get(item.getId());
+            String error = null;
+            if (!seen.add(item.getId())) {
+                error = "Duplicate swap request ID in batch: " + item.getId();
+            } else if (swapRequest == null) {
+                error = "Swap request not found with ID: " + item.getId();
+            } else if (swapRequest.getStatus() != requiredStatus(item.getAction())) {
+                error = "Cannot " + item.getAction().name().toLowerCase(Locale.ROOT)
+                        + " swap request that is not " + requiredStatus(item.getAction()).name().toLowerCase(Locale.ROOT);
+            }
+            if (error != null) {
+                outcomes[i] = outcome(item, false, swapRequest, error);
+                continue;
+            }
+            pending.add(new PendingAction(i, item, swapRequest.getStatus(), swapRequest));
+            swapRequest.setStatus(targetStatus(item.getAction()));
+        }
+        
+        if (!pending.isEmpty()) {
+            Set<SwapRequest> committed = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<SwapRequest> conflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+            String failure = "Failed to save swap request";
+            try {
+                SwapRequestRepository.SaveAllResult result =
+                        swapRequestRepository.saveAll(pending.stream().map(PendingAction::swapRequest).toList());
+                committed.addAll(result.saved());
+                conflicts.addAll(result.conflicts());
+            } catch (RuntimeException e) {
+                log.error("Error applying swap request batch: {}", e.getMessage());
+                failure = e.getMessage();
+            }
+            for (PendingAction action : pending) {
+                SwapRequest saved = action.swapRequest();
+                if (!committed.contains(saved)) {
+                    // Only this request failed or conflicted; the others committed and are reported as applied
+                    saved.setStatus(action.previousStatus());
+                    outcomes[action.index()] = outcome(action.item(), false, saved, conflicts.contains(saved)
+                            ? "Swap request was changed concurrently: " + saved.getId()
+                            : failure);
+                    continue;
+                }
+                if (action.previousStatus() == SwapRequest.SwapStatus.PENDING) {
+                    swapRequestKeyIndex.release(saved);
+                }
+                eventPublisher.publishEvent(SwapRequestChangedEvent.updated(action.previousStatus(), saved));
+                outcomes[action.index()] = outcome(action.item(), true, saved, null);
+            }
+        }
+        return result(outcomes);
+    }
+
+    private record PendingAction(int index, SwapBatchActionDto.Item item,
+                                 SwapRequest.SwapStatus previousStatus, SwapRequest swapRequest) {
+    }
+
+    private static SwapRequest.SwapStatus requiredStatus(SwapBatchActionDto.Action action) {
+        return switch (action) {
+            case ACCEPT, REJECT -> SwapRequest.SwapStatus.PENDING;
+            case COMPLETE -> SwapRequest.SwapStatus.ACCEPTED;
+        };
+    }
+
+    private static SwapRequest.SwapStatus targetStatus(SwapBatchActionDto.Action action) {
+        return switch (action) {
+            case ACCEPT -> SwapRequest.SwapStatus.ACCEPTED;
+            case REJECT -> SwapRequest.SwapStatus.REJECTED;
+            case COMPLETE -> SwapRequest.SwapStatus.COMPLETED;
+        };
+    }
+
+    private static SwapBatchResultDto.Outcome outcome(SwapBatchActionDto.Item item, boolean success,
+                                                      SwapRequest swapRequest, String error) {
+        return SwapBatchResultDto.Outcome.builder()
+                .id(item.getId())
+                .action(item.getAction())
+                .success(success)
+                .status(swapRequest != null ? swapRequest.getStatus() : null)
+                .error(error)
+                .build();
+    }
+
+    private static SwapBatchResultDto result(SwapBatchResultDto.Outcome[] outcomes) {
+        int succeeded = 0;
+        for (SwapBatchResultDto.Outcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                succeeded++;
+            }
+        }
+        return SwapBatchResultDto.builder()
+                .succeeded(succeeded)
+                .failed(outcomes.length - succeeded)
+                .results(Arrays.asList(outcomes))
+                .build();
     }
 
     @Override
@@ -134,19 +400,24 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         log.info("Adding rating and feedback to swap request with ID: {}", id);
         
         if (rating < 0 || rating > 5) {
-            throw new RuntimeException("Rating must be between 0 and 5");
+            throw new BadRequestException("Rating must be between 0 and 5");
         }
         
         SwapRequest swapRequest = swapRequestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Swap request not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("Swap request not found with ID: " + id));
         
         if (swapRequest.getStatus() != SwapRequest.SwapStatus.COMPLETED) {
-            throw new RuntimeException("Cannot add rating to swap request that is not completed");
+            throw new InvalidTransitionException("Cannot add rating to swap request that is not completed");
         }
         
+        Double previousRating = swapRequest.getRating();
         swapRequest.setRating(rating);
         swapRequest.setFeedback(feedback);
-        return swapRequestRepository.save(swapRequest);
+        SwapRequest saved = swapRequestRepository.save(swapRequest, SwapEvent.Type.RATED);
+        // The rating is for the receiver, who taught the skill the sender asked for
+        userService.addRating(saved.getToUserId(), rating, previousRating);
+        eventPublisher.publishEvent(SwapRequestChangedEvent.updated(SwapRequest.SwapStatus.COMPLETED, saved));
+        return saved;
     }
 
     @Override
@@ -154,12 +425,135 @@ public class SwapRequestServiceImpl implements SwapRequestService {
         log.info("Deleting swap request with ID: {}", id);
         
         SwapRequest swapRequest = swapRequestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Swap request not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("Swap request not found with ID: " + id));
         
         if (swapRequest.getStatus() != SwapRequest.SwapStatus.PENDING) {
-            throw new RuntimeException("Cannot delete swap request that is not pending");
+            throw new InvalidTransitionException("Cannot delete swap request that is not pending");
         }
         
-        swapRequestRepository.deleteById(id);
+        swapRequestRepository.delete(swapRequest);
+        swapRequestKeyIndex.release(swapRequest);
+        eventPublisher.publishEvent(SwapRequestChangedEvent.deleted(swapRequest));
+    }
+
+    @Override
+    public List<SwapEventDto> getSwapHistory(String id) {
+        log.info("Getting history of swap request with ID: {}", id);
+        
+        List<SwapEvent> history = swapHistoryProjection.history(id);
+        if (history.isEmpty()) {
+            throw new NotFoundException("No history recorded for swap request with ID: " + id);
+        }
+        return history.stream()
+                .map(event -> SwapEventDto.builder()
+                        .sequence(event.sequence())
+                        .type(event.type())
+                        .status(event.status())
+                        .rating(event.rating())
+                        .at(Timestamp.ofTimeMicroseconds(event.timestamp()))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public SwapStatsDto getSwapStats(String userId) {
+        log.info("Getting swap stats for user: {}", userId);
+        
+        long[] counts = userSwapStatsProjection.counts(userId).orElse(null);
+        if (counts == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new NotFoundException("User not found with ID: " + userId);
+            }
+            counts = new long[UserSwapStatsProjection.Counter.values().length];
+        }
+        return SwapStatsDto.builder()
+                .userId(userId)
+                .sent(counts[UserSwapStatsProjection.Counter.SENT.ordinal()])
+                .received(counts[UserSwapStatsProjection.Counter.RECEIVED.ordinal()])
+                // Swaps opened before the log was started can close without having been counted as open
+                .open(Math.max(0, counts[UserSwapStatsProjection.Counter.OPEN.ordinal()]))
+                .accepted(counts[UserSwapStatsProjection.Counter.ACCEPTED.ordinal()])
+                .rejected(counts[UserSwapStatsProjection.Counter.REJECTED.ordinal()])
+                .completed(counts[UserSwapStatsProjection.Counter.COMPLETED.ordinal()])
+                .withdrawn(counts[UserSwapStatsProjection.Counter.WITHDRAWN.ordinal()])
+                .build();
+    }
+
+    /**
+     * Cursors are the (createdAt, id) of the last returned swap request, encoded as opaque URL-safe text.
+     */
+    private static String encodeCursor(SwapRequest last) {
+        String position = last.getCreatedAt().getSeconds() + ":" + last.getCreatedAt().getNanos() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SwapRequest decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            return SwapRequest.builder()
+                    .createdAt(Timestamp.ofTimeSecondsAndNanos(Long.parseLong(parts[0]), Integer.parseInt(parts[1])))
+                    .id(parts[2])
+                    .build();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<SwapRequest> find(Timestamp createdBefore, String beforeId);
+    }
+
+    /**
+     * Iterates one direction of a user's swap requests, newest first, fetching the next keyset page only when
+     * the current one is used up.
+     */
+    private static final class PagedSwapRequests implements Iterator<SwapRequest> {
+
+        private final PageQuery query;
+        private final int pageSize;
+        private Timestamp createdBefore;
+        private String beforeId;
+        private List<SwapRequest> page = List.of();
+        private int next;
+        private boolean exhausted;
+
+        PagedSwapRequests(PageQuery query, Timestamp createdBefore, String beforeId, int pageSize) {
+            this.query = query;
+            this.createdBefore = createdBefore;
+            this.beforeId = beforeId;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < page.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            page = query.find(createdBefore, beforeId);
+            next = 0;
+            exhausted = page.size() < pageSize;
+            if (page.isEmpty()) {
+                return false;
+            }
+            SwapRequest last = page.get(page.size() - 1);
+            createdBefore = last.getCreatedAt();
+            beforeId = last.getId();
+            return true;
+        }
+
+        @Override
+        public SwapRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(next++);
+        }
     }
 } 
\ No newline at end of file
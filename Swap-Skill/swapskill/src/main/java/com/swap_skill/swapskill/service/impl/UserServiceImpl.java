@@ -2,13 +2,21 @@ package com.swap_skill.swapskill.service.impl;
 
 import com.swap_skill.swapskill.dto.UserDto;
 import com.swap_skill.swapskill.dto.UserSearchDto;
+import com.swap_skill.swapskill.dto.UserSummary;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.exception.NotFoundException;
+import com.swap_skill.swapskill.exception.PrivateProfileException;
+import com.swap_skill.swapskill.index.SkillDictionary;
+import com.swap_skill.swapskill.index.UserCache;
 import com.swap_skill.swapskill.model.User;
 import com.swap_skill.swapskill.repository.UserRepository;
 import com.swap_skill.swapskill.service.UserService;
+import com.swap_skill.swapskill.storage.PhotoStore;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,9 +24,18 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final SkillDictionary skillDictionary;
+    private final UserCache userCache;
+    private final PhotoStore photoStore;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, SkillDictionary skillDictionary,
+                           UserCache userCache, PhotoStore photoStore, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.skillDictionary = skillDictionary;
+        this.userCache = userCache;
+        this.photoStore = photoStore;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -27,17 +44,19 @@ public class UserServiceImpl implements UserService {
         
         User user = User.builder()
                 .name(userDto.getName())
-                .profilePhoto(userDto.getProfilePhoto())
+                .profilePhoto(photoStore.offload(userDto.getProfilePhoto()))
                 .location(userDto.getLocation())
                 .availability(userDto.getAvailability())
-                .skillsOffered(userDto.getSkillsOffered())
-                .skillsWanted(userDto.getSkillsWanted())
+                .skillsOffered(skillDictionary.resolve(userDto.getSkillsOffered()))
+                .skillsWanted(skillDictionary.resolve(userDto.getSkillsWanted()))
                 .publicProfile(userDto.getPublicProfile())
                 .rating(0.0)
                 .about(userDto.getAbout())
                 .build();
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(saved));
+        return saved;
     }
 
     @Override
@@ -45,18 +64,21 @@ public class UserServiceImpl implements UserService {
         log.info("Updating user with ID: {}", id);
         
         User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + id));
+        User previous = existingUser.toBuilder().build();
         
         existingUser.setName(userDto.getName());
-        existingUser.setProfilePhoto(userDto.getProfilePhoto());
+        existingUser.setProfilePhoto(photoStore.offload(userDto.getProfilePhoto()));
         existingUser.setLocation(userDto.getLocation());
         existingUser.setAvailability(userDto.getAvailability());
-        existingUser.setSkillsOffered(userDto.getSkillsOffered());
-        existingUser.setSkillsWanted(userDto.getSkillsWanted());
+        existingUser.setSkillsOffered(skillDictionary.resolve(userDto.getSkillsOffered()));
+        existingUser.setSkillsWanted(skillDictionary.resolve(userDto.getSkillsWanted()));
         existingUser.setPublicProfile(userDto.getPublicProfile());
         existingUser.setAbout(userDto.getAbout());
         
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        eventPublisher.publishEvent(UserChangedEvent.updated(previous, saved));
+        return saved;
     }
 
     @Override
@@ -64,15 +86,58 @@ public class UserServiceImpl implements UserService {
         log.info("Getting user by ID: {}", id);
         
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + id));
         
         if (!user.isPublicProfile()) {
-            throw new RuntimeException("User profile is private");
+            throw new PrivateProfileException("User profile is private");
         }
         
         return user;
     }
 
+    @Override
+    public List<User> getUsersByIds(List<String> ids) {
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        log.info("Getting {} users by ID", distinctIds.size());
+        
+        Map<String, User> found = findUsers(distinctIds);
+        List<User> users = new ArrayList<>(found.size());
+        for (String id : distinctIds) {
+            User user = found.get(id);
+            if (user != null && user.isPublicProfile()) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public Map<String, UserSummary> getUserSummaries(Collection<String> ids) {
+        Map<String, UserSummary> summaries = new HashMap<>();
+        findUsers(new HashSet<>(ids)).forEach((id, user) -> {
+            if (user.isPublicProfile()) {
+                summaries.put(id, UserSummary.from(user));
+            }
+        });
+        return summaries;
+    }
+
+    /**
+     * Resolves users from the cache first and reads the misses with one batched query.
+     */
+    private Map<String, User> findUsers(Set<String> ids) {
+        List<String> misses = new ArrayList<>();
+        Map<String, User> found = userCache.getAll(ids, misses);
+        if (!misses.isEmpty()) {
+            List<User> loaded = userRepository.findAllById(misses);
+            userCache.putAll(loaded);
+            for (User user : loaded) {
+                found.put(user.getId(), user);
+            }
+        }
+        return found;
+    }
+
     @Override
     public List<User> getAllUsers() {
         log.info("Getting all public users");
@@ -88,13 +153,13 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<User> getUsersBySkillsOffered(String skill) {
         log.info("Getting users by skills offered: {}", skill);
-        return userRepository.findBySkillsOfferedContaining(skill);
+        return userRepository.findBySkillsOfferedContainingAny(skillDictionary.spellingsOf(skill));
     }
 
     @Override
     public List<User> getUsersBySkillsWanted(String skill) {
         log.info("Getting users by skills wanted: {}", skill);
-        return userRepository.findBySkillsWantedContaining(skill);
+        return userRepository.findBySkillsWantedContainingAny(skillDictionary.spellingsOf(skill));
     }
 
     @Override
@@ -106,7 +171,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(String id) {
         log.info("Deleting user with ID: {}", id);
+        Optional<User> existingUser = userRepository.findById(id);
         userRepository.deleteById(id);
+        existingUser.ifPresent(user -> eventPublisher.publishEvent(UserChangedEvent.deleted(user)));
     }
 
     @Override
@@ -114,10 +181,37 @@ public class UserServiceImpl implements UserService {
         log.info("Toggling profile visibility for user with ID: {}", id);
         
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + id));
+        
+        User previous = user.toBuilder().build();
         
         user.setPublicProfile(!user.isPublicProfile());
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(previous, saved));
+    }
+
+    @Override
+    public void addRating(String id, double rating, Double previous) {
+        log.info("Adding rating {} to user with ID: {}", rating, id);
+        
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + id));
+        userRepository.addRating(id, rating, previous)
+                .ifPresent(saved -> eventPublisher.publishEvent(UserChangedEvent.updated(user, saved)));
+    }
+
+    @Override
+    public User updateProfilePhoto(String id, byte[] photo) {
+        log.info("Updating profile photo for user with ID: {}", id);
+        
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("User not found with ID: " + id));
+        User previous = user.toBuilder().build();
+        
+        user.setProfilePhoto(photoStore.store(photo));
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(previous, saved));
+        return saved;
     }
 
 } 
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.swap_skill.swapskill.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for profile photos on local disk. An image is stored once under the SHA-256 of its bytes,
+ * and a square thumbnail is generated the first time that image is seen. Users keep only the thumbnail's URL.
+ * <p>
+ * Blob keys look like {@code <sha256>.jpg} (original) and {@code <sha256>_256.jpg} (thumbnail); blobs never change
+ * once written, so they can be cached forever.
+ */
+@Component
+@Slf4j
+public class PhotoStore {
+
+    public static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(_\\d+)?\\.(jpg|png|gif)");
+
+    private static final long MAX_PIXELS = 25_000_000L;
+    private static final Pattern DATA_URL = Pattern.compile("data:image/[\\w.+-]+;base64,(.*)", Pattern.DOTALL);
+
+    private final Path root;
+    private final String baseUrl;
+    private final int thumbnailSize;
+
+    public PhotoStore(@Value("${photos.path:data/photos}") String root,
+                      @Value("${photos.base-url:http://localhost:8080/api/photos}") String baseUrl,
+                      @Value("${photos.thumbnail-size:256}") int thumbnailSize) {
+        this.root = Paths.get(root);
+        this.baseUrl = baseUrl;
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    /**
+     * Stores an image and its thumbnail if they are not stored yet.
+     *
+     * @return the thumbnail's URL
+     */
+    public String store(byte[] image) {
+        String format = detectFormat(image);
+        String hash = sha256(image);
+        String extension = "jpeg".equals(format) ? "jpg" : format;
+        String thumbnailExtension = "jpg".equals(extension) ? "jpg" : "png";
+        String thumbnailKey = hash + "_" + thumbnailSize + "." + thumbnailExtension;
+        try {
+            // Decode first, so an image that cannot be thumbnailed never leaves its original behind
+            byte[] thumbnail = Files.exists(pathOf(thumbnailKey)) ? null : thumbnail(image, thumbnailExtension);
+            write(hash + "." + extension, image);
+            if (thumbnail != null) {
+                write(thumbnailKey, thumbnail);
+                log.info("Stored photo {} with a {}px thumbnail", hash, thumbnailSize);
+            }
+        } catch (IOException e) {
+            log.error("Error storing photo {}: {}", hash, e.getMessage());
+            throw new RuntimeException("Failed to store photo", e);
+        }
+        return baseUrl + "/" + thumbnailKey;
+    }
+
+    /**
+     * Moves an inline {@code data:image/...;base64,} photo into the store; any other value is returned unchanged.
+     */
+    public String offload(String profilePhoto) {
+        if (profilePhoto == null) {
+            return null;
+        }
+        var matcher = DATA_URL.matcher(profilePhoto);
+        if (!matcher.matches()) {
+            return profilePhoto;
+        }
+        try {
+            return store(Base64.getMimeDecoder().decode(matcher.group(1)));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Profile photo is not valid base64 data");
+        }
+    }
+
+    public Optional<Path> find(String key) {
+        if (!KEY.matcher(key).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private void write(String key, byte[] content) throws IOException {
+        Path path = pathOf(key);
+        if (Files.exists(path)) {
+            return;
+        }
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the image format name, rejecting anything ImageIO cannot decode and images too large to decode safely.
+     */
+    private static String detectFormat(byte[] image) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new RuntimeException("Unsupported image format; use JPEG, PNG or GIF");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                String format = reader.getFormatName().toLowerCase();
+                if (!format.equals("jpeg") && !format.equals("png") && !format.equals("gif")) {
+                    throw new RuntimeException("Unsupported image format; use JPEG, PNG or GIF");
+                }
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new RuntimeException("Image dimensions are too large");
+                }
+                return format;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unreadable image", e);
+        }
+    }
+
+    /**
+     * Center-crops the image to a square and scales it to the thumbnail size, encoded as JPEG or PNG.
+     * Only the square is decoded, subsampled to about twice the thumbnail size, so a large photo never has to be
+     * held in memory at full resolution.
+     */
+    private byte[] thumbnail(byte[] image, String extension) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new RuntimeException("Unreadable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int side = Math.min(width, height);
+                int step = Math.max(1, side / (thumbnailSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        boolean alpha = source.getColorModel().hasAlpha() && !"jpg".equals(extension);
+        
+        BufferedImage target = new BufferedImage(thumbnailSize, thumbnailSize,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!alpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, thumbnailSize, thumbnailSize);
+            }
+            graphics.drawImage(source, 0, 0, thumbnailSize, thumbnailSize, null);
+        } finally {
+            graphics.dispose();
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(target, "jpg".equals(extension) ? "jpeg" : "png", out);
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.swap_skill.swapskill.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Adds a span for the controller handler, e.g. {@code SwapRequestController.createSwapRequest}.
+ */
+@Component
+public class HandlerTracingInterceptor implements HandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE = HandlerTracingInterceptor.class.getName() + ".span";
+
+    private final Tracer tracer;
+
+    public HandlerTracingInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            request.setAttribute(SPAN_ATTRIBUTE,
+                    tracer.start(method.getBeanType().getSimpleName() + "." + method.getMethod().getName()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            request.removeAttribute(SPAN_ATTRIBUTE);
+            if (ex != null) {
+                span.attribute("exception", ex.getClass().getSimpleName());
+            }
+            span.end();
+        }
+    }
+} 
\ No newline at end of file
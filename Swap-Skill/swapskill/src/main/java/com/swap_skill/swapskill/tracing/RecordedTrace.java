@@ -0,0 +1,19 @@
+package com.swap_skill.swapskill.tracing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A finished, sampled trace. Span times are in milliseconds; {@code startMs} is relative to the root span.
+ */
+public record RecordedTrace(String traceId, String name, long startEpochMillis, double durationMs, boolean error,
+                            int spanCount, int droppedSpans, List<RecordedSpan> spans) {
+
+    public RecordedTrace summary() {
+        return new RecordedTrace(traceId, name, startEpochMillis, durationMs, error, spanCount, droppedSpans, null);
+    }
+
+    public record RecordedSpan(String spanId, String parentId, String name, double startMs, double durationMs,
+                               Map<String, Object> attributes, String error) {
+    }
+} 
\ No newline at end of file
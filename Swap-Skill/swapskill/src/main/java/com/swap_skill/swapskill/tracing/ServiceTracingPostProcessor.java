@@ -0,0 +1,59 @@
+package com.swap_skill.swapskill.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+
+/**
+ * Wraps every {@link Service} bean in a proxy that records a span per method call, e.g.
+ * {@code SwapRequestServiceImpl.createSwapRequest}. Services are injected by interface, so plain JDK proxies do.
+ * Exceptions are recorded as an attribute; whether they fail the trace is up to the HTTP status.
+ */
+@Component
+public class ServiceTracingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public ServiceTracingPostProcessor(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = bean.getClass();
+        if (AnnotationUtils.findAnnotation(type, Service.class) == null || type.getInterfaces().length == 0) {
+            return bean;
+        }
+        String prefix = type.getSimpleName() + ".";
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Span span = tracer().start(prefix + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } catch (Throwable t) {
+                span.attribute("exception", t.getClass().getSimpleName());
+                throw t;
+            } finally {
+                span.end();
+            }
+        });
+        return proxyFactory.getProxy(type.getClassLoader());
+    }
+
+    /**
+     * Looked up on first use: post-processors are created before other beans, and the tracer needn't be.
+     */
+    private Tracer tracer() {
+        Tracer current = tracer;
+        if (current == null) {
+            current = tracerProvider.getObject();
+            tracer = current;
+        }
+        return current;
+    }
+} 
\ No newline at end of file
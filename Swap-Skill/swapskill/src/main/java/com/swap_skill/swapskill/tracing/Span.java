@@ -0,0 +1,97 @@
+package com.swap_skill.swapskill.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed step of a request, e.g. a controller handler, a service method or a Firestore RPC. Started with
+ * {@link Tracer#start(String)} and always ended in a {@code finally} block on the thread that started it:
+ * <pre>{@code
+ * Span span = tracer.start("name");
+ * try {
+ *     ...
+ * } catch (RuntimeException e) {
+ *     span.fail(e);
+ *     throw e;
+ * } finally {
+ *     span.end();
+ * }
+ * }</pre>
+ * When tracing is disabled, spans are a shared no-op.
+ */
+public final class Span {
+
+    static final Span NOOP = new Span(null, null, null, null);
+
+    final Trace trace;
+    final Span parent;
+    final String spanId;
+    private String name;
+    final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String error;
+    private boolean ended;
+
+    Span(Trace trace, Span parent, String spanId, String name) {
+        this.trace = trace;
+        this.parent = parent;
+        this.spanId = spanId;
+        this.name = name;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Renames the span, e.g. once a request's route is known.
+     */
+    public synchronized Span rename(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+        return this;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (trace != null && value != null) {
+            synchronized (this) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span, and so its trace, as failed; failed traces are always kept.
+     */
+    public void fail(Throwable cause) {
+        fail(cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : ""));
+    }
+
+    public void fail(String message) {
+        if (trace != null) {
+            synchronized (this) {
+                error = message;
+            }
+            trace.failed = true;
+        }
+    }
+
+    public void end() {
+        if (trace == null) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+        }
+        trace.tracer.ended(this, durationNanos);
+    }
+
+    synchronized RecordedTrace.RecordedSpan record(long durationNanos) {
+        return new RecordedTrace.RecordedSpan(spanId, parent != null ? parent.spanId : null, name,
+                (startNanos - trace.root.startNanos) / 1_000_000.0, durationNanos / 1_000_000.0,
+                new LinkedHashMap<>(attributes), error);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.swap_skill.swapskill.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The spans of one request, collected as they end until the root span ends.
+ */
+final class Trace {
+
+    final Tracer tracer;
+    final String traceId;
+    final long startEpochMillis = System.currentTimeMillis();
+    Span root;
+    volatile boolean failed;
+    private final List<RecordedTrace.RecordedSpan> spans = new ArrayList<>();
+    private int dropped;
+    private boolean finished;
+
+    Trace(Tracer tracer, String traceId) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+    }
+
+    synchronized void add(RecordedTrace.RecordedSpan span, int maxSpans) {
+        if (finished) {
+            return;
+        }
+        if (spans.size() < maxSpans) {
+            spans.add(span);
+        } else {
+            dropped++;
+        }
+    }
+
+    synchronized RecordedTrace finish(RecordedTrace.RecordedSpan rootSpan) {
+        finished = true;
+        List<RecordedTrace.RecordedSpan> all = new ArrayList<>(spans.size() + 1);
+        all.add(rootSpan);
+        all.addAll(spans);
+        return new RecordedTrace(traceId, rootSpan.name(), startEpochMillis, rootSpan.durationMs(), failed,
+                all.size(), dropped, all);
+    }
+} 
\ No newline at end of file
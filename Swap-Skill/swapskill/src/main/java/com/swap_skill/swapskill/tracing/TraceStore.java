@@ -0,0 +1,110 @@
+package com.swap_skill.swapskill.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the last {@code tracing.buffer-size} sampled traces in memory for the {@code traces} actuator endpoint,
+ * and appends each one as a JSON line to {@code tracing.file} if set. File writes happen on a background thread
+ * so they never add to request latency.
+ */
+@Component
+@Slf4j
+public class TraceStore {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final int capacity;
+    private final Deque<RecordedTrace> traces = new ArrayDeque<>();
+    private final Path file;
+    private final ExecutorService exporter;
+
+    public TraceStore(@Value("${tracing.buffer-size:200}") int capacity,
+                      @Value("${tracing.file:}") String file) {
+        this.capacity = capacity;
+        this.file = file.isBlank() ? null : Paths.get(file);
+        this.exporter = this.file == null ? null : Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "trace-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void add(RecordedTrace trace) {
+        synchronized (traces) {
+            if (traces.size() == capacity) {
+                traces.removeFirst();
+            }
+            traces.addLast(trace);
+        }
+        if (exporter != null) {
+            exporter.execute(() -> export(trace));
+        }
+    }
+
+    /**
+     * Summaries of the kept traces, newest first.
+     */
+    public List<RecordedTrace> recent(int limit, double minDurationMs) {
+        List<RecordedTrace> recent = new ArrayList<>();
+        synchronized (traces) {
+            Iterator<RecordedTrace> newestFirst = traces.descendingIterator();
+            while (newestFirst.hasNext() && recent.size() < limit) {
+                RecordedTrace trace = newestFirst.next();
+                if (trace.durationMs() >= minDurationMs) {
+                    recent.add(trace.summary());
+                }
+            }
+        }
+        return recent;
+    }
+
+    public Optional<RecordedTrace> find(String traceId) {
+        synchronized (traces) {
+            for (RecordedTrace trace : traces) {
+                if (trace.traceId().equals(traceId)) {
+                    return Optional.of(trace);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void export(RecordedTrace trace) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(JSON.writeValueAsString(trace));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            log.warn("Failed to export trace {} to {}: {}", trace.traceId(), file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (exporter != null) {
+            exporter.shutdown();
+            exporter.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.swap_skill.swapskill.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process tracer: spans nest per thread, and a trace is finished when its root span ends. Finished traces are
+ * sampled at the tail, once their duration and outcome are known: failed traces and those slower than
+ * {@code tracing.slow-ms} are always kept, others with probability {@code tracing.sample-rate}. Kept traces go to
+ * the {@link TraceStore}.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final TraceStore traceStore;
+    private final boolean enabled;
+    private final long slowNanos;
+    private final double sampleRate;
+    private final int maxSpans;
+
+    public Tracer(TraceStore traceStore,
+                  @Value("${tracing.enabled:true}") boolean enabled,
+                  @Value("${tracing.slow-ms:500}") long slowMs,
+                  @Value("${tracing.sample-rate:0.01}") double sampleRate,
+                  @Value("${tracing.max-spans-per-trace:500}") int maxSpans) {
+        this.traceStore = traceStore;
+        this.enabled = enabled;
+        this.slowNanos = slowMs * 1_000_000L;
+        this.sampleRate = sampleRate;
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * Starts a span as a child of the thread's current span, or as the root of a new trace.
+     */
+    public Span start(String name) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = CURRENT.get();
+        Span span;
+        if (parent == null) {
+            Trace trace = new Trace(this, id(16));
+            span = new Span(trace, null, id(8), name);
+            trace.root = span;
+        } else {
+            span = new Span(parent.trace, parent, id(8), name);
+        }
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * The thread's current span, or a no-op span outside of a trace.
+     */
+    public Span current() {
+        Span span = CURRENT.get();
+        return span != null ? span : Span.NOOP;
+    }
+
+    /**
+     * Runs the task under the caller's current span, so spans it starts on another thread join the caller's trace.
+     */
+    public Runnable wrap(Runnable task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    void ended(Span span, long durationNanos) {
+        if (CURRENT.get() == span) {
+            if (span.parent != null) {
+                CURRENT.set(span.parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        Trace trace = span.trace;
+        if (span.parent != null) {
+            trace.add(span.record(durationNanos), maxSpans);
+            return;
+        }
+        RecordedTrace recorded = trace.finish(span.record(durationNanos));
+        if (trace.failed || durationNanos >= slowNanos || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            traceStore.add(recorded);
+        }
+    }
+
+    private static String id(int bytes) {
+        byte[] id = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.swap_skill.swapskill.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/traces}: the sampled traces, newest first ({@code ?limit=&minDurationMs=}), and
+ * {@code /actuator/traces/{traceId}} with all spans of one trace.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final TraceStore traceStore;
+
+    public TracesEndpoint(TraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @ReadOperation
+    public List<RecordedTrace> traces(@Nullable Integer limit, @Nullable Double minDurationMs) {
+        return traceStore.recent(limit != null ? limit : DEFAULT_LIMIT, minDurationMs != null ? minDurationMs : 0);
+    }
+
+    @ReadOperation
+    public RecordedTrace trace(@Selector String traceId) {
+        return traceStore.find(traceId).orElse(null);
+    }
+} 
\ No newline at end of file
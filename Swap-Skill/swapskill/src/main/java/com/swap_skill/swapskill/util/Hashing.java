@@ -0,0 +1,30 @@
+package com.swap_skill.swapskill.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shared string hash. Shard placement and swap request IDs depend on it, so its output must never change.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit hash of a string: FNV-1a over its UTF-8 bytes, finished with MurmurHash3's fmix64 so that all bits
+     * are well mixed (the sketches slice the hash into several independent parts).
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.swap_skill.swapskill.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void rejectsWidthThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+    }
+
+    @Test
+    void neverUndercountsAndStaysWithinTheErrorBound() {
+        int width = 1024;
+        CountMinSketch sketch = new CountMinSketch(5, width);
+        Map<String, Long> counts = new HashMap<>();
+        Random random = new Random(3);
+        long total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // Skewed keys, like skill popularity
+            String key = "skill-" + (int) Math.floor(Math.pow(random.nextDouble(), 3) * 5_000);
+            sketch.add(key, 1);
+            counts.merge(key, 1L, Long::sum);
+            total++;
+        }
+        double bound = Math.E / width * total;
+        int overBound = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), "Undercount for " + entry.getKey());
+            if (estimate - entry.getValue() > bound) {
+                overBound++;
+            }
+        }
+        // At depth 5 each key exceeds the bound with probability at most e^-5 (0.7%)
+        assertTrue(overBound <= counts.size() * 0.02, overBound + " of " + counts.size() + " keys over the bound");
+    }
+
+    @Test
+    void negativeUpdatesUndoPositiveOnes() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        sketch.add("java", 5);
+        sketch.add("go", 2);
+        sketch.add("java", -3);
+        assertEquals(2, sketch.estimate("java"));
+        sketch.add("go", -2);
+        sketch.add("java", -2);
+        assertEquals(0, sketch.estimate("java"));
+        assertEquals(0, sketch.estimate("go"));
+    }
+
+    @Test
+    void clearResetsEveryCount() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        sketch.add("java", 5);
+        sketch.clear();
+        assertEquals(0, sketch.estimate("java"));
+    }
+
+    @Test
+    void roundTripsThroughItsBinaryForm() throws IOException {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add("skill-" + (i % 50), i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+
+        CountMinSketch copy = new CountMinSketch(4, 256);
+        copy.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(sketch.estimate("skill-" + i), copy.estimate("skill-" + i));
+        }
+    }
+}
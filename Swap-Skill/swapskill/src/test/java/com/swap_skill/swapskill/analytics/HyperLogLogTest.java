@@ -0,0 +1,67 @@
+package com.swap_skill.swapskill.analytics;
+
+import com.swap_skill.swapskill.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptyEstimatesZero() {
+        assertEquals(0, new HyperLogLog(10).estimate());
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int i = 0; i < 100; i++) {
+            hll.add(Hashing.hash64("user-" + i));
+        }
+        assertEquals(100, hll.estimate(), 3);
+    }
+
+    @Test
+    void duplicatesAreCountedOnce() {
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 500; i++) {
+                hll.add(Hashing.hash64("user-" + i));
+            }
+        }
+        assertEquals(500, hll.estimate(), 500 * 0.1);
+    }
+
+    @Test
+    void largeCardinalitiesStayWithinFewStandardErrors() {
+        HyperLogLog hll = new HyperLogLog(10);
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            hll.add(Hashing.hash64("user-" + i));
+        }
+        // Standard error at precision 10 is about 3.3%; allow three of them
+        assertEquals(distinct, hll.estimate(), distinct * 0.1);
+    }
+
+    @Test
+    void clearAndBinaryRoundTrip() throws IOException {
+        HyperLogLog hll = new HyperLogLog(8);
+        for (int i = 0; i < 10_000; i++) {
+            hll.add(Hashing.hash64("user-" + i));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hll.writeTo(new DataOutputStream(bytes));
+        HyperLogLog copy = new HyperLogLog(8);
+        copy.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(hll.estimate(), copy.estimate());
+
+        hll.clear();
+        assertEquals(0, hll.estimate());
+    }
+}
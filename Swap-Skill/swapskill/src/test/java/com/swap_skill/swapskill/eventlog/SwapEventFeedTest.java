@@ -0,0 +1,125 @@
+package com.swap_skill.swapskill.eventlog;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.repository.InMemorySwapRequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwapEventFeedTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemorySwapRequestRepository repository = new InMemorySwapRequestRepository();
+    private SwapEventLog log;
+    private SwapEventFeed feed;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stop();
+    }
+
+    @Test
+    void copiesEventsRecordedWithEachChange() throws Exception {
+        SwapRequest swapRequest = create("a", "b");
+        swapRequest.setStatus(SwapRequest.SwapStatus.ACCEPTED);
+        repository.save(swapRequest, SwapEvent.Type.ACCEPTED);
+        start();
+        awaitSequence(2);
+
+        repository.delete(swapRequest);
+        awaitSequence(3);
+
+        List<SwapEvent> events = readAll();
+        assertEquals(List.of(SwapEvent.Type.CREATED, SwapEvent.Type.ACCEPTED, SwapEvent.Type.DELETED),
+                events.stream().map(SwapEvent::type).toList());
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(SwapEvent::sequence).toList());
+        assertTrue(events.get(0).timestamp() < events.get(1).timestamp());
+        assertEquals(swapRequest.getId(), events.get(2).swapRequestId());
+    }
+
+    @Test
+    void restartAppendsEachEventOnce() throws Exception {
+        create("a", "b");
+        create("c", "d");
+        start();
+        awaitSequence(2);
+        stop();
+
+        create("e", "f");
+        start();
+        awaitSequence(3);
+        Thread.sleep(200);
+        assertEquals(3, log.lastSequence());
+    }
+
+    @Test
+    void recoversPositionsFromTheLogWithoutThePositionsFile() throws Exception {
+        create("a", "b");
+        create("c", "d");
+        start();
+        awaitSequence(2);
+        stop();
+        Files.delete(directory.resolve("feed.positions"));
+
+        start();
+        create("e", "f");
+        awaitSequence(3);
+        Thread.sleep(200);
+        assertEquals(3, log.lastSequence());
+        assertEquals(3, readAll().stream().map(SwapEvent::swapRequestId).distinct().count());
+    }
+
+    private SwapRequest create(String from, String to) {
+        SwapRequest swapRequest = SwapRequest.builder()
+                .fromUserId(from)
+                .toUserId(to)
+                .skillOffered("Java")
+                .skillWanted("Go")
+                .status(SwapRequest.SwapStatus.PENDING)
+                .build();
+        assertTrue(repository.createUnlessPending(swapRequest, from + "/" + to).isEmpty());
+        return swapRequest;
+    }
+
+    private void start() {
+        log = new SwapEventLog(directory.toString(), true, 1 << 20, false);
+        log.open();
+        // One event per read, so every poll pages through the source
+        feed = new SwapEventFeed(repository, log, directory.toString(), 1, 20);
+        feed.start();
+    }
+
+    private void stop() throws InterruptedException, IOException {
+        if (feed != null) {
+            feed.stop();
+            feed = null;
+        }
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private void awaitSequence(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (log.lastSequence() < sequence && System.currentTimeMillis() < deadline) {
+            log.awaitAppend(log.lastSequence(), 100);
+        }
+        assertEquals(sequence, log.lastSequence());
+    }
+
+    private List<SwapEvent> readAll() throws IOException {
+        try (SwapEventLog.Cursor cursor = log.cursor(1)) {
+            return cursor.read(Integer.MAX_VALUE);
+        }
+    }
+}
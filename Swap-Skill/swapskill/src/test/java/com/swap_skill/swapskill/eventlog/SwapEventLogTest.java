@@ -0,0 +1,225 @@
+package com.swap_skill.swapskill.eventlog;
+
+import com.swap_skill.swapskill.model.SwapRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwapEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private SwapEventLog log;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Test
+    void appendsInSequenceAndReadsBackInOrder() throws IOException {
+        log = open(1 << 20);
+        List<SwapEvent> appended = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            appended.add(log.append(event(i)));
+        }
+
+        assertEquals(5, log.lastSequence());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), appended.stream().map(SwapEvent::sequence).toList());
+        assertEquals(appended, readAll(1));
+        assertEquals(appended.subList(3, 5), readAll(4));
+    }
+
+    @Test
+    void recordsAreLengthChecksumAndPayload() throws IOException {
+        log = open(1 << 20);
+        SwapEvent appended = log.append(event(1));
+        log.close();
+
+        ByteBuffer record = ByteBuffer.wrap(Files.readAllBytes(segment(1)));
+        int length = record.getInt();
+        int checksum = record.getInt();
+        byte[] payload = new byte[length];
+        record.get(payload);
+        assertFalse(record.hasRemaining());
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        assertEquals((int) crc.getValue(), checksum);
+        assertEquals(appended, SwapEventCodec.read(new DataInputStream(new ByteArrayInputStream(payload))));
+    }
+
+    @Test
+    void reopeningContinuesTheSequence() throws IOException {
+        log = open(1 << 20);
+        log.append(event(1));
+        log.append(event(2));
+        log.close();
+
+        log = open(1 << 20);
+        assertEquals(2, log.lastSequence());
+        assertEquals(3, log.append(event(3)).sequence());
+        assertEquals(3, readAll(1).size());
+    }
+
+    @Test
+    void cutsOffATornRecordAtTheEnd() throws IOException {
+        log = open(1 << 20);
+        log.append(event(1));
+        log.append(event(2));
+        log.append(event(3));
+        log.close();
+        Path segment = segment(1);
+        long size = Files.size(segment);
+        // A crash mid-append leaves only part of the last record
+        try (var channel = Files.newByteChannel(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        log = open(1 << 20);
+
+        assertEquals(2, log.lastSequence());
+        SwapEvent next = log.append(event(4));
+        assertEquals(3, next.sequence());
+        List<SwapEvent> events = readAll(1);
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(SwapEvent::sequence).toList());
+        assertEquals(next, events.get(2));
+    }
+
+    @Test
+    void cutsOffARecordThatFailsItsChecksum() throws IOException {
+        log = open(1 << 20);
+        log.append(event(1));
+        log.append(event(2));
+        log.close();
+        Path segment = segment(1);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x5a;
+        Files.write(segment, bytes);
+
+        log = open(1 << 20);
+
+        assertEquals(1, log.lastSequence());
+        assertEquals(1, readAll(1).size());
+    }
+
+    @Test
+    void cutsOffTrailingGarbageAfterTheLastRecord() throws IOException {
+        log = open(1 << 20);
+        log.append(event(1));
+        log.close();
+        long size = Files.size(segment(1));
+        Files.write(segment(1), new byte[]{0, 0, 0}, StandardOpenOption.APPEND);
+
+        log = open(1 << 20);
+
+        assertEquals(1, log.lastSequence());
+        assertEquals(size, Files.size(segment(1)));
+    }
+
+    @Test
+    void rollsSegmentsAndReadsAcrossThem() throws IOException {
+        log = open(512);
+        List<SwapEvent> appended = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            appended.add(log.append(event(i)));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(file -> file.toString().endsWith(".log")).count() > 1);
+        }
+        assertEquals(appended, readAll(1));
+        assertEquals(appended.subList(10, 20), readAll(11));
+
+        log.close();
+        log = open(512);
+        assertEquals(20, log.lastSequence());
+        assertEquals(21, log.append(event(20)).sequence());
+    }
+
+    @Test
+    void cursorContinuesWithEventsAppendedLater() throws IOException {
+        log = open(1 << 20);
+        log.append(event(1));
+        try (SwapEventLog.Cursor cursor = log.cursor(1)) {
+            assertEquals(1, cursor.read(10).size());
+            assertEquals(List.of(), cursor.read(10));
+            log.append(event(2));
+            List<SwapEvent> events = cursor.read(10);
+            assertEquals(1, events.size());
+            assertEquals(2, events.get(0).sequence());
+            assertEquals(3, cursor.next());
+        }
+    }
+
+    @Test
+    void awaitAppendReturnsOnceAnEventIsAppended() throws Exception {
+        log = open(1 << 20);
+        Thread appender = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.append(event(1));
+        });
+        appender.start();
+        log.awaitAppend(0, 5_000);
+        assertEquals(1, log.lastSequence());
+        appender.join();
+    }
+
+    @Test
+    void disabledLogAppendsNothing() {
+        log = new SwapEventLog(directory.toString(), false, 1 << 20, false);
+        log.open();
+        assertNull(log.append(event(1)));
+        assertEquals(0, log.lastSequence());
+    }
+
+    private SwapEventLog open(long segmentBytes) {
+        SwapEventLog opened = new SwapEventLog(directory.toString(), true, segmentBytes, false);
+        opened.open();
+        return opened;
+    }
+
+    private List<SwapEvent> readAll(long fromSequence) throws IOException {
+        try (SwapEventLog.Cursor cursor = log.cursor(fromSequence)) {
+            return cursor.read(Integer.MAX_VALUE);
+        }
+    }
+
+    private Path segment(long base) {
+        return directory.resolve(String.format("%020d.log", base));
+    }
+
+    private static SwapEvent event(int i) {
+        SwapRequest swapRequest = SwapRequest.builder()
+                .id("swap-" + i)
+                .fromUserId("from-" + i)
+                .toUserId("to-" + i)
+                .skillOffered("Java")
+                .skillWanted(i % 2 == 0 ? "Go" : null)
+                .status(SwapRequest.SwapStatus.PENDING)
+                .rating(i % 3 == 0 ? null : i / 2.0)
+                .build();
+        return SwapEvent.of(SwapEvent.Type.CREATED, swapRequest, 1_700_000_000_000_000L + i, "shard-0", "event-" + i);
+    }
+}
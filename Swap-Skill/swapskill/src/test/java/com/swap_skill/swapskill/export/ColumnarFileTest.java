@@ -0,0 +1,101 @@
+package com.swap_skill.swapskill.export;
+
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarFileTest {
+
+    @TempDir
+    Path directory;
+
+    private record Row(String id, List<String> skills, Boolean listed, Double rating, Timestamp updatedAt) {
+    }
+
+    private static final List<ColumnarFile.Column<Row>> COLUMNS = List.of(
+            new ColumnarFile.Column<>("id", ColumnarFile.Type.STRING, Row::id),
+            new ColumnarFile.Column<>("skills", ColumnarFile.Type.STRING_LIST, Row::skills),
+            new ColumnarFile.Column<>("listed", ColumnarFile.Type.BOOLEAN, Row::listed),
+            new ColumnarFile.Column<>("rating", ColumnarFile.Type.DOUBLE, Row::rating),
+            new ColumnarFile.Column<>("updatedAt", ColumnarFile.Type.TIMESTAMP, Row::updatedAt));
+
+    @Test
+    void roundTripsEveryTypeWithNulls() throws IOException {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            // Nulls in different columns on different rows, across several bytes of the null bitmap
+            rows.add(new Row(
+                    i % 5 == 0 ? null : "user-" + i + "-é",
+                    i % 4 == 0 ? null : List.of("Java", "skill " + i),
+                    i % 3 == 0 ? null : i % 2 == 0,
+                    i % 7 == 0 ? null : i / 4.0,
+                    i % 6 == 0 ? null : Timestamp.ofTimeSecondsAndNanos(1_700_000_000L + i, i * 1_000)));
+        }
+        Path path = write(rows);
+
+        Map<String, List<Object>> columns = ColumnarFile.read(path);
+
+        assertEquals(List.of("id", "skills", "listed", "rating", "updatedAt"), List.copyOf(columns.keySet()));
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            assertEquals(row.id(), columns.get("id").get(i));
+            assertEquals(row.skills(), columns.get("skills").get(i));
+            assertEquals(row.listed(), columns.get("listed").get(i));
+            assertEquals(row.rating(), columns.get("rating").get(i));
+            assertEquals(row.updatedAt(), columns.get("updatedAt").get(i));
+        }
+    }
+
+    @Test
+    void timestampsKeepMicrosecondPrecision() throws IOException {
+        Timestamp timestamp = Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 123_456_789);
+        Path path = write(List.of(new Row("a", List.of(), true, 1.0, timestamp)));
+
+        assertEquals(Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 123_456_000),
+                ColumnarFile.read(path).get("updatedAt").get(0));
+        assertEquals(List.of(), ColumnarFile.read(path).get("skills").get(0));
+    }
+
+    @Test
+    void emptyFileHasColumnsWithoutRows() throws IOException {
+        Map<String, List<Object>> columns = ColumnarFile.read(write(List.of()));
+        assertEquals(5, columns.size());
+        assertTrue(columns.values().stream().allMatch(List::isEmpty));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path other = directory.resolve("other.gz");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(other)))) {
+            out.writeInt(0x12345678);
+        }
+        assertThrows(IOException.class, () -> ColumnarFile.read(other));
+
+        Path newer = directory.resolve("newer.gz");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(newer)))) {
+            out.writeInt(0x53534346);
+            out.writeShort(99);
+        }
+        assertThrows(IOException.class, () -> ColumnarFile.read(newer));
+    }
+
+    private Path write(List<Row> rows) throws IOException {
+        Path path = directory.resolve("rows-" + rows.size() + ".col.gz");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            ColumnarFile.write(out, COLUMNS, rows);
+        }
+        return path;
+    }
+}
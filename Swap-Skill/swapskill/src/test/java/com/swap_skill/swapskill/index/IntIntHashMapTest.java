@@ -0,0 +1,72 @@
+package com.swap_skill.swapskill.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void missingKeysReadAsZero() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertEquals(0, map.get(0));
+        assertEquals(0, map.get(42));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void addToAccumulatesPerKey() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.addTo(7, 2);
+        map.addTo(7, 3);
+        map.addTo(0, -1);
+        assertEquals(5, map.get(7));
+        assertEquals(-1, map.get(0));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void matchesHashMapThroughRehashes() {
+        IntIntHashMap map = new IntIntHashMap(1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(5_000);
+            int delta = random.nextInt(10) + 1;
+            map.addTo(key, delta);
+            expected.merge(key, delta, Integer::sum);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void addAllMergesCounts() {
+        IntIntHashMap a = new IntIntHashMap();
+        a.addTo(1, 1);
+        a.addTo(2, 2);
+        IntIntHashMap b = new IntIntHashMap();
+        b.addTo(2, 3);
+        b.addTo(3, 4);
+        a.addAll(b);
+        assertEquals(1, a.get(1));
+        assertEquals(5, a.get(2));
+        assertEquals(4, a.get(3));
+        assertEquals(3, a.size());
+    }
+
+    @Test
+    void rejectsNegativeKeys() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(-1, 1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.swap_skill.swapskill.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedSkipListTest {
+
+    @Test
+    void emptyList() {
+        RankedSkipList<Integer> list = new RankedSkipList<>(Comparator.naturalOrder());
+        assertEquals(0, list.size());
+        assertEquals(-1, list.rank(1));
+        assertEquals(List.of(), list.range(0, 10));
+        assertFalse(list.remove(1));
+    }
+
+    @Test
+    void ranksFollowTheComparator() {
+        RankedSkipList<Integer> list = new RankedSkipList<>(Comparator.reverseOrder());
+        for (int value : new int[]{5, 1, 9, 3, 7}) {
+            list.insert(value);
+        }
+        assertEquals(List.of(9, 7, 5, 3, 1), list.range(0, 10));
+        assertEquals(0, list.rank(9));
+        assertEquals(4, list.rank(1));
+        assertEquals(-1, list.rank(4));
+        assertEquals(List.of(5, 3), list.range(2, 2));
+        assertEquals(List.of(), list.range(5, 1));
+        assertEquals(List.of(), list.range(-1, 1));
+    }
+
+    @Test
+    void matchesSortedSetUnderRandomInsertsAndRemoves() {
+        RankedSkipList<Integer> list = new RankedSkipList<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                if (expected.add(value)) {
+                    list.insert(value);
+                }
+            } else {
+                assertEquals(expected.remove(value), list.remove(value));
+            }
+        }
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertEquals(sorted.size(), list.size());
+        assertEquals(sorted, list.range(0, sorted.size()));
+        for (int rank = 0; rank < sorted.size(); rank += 37) {
+            assertEquals(rank, list.rank(sorted.get(rank)));
+            assertEquals(sorted.subList(rank, Math.min(rank + 10, sorted.size())), list.range(rank, 10));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.SimilarUserDto;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarUserIndexTest {
+
+    private SkillDictionary skillDictionary;
+    private SimilarUserIndex index;
+
+    @BeforeEach
+    void setUp() {
+        skillDictionary = new SkillDictionary(Map.of());
+        index = new SimilarUserIndex(skillDictionary, 32, 2, 2000);
+    }
+
+    @Test
+    void ranksByJaccardSimilarityWithSharedFeatures() {
+        User query = add("q", true, List.of("Java", "Go"), List.of("Rust"), List.of("weekends"));
+        add("same", true, List.of("Java", "Go"), List.of("Rust"), List.of("weekends"));
+        add("half", true, List.of("Java", "Go"), List.of("Python", "SQL"), List.of());
+        add("none", true, List.of("Cooking"), List.of("Guitar"), List.of("evenings"));
+
+        List<SimilarUserDto> similar = index.findSimilar(query, 10);
+
+        assertEquals(List.of("same", "half"), similar.stream().map(dto -> dto.getUser().getId()).toList());
+        assertEquals(1.0, similar.get(0).getSimilarity());
+        assertEquals(List.of("weekends"), similar.get(0).getSharedAvailability());
+        assertEquals(Set.of("Java", "Go"), Set.copyOf(similar.get(1).getSharedSkills()));
+        assertEquals(0.333, similar.get(1).getSimilarity());
+    }
+
+    @Test
+    void neverReturnsPrivateDeletedOrTheUserThemself() {
+        User query = add("q", true, List.of("Java"), List.of("Go"), List.of());
+        add("private", false, List.of("Java"), List.of("Go"), List.of());
+        User deleted = add("deleted", true, List.of("Java"), List.of("Go"), List.of());
+        index.onUserChanged(UserChangedEvent.deleted(deleted));
+
+        assertEquals(List.of(), index.findSimilar(query, 10));
+    }
+
+    @Test
+    void limitKeepsTheMostSimilar() {
+        User query = add("q", true, List.of("A", "B", "C", "D"), List.of(), List.of());
+        add("u4", true, List.of("A", "B", "C", "D"), List.of(), List.of());
+        add("u3", true, List.of("A", "B", "C"), List.of(), List.of());
+        add("u2", true, List.of("A", "B"), List.of(), List.of());
+
+        List<SimilarUserDto> similar = index.findSimilar(query, 2);
+        assertEquals(List.of("u4", "u3"), similar.stream().map(dto -> dto.getUser().getId()).toList());
+    }
+
+    @Test
+    void unindexedQueriesDoNotRegisterNewValues() {
+        add("u", true, List.of("Java", "Go"), List.of(), List.of("weekends"));
+        int skills = skillDictionary.size();
+        User visitor = User.builder()
+                .id("visitor")
+                .skillsOffered(List.of("Java", "Go", "Haskell"))
+                .availability(List.of("weekends", "mornings"))
+                .build();
+
+        List<SimilarUserDto> similar = index.findSimilar(visitor, 10);
+
+        assertEquals(skills, skillDictionary.size());
+        assertEquals(1, similar.size());
+        // Three shared features out of five distinct ones, the unseen ones included
+        assertEquals(0.6, similar.get(0).getSimilarity());
+    }
+
+    @Test
+    void findsMostUsersWithHighSimilarity() {
+        List<String> base = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            base.add("skill-" + i);
+        }
+        User query = add("q", true, base, List.of(), List.of());
+        // 200 users sharing 8 of 10 skills plus 2 of their own: similarity 8/12
+        for (int u = 0; u < 200; u++) {
+            List<String> skills = new ArrayList<>(base.subList(u % 3, u % 3 + 8));
+            skills.add("own-" + u + "-a");
+            skills.add("own-" + u + "-b");
+            add("u" + u, true, skills, List.of(), List.of());
+        }
+
+        List<SimilarUserDto> similar = index.findSimilar(query, 200);
+
+        // Each is found with probability above 0.99 at 32 bands of 2 rows
+        assertTrue(similar.size() >= 190, "Found only " + similar.size());
+        for (SimilarUserDto dto : similar) {
+            assertEquals(0.667, dto.getSimilarity());
+        }
+    }
+
+    private User add(String id, boolean publicProfile, List<String> offered, List<String> wanted,
+                     List<String> availability) {
+        User user = User.builder()
+                .id(id)
+                .name(id)
+                .publicProfile(publicProfile)
+                .skillsOffered(offered)
+                .skillsWanted(wanted)
+                .availability(availability)
+                .build();
+        index.onUserChanged(UserChangedEvent.created(user));
+        return user;
+    }
+}
@@ -0,0 +1,155 @@
+package com.swap_skill.swapskill.index;
+
+import com.swap_skill.swapskill.dto.SwapCycleDto;
+import com.swap_skill.swapskill.event.SwapRequestChangedEvent;
+import com.swap_skill.swapskill.event.UserChangedEvent;
+import com.swap_skill.swapskill.model.SwapRequest;
+import com.swap_skill.swapskill.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwapCycleFinderTest {
+
+    private SwapCycleFinder finder;
+
+    @BeforeEach
+    void setUp() {
+        finder = new SwapCycleFinder(new SkillDictionary(Map.of()), 256);
+    }
+
+    @Test
+    void findsThreeUserRingWithTheSkillOfEachStep() {
+        addUser("a", true, List.of("Java"), List.of("Go"));
+        addUser("b", true, List.of("Go"), List.of("Rust"));
+        addUser("c", true, List.of("Rust"), List.of("Java"));
+
+        List<SwapCycleDto> cycles = finder.findCycles("a", 4, 10);
+
+        assertEquals(1, cycles.size());
+        SwapCycleDto cycle = cycles.get(0);
+        assertEquals(List.of("a", "c", "b"), cycle.getUserIds());
+        assertEquals(List.of(
+                new SwapCycleDto.Step("a", "c", "Java"),
+                new SwapCycleDto.Step("c", "b", "Rust"),
+                new SwapCycleDto.Step("b", "a", "Go")), cycle.getSteps());
+    }
+
+    @Test
+    void findsFourUserRingsOnlyUpToMaxLength() {
+        addUser("a", true, List.of("Java"), List.of("Go"));
+        addUser("b", true, List.of("Kotlin"), List.of("Java"));
+        addUser("c", true, List.of("Rust"), List.of("Kotlin"));
+        addUser("d", true, List.of("Go"), List.of("Rust"));
+
+        assertEquals(List.of(), finder.findCycles("a", 3, 10));
+        List<SwapCycleDto> cycles = finder.findCycles("a", 4, 10);
+        assertEquals(1, cycles.size());
+        assertEquals(List.of("a", "b", "c", "d"), cycles.get(0).getUserIds());
+    }
+
+    @Test
+    void shortestRingsComeFirstAndLimitApplies() {
+        addUser("a", true, List.of("Java"), List.of("Go"));
+        addUser("b", true, List.of("Go", "Rust"), List.of("Java"));
+        addUser("c", true, List.of("Go"), List.of("Rust"));
+        addUser("d", true, List.of("Rust"), List.of("Java"));
+
+        List<SwapCycleDto> cycles = finder.findCycles("a", 4, 10);
+        assertFalse(cycles.isEmpty());
+        for (int i = 1; i < cycles.size(); i++) {
+            assertTrue(cycles.get(i - 1).getUserIds().size() <= cycles.get(i).getUserIds().size());
+        }
+        assertEquals(3, cycles.get(0).getUserIds().size());
+        assertEquals(1, finder.findCycles("a", 4, 1).size());
+    }
+
+    @Test
+    void skipsPrivateAndDeletedUsers() {
+        addUser("a", true, List.of("Java"), List.of("Go"));
+        addUser("b", false, List.of("Go"), List.of("Rust"));
+        addUser("c", true, List.of("Rust"), List.of("Java"));
+        assertEquals(List.of(), finder.findCycles("a", 4, 10));
+
+        addUser("b", true, List.of("Go"), List.of("Rust"));
+        assertEquals(1, finder.findCycles("a", 4, 10).size());
+
+        finder.onUserChanged(UserChangedEvent.deleted(user("c", true, List.of("Rust"), List.of("Java"))));
+        assertEquals(List.of(), finder.findCycles("a", 4, 10));
+    }
+
+    @Test
+    void openSwapRequestsAddEdgesUntilTheyClose() {
+        addUser("a", true, List.of(), List.of());
+        addUser("b", true, List.of("Go"), List.of("Rust"));
+        addUser("c", true, List.of("Rust"), List.of());
+        SwapRequest swapRequest = SwapRequest.builder()
+                .id("s1")
+                .fromUserId("a")
+                .toUserId("b")
+                .skillOffered("Java")
+                .skillWanted("Go")
+                .status(SwapRequest.SwapStatus.PENDING)
+                .build();
+        // Each open request is a teaching edge both ways between its users
+        SwapRequest other = SwapRequest.builder()
+                .id("s2")
+                .fromUserId("a")
+                .toUserId("c")
+                .skillOffered("Java")
+                .skillWanted("Rust")
+                .status(SwapRequest.SwapStatus.PENDING)
+                .build();
+        finder.onSwapRequestChanged(SwapRequestChangedEvent.created(swapRequest));
+        finder.onSwapRequestChanged(SwapRequestChangedEvent.created(other));
+
+        List<SwapCycleDto> cycles = finder.findCycles("a", 3, 10);
+        assertEquals(1, cycles.size());
+        assertEquals(List.of("a", "c", "b"), cycles.get(0).getUserIds());
+
+        swapRequest.setStatus(SwapRequest.SwapStatus.REJECTED);
+        finder.onSwapRequestChanged(SwapRequestChangedEvent.updated(SwapRequest.SwapStatus.PENDING, swapRequest));
+        assertEquals(List.of(), finder.findCycles("a", 3, 10));
+    }
+
+    @Test
+    void fillsUpWithFourUserRingsOnlyPastTheThreeUserOnes() {
+        addUser("a", true, List.of("Java"), List.of("Go"));
+        addUser("b", true, List.of("Kotlin"), List.of("Java"));
+        addUser("c", true, List.of("Go"), List.of("Kotlin"));
+        addUser("e", true, List.of("Rust"), List.of("Kotlin"));
+        addUser("f", true, List.of("Go"), List.of("Rust"));
+
+        List<SwapCycleDto> one = finder.findCycles("a", 4, 1);
+        assertEquals(1, one.size());
+        assertEquals(List.of("a", "b", "c"), one.get(0).getUserIds());
+
+        List<SwapCycleDto> two = finder.findCycles("a", 4, 2);
+        assertEquals(2, two.size());
+        assertEquals(List.of("a", "b", "c"), two.get(0).getUserIds());
+        assertEquals(List.of("a", "b", "e", "f"), two.get(1).getUserIds());
+        assertEquals(1, finder.findCycles("a", 3, 2).size());
+    }
+
+    @Test
+    void unknownUserHasNoRings() {
+        assertEquals(List.of(), finder.findCycles("missing", 4, 10));
+    }
+
+    private void addUser(String id, boolean publicProfile, List<String> offered, List<String> wanted) {
+        finder.onUserChanged(UserChangedEvent.created(user(id, publicProfile, offered, wanted)));
+    }
+
+    private static User user(String id, boolean publicProfile, List<String> offered, List<String> wanted) {
+        return User.builder()
+                .id(id)
+                .publicProfile(publicProfile)
+                .skillsOffered(offered)
+                .skillsWanted(wanted)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.swap_skill.swapskill.repository;
+
+import com.swap_skill.swapskill.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void rejectsEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+    }
+
+    @Test
+    void routesByKeyHash() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        for (int i = 0; i < 1_000; i++) {
+            String key = "user-" + i;
+            assertEquals(ring.nodeFor(key), ring.nodeForHash(Hashing.hash64(key)));
+            assertEquals(ring.nodeFor(key), new ConsistentHashRing(List.of("c", "b", "a"), 64).nodeFor(key));
+        }
+    }
+
+    @Test
+    void spreadsKeysEvenlyAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("user-" + i), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - KEYS / 4) < KEYS / 4 * 0.25, "Uneven share: " + counts);
+        }
+    }
+
+    @Test
+    void addingNodeMovesOnlyItsShareToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String owner = after.nodeFor(key);
+            if (!owner.equals(before.nodeFor(key))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 4 * 0.25, "Moved " + moved + " of " + KEYS);
+    }
+}
@@ -0,0 +1,39 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.firestore.FirestoreException;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FirestoreCallsTest {
+
+    @Test
+    void sheddingAndTimeoutsAreTransient() {
+        assertTrue(FirestoreCalls.isTransient(new FirestoreUnavailableException("open")));
+        assertTrue(FirestoreCalls.isTransient(new ExecutionException("timed out", new TimeoutException())));
+    }
+
+    @Test
+    void degradedStatusesAreTransient() {
+        for (Status status : new Status[]{Status.UNAVAILABLE, Status.DEADLINE_EXCEEDED, Status.RESOURCE_EXHAUSTED}) {
+            assertTrue(FirestoreCalls.isTransient(failure(status)), status.getCode().name());
+        }
+    }
+
+    @Test
+    void rejectedCallsAreNotTransient() {
+        for (Status status : new Status[]{Status.INVALID_ARGUMENT, Status.FAILED_PRECONDITION, Status.NOT_FOUND,
+                Status.ABORTED}) {
+            assertFalse(FirestoreCalls.isTransient(failure(status)), status.getCode().name());
+        }
+        assertFalse(FirestoreCalls.isTransient(new ExecutionException(new IllegalStateException())));
+    }
+
+    private static ExecutionException failure(Status status) {
+        return new ExecutionException(FirestoreException.forServerRejection(status, "rejected"));
+    }
+}
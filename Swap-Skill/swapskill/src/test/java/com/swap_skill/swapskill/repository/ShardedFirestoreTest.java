@@ -0,0 +1,65 @@
+package com.swap_skill.swapskill.repository;
+
+import com.google.cloud.firestore.Firestore;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardedFirestoreTest {
+
+    private final Map<String, Firestore> shards = new LinkedHashMap<>();
+
+    ShardedFirestoreTest() {
+        for (String name : List.of("a", "b", "c")) {
+            shards.put(name, mock(Firestore.class));
+        }
+    }
+
+    @Test
+    void swapIdsRouteToTheSendersShard() {
+        ShardedFirestore sharded = new ShardedFirestore(shards, 64, false);
+        for (int i = 0; i < 200; i++) {
+            String fromUserId = "user-" + i;
+            String swapId = sharded.newSwapId(fromUserId);
+            assertEquals(List.of(sharded.shardFor(fromUserId)), sharded.readShardsForSwap(swapId));
+        }
+    }
+
+    @Test
+    void unroutedSwapIdsAreReadFromEveryShard() {
+        ShardedFirestore sharded = new ShardedFirestore(shards, 64, false);
+        assertEquals(sharded.all(), sharded.readShardsForSwap("legacy-id"));
+    }
+
+    @Test
+    void readsEveryShardOwnerFirstWhileRebalancing() {
+        ShardedFirestore sharded = new ShardedFirestore(shards, 64, false);
+        String swapId = sharded.newSwapId("user-1");
+        Firestore owner = sharded.shardFor("user-1");
+
+        sharded.setRebalancing(true);
+        List<Firestore> readShards = sharded.readShardsForSwap(swapId);
+        assertEquals(3, readShards.size());
+        assertSame(owner, readShards.get(0));
+        assertEquals(owner, sharded.readShardsFor("user-1").get(0));
+
+        sharded.setRebalancing(false);
+        assertEquals(List.of(owner), sharded.readShardsForSwap(swapId));
+    }
+
+    @Test
+    void groupsSwapIdsByOwner() {
+        ShardedFirestore sharded = new ShardedFirestore(shards, 64, false);
+        List<String> ids = List.of(sharded.newSwapId("user-1"), sharded.newSwapId("user-2"), sharded.newSwapId("user-3"));
+        Map<Firestore, List<String>> groups = sharded.readGroupsForSwaps(ids);
+        assertEquals(3, groups.values().stream().mapToInt(List::size).sum());
+        for (int i = 0; i < ids.size(); i++) {
+            assertTrue(groups.get(sharded.shardFor("user-" + (i + 1))).contains(ids.get(i)));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.swap_skill.swapskill.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.Timestamp;
+import com.swap_skill.swapskill.exception.ConflictException;
+import com.swap_skill.swapskill.repository.IdempotencyRecord;
+import com.swap_skill.swapskill.repository.IdempotencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceImplTest {
+
+    private FakeIdempotencyRepository sharedKeys;
+    private IdempotencyServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        sharedKeys = new FakeIdempotencyRepository();
+        service = newInstance(30_000);
+    }
+
+    @Test
+    void replaysTheFirstResponse() {
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = service.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "r" + runs.incrementAndGet());
+        String second = service.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "r" + runs.incrementAndGet());
+
+        assertEquals("r1", first);
+        assertEquals("r1", second);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void replaysAcrossInstancesFromTheSharedKeys() {
+        AtomicInteger runs = new AtomicInteger();
+        service.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "r" + runs.incrementAndGet());
+
+        String replayed = newInstance(30_000)
+                .execute("swaps", "k1", Map.of("a", 1), String.class, () -> "r" + runs.incrementAndGet());
+
+        assertEquals("r1", replayed);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void rejectsTheKeyForADifferentRequest() {
+        service.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "r");
+
+        assertThrows(ConflictException.class,
+                () -> service.execute("swaps", "k1", Map.of("a", 2), String.class, () -> "other"));
+        assertThrows(ConflictException.class,
+                () -> newInstance(30_000).execute("swaps", "k1", Map.of("a", 2), String.class, () -> "other"));
+    }
+
+    @Test
+    void releasesTheKeyWhenTheActionFails() {
+        assertThrows(IllegalStateException.class, () -> service.execute("swaps", "k1", Map.of("a", 1), String.class,
+                () -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertTrue(sharedKeys.records.isEmpty());
+
+        assertEquals("retried", service.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "retried"));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstExecution() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> service.execute("swaps", "k1", Map.of("a", 1), String.class,
+                    () -> {
+                        runs.incrementAndGet();
+                        started.countDown();
+                        await(finish);
+                        return "r1";
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> duplicate = executor.submit(() -> service.execute("swaps", "k1", Map.of("a", 1),
+                    String.class, () -> "r" + runs.incrementAndGet()));
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+
+            finish.countDown();
+            assertEquals("r1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("r1", duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void inFlightKeyOnAnotherInstanceIsTakenOverOnlyAfterItsLease() throws Exception {
+        IdempotencyServiceImpl crashed = newInstance(100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> crashed.execute("swaps", "k1", Map.of("a", 1), String.class, () -> {
+                started.countDown();
+                await(finish);
+                return "never used";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            IdempotencyServiceImpl other = newInstance(100);
+            assertThrows(ConflictException.class,
+                    () -> other.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "too early"));
+            Thread.sleep(150);
+            assertEquals("taken over", other.execute("swaps", "k1", Map.of("a", 1), String.class, () -> "taken over"));
+        } finally {
+            finish.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyServiceImpl newInstance(long waitMillis) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("idempotencyRepository", sharedKeys));
+        return new IdempotencyServiceImpl(new ObjectMapper(), beans.getBeanProvider(IdempotencyRepository.class),
+                100, 60_000, waitMillis);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Same claim rules as the Firestore repository, kept in a map.
+     */
+    private static class FakeIdempotencyRepository implements IdempotencyRepository {
+
+        final Map<String, Stored> records = new HashMap<>();
+
+        @Override
+        public synchronized <T> Optional<IdempotencyRecord<T>> claim(String id, String fingerprint,
+                                                                     Timestamp expiresAt, Timestamp leaseUntil,
+                                                                     Class<T> responseType) {
+            Timestamp now = Timestamp.now();
+            Stored stored = records.get(id);
+            if (stored != null && stored.expiresAt().compareTo(now) > 0) {
+                boolean abandoned = stored.response() == null && fingerprint.equals(stored.fingerprint())
+                        && stored.leaseUntil().compareTo(now) <= 0;
+                if (!abandoned) {
+                    return Optional.of(new IdempotencyRecord<>(stored.fingerprint(), responseType.cast(stored.response())));
+                }
+            }
+            records.put(id, new Stored(fingerprint, null, expiresAt, leaseUntil));
+            return Optional.empty();
+        }
+
+        @Override
+        public synchronized void complete(String id, Object response) {
+            Stored stored = records.get(id);
+            records.put(id, new Stored(stored.fingerprint(), response, stored.expiresAt(), stored.leaseUntil()));
+        }
+
+        @Override
+        public synchronized void release(String id) {
+            records.remove(id);
+        }
+
+        private record Stored(String fingerprint, Object response, Timestamp expiresAt, Timestamp leaseUntil) {
+        }
+    }
+}